@@ -0,0 +1,64 @@
+// Runs after `npm run build` (see "postbuild" in package.json).
+//
+// Writes a gzip (.gz) and a brotli (.br) copy next to every compressible file in
+// build/, so that the Spring Boot backend can serve the precompressed variant the
+// browser asks for instead of the original (see WebConfig.java).  A variant that
+// would not be smaller than the original is not written.
+
+const fs = require("fs");
+const path = require("path");
+const zlib = require("zlib");
+
+const buildDir = path.join(__dirname, "..", "build");
+const compressible = /\.(js|css|html|json|map|svg|txt|ico)$/;
+const minimumSize = 1024;
+
+function* files(dir) {
+  for (const entry of fs.readdirSync(dir, { withFileTypes: true })) {
+    const file = path.join(dir, entry.name);
+    if (entry.isDirectory()) {
+      yield* files(file);
+    } else {
+      yield file;
+    }
+  }
+}
+
+function write(file, variant, originalSize) {
+  if (variant.length < originalSize) {
+    fs.writeFileSync(file, variant);
+    return variant.length;
+  }
+  return 0;
+}
+
+let original = 0;
+let gzipped = 0;
+let brotlied = 0;
+for (const file of files(buildDir)) {
+  if (!compressible.test(file) || fs.statSync(file).size < minimumSize) {
+    continue;
+  }
+  const content = fs.readFileSync(file);
+  original += content.length;
+  gzipped += write(
+    `${file}.gz`,
+    zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }),
+    content.length,
+  );
+  brotlied += write(
+    `${file}.br`,
+    zlib.brotliCompressSync(content, {
+      params: {
+        [zlib.constants.BROTLI_PARAM_QUALITY]:
+          zlib.constants.BROTLI_MAX_QUALITY,
+        [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+      },
+    }),
+    content.length,
+  );
+}
+
+console.log(
+  `Precompressed ${original} bytes of assets: ${gzipped} bytes gzip, ${brotlied} bytes brotli`,
+);
@@ -0,0 +1,71 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.ErrorResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of the exception every getById/put/delete of a missing id throws, and of turning it into
+ * the 404 body.  The "stackful" benchmarks reproduce the previous implementation (message formatted
+ * eagerly, full stack trace, a new Map per response) for comparison.  Each exception is thrown from
+ * a few frames down, as it is from inside a controller behind proxies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EntityNotFoundExceptionBenchmark {
+
+  /**
+   * EntityNotFoundException as it was before it became stackless.
+   */
+  static class StackfulEntityNotFoundException extends RuntimeException {
+    StackfulEntityNotFoundException(Class<?> entityType, Object id) {
+      super("%s with id %s not found".formatted(entityType.getSimpleName(), id.toString()));
+    }
+  }
+
+  long id = 42L;
+
+  @Benchmark
+  public RuntimeException stackfulConstruct() {
+    return deep(8, () -> new StackfulEntityNotFoundException(Restaurant.class, id));
+  }
+
+  @Benchmark
+  public RuntimeException stacklessConstruct() {
+    return deep(8, () -> new EntityNotFoundException(Restaurant.class, id));
+  }
+
+  @Benchmark
+  public Object stackfulResponse() {
+    RuntimeException e = deep(8, () -> new StackfulEntityNotFoundException(Restaurant.class, id));
+    return Map.of("type", e.getClass().getSimpleName(), "message", e.getMessage());
+  }
+
+  @Benchmark
+  public Object stacklessResponse() {
+    RuntimeException e = deep(8, () -> new EntityNotFoundException(Restaurant.class, id));
+    return ErrorResponse.of(e);
+  }
+
+  private static RuntimeException deep(int frames, Supplier<RuntimeException> exception) {
+    return frames == 0 ? exception.get() : deep(frames - 1, exception);
+  }
+}
@@ -0,0 +1,106 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.services.GeoIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Nearest-commons and within-radius lookups through the GeoIndex, against a scan that computes the
+ * haversine distance to every row (what a query without the index has to do).  The commons are spread
+ * over a 20 km square around campus; queries come from random points in the same square.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GeoIndexBenchmark {
+
+  @Param({ "10", "1000", "100000" })
+  int rows;
+
+  List<UCSBDiningCommons> commons;
+  GeoIndex<UCSBDiningCommons> index;
+  Random random = new Random(156);
+
+  Predicate<UCSBDiningCommons> takeOut = UCSBDiningCommons::getHasTakeOutMeal;
+
+  @Setup
+  public void setup() {
+    commons = new ArrayList<>();
+    for (int i = 0; i < rows; i++) {
+      commons.add(UCSBDiningCommons.builder()
+          .code("c" + i)
+          .hasTakeOutMeal(i % 2 == 0)
+          .latitude(34.32 + random.nextDouble() * 0.18)
+          .longitude(-119.95 + random.nextDouble() * 0.22)
+          .build());
+    }
+    index = GeoIndex.of(commons, UCSBDiningCommons::getLatitude, UCSBDiningCommons::getLongitude);
+  }
+
+  @Benchmark
+  public Object nearestIndexed() {
+    return index.nearest(latitude(), longitude(), 1, takeOut);
+  }
+
+  @Benchmark
+  public Object nearestScan() {
+    double latitude = latitude();
+    double longitude = longitude();
+    return commons.stream()
+        .filter(takeOut)
+        .min(Comparator.comparingDouble(c -> haversineMeters(latitude, longitude, c.getLatitude(), c.getLongitude())));
+  }
+
+  @Benchmark
+  public Object withinIndexed() {
+    return index.within(latitude(), longitude(), 500, takeOut);
+  }
+
+  @Benchmark
+  public Object withinScan() {
+    double latitude = latitude();
+    double longitude = longitude();
+    return commons.stream()
+        .filter(takeOut)
+        .filter(c -> haversineMeters(latitude, longitude, c.getLatitude(), c.getLongitude()) <= 500)
+        .sorted(Comparator.comparingDouble(c -> haversineMeters(latitude, longitude, c.getLatitude(), c.getLongitude())))
+        .toList();
+  }
+
+  private double latitude() {
+    return 34.32 + random.nextDouble() * 0.18;
+  }
+
+  private double longitude() {
+    return -119.95 + random.nextDouble() * 0.22;
+  }
+
+  private static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a = Math.pow(Math.sin(dLat / 2), 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+    return 2 * GeoIndex.EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+  }
+}
@@ -0,0 +1,75 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import edu.ucsb.cs156.example.config.SecurityConfig;
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdminStatusService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SecurityConfig.getAdmin, which runs for every OAuth2 login, for an email in app.admin.emails
+ * and for users whose admin flag comes from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GetAdminBenchmark {
+
+  SecurityConfig securityConfig;
+
+  @Setup
+  public void setup() {
+    // only findByEmail is called; users whose email starts with "admin" have the admin flag set
+    UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+        UserRepository.class.getClassLoader(), new Class<?>[] { UserRepository.class },
+        (proxy, method, args) -> {
+          String email = (String) args[0];
+          return Optional.of(User.builder().email(email).admin(email.startsWith("admin")).build());
+        });
+
+    AdminStatusService adminStatusService = new AdminStatusService();
+    ReflectionTestUtils.setField(adminStatusService, "userRepository", userRepository);
+    ReflectionTestUtils.setField(adminStatusService, "adminEmailList",
+        List.of("phtcon@ucsb.edu", "cgaucho@ucsb.edu", "ldelplaya@ucsb.edu"));
+    ReflectionTestUtils.setField(adminStatusService, "maximumSize", 10000L);
+    ReflectionTestUtils.setField(adminStatusService, "expireAfterWriteSeconds", 300L);
+    adminStatusService.init();
+
+    securityConfig = new SecurityConfig();
+    ReflectionTestUtils.setField(securityConfig, "adminStatusService", adminStatusService);
+  }
+
+  @Benchmark
+  public boolean configuredAdmin() {
+    return securityConfig.getAdmin("ldelplaya@ucsb.edu");
+  }
+
+  @Benchmark
+  public boolean databaseAdmin() {
+    return securityConfig.getAdmin("admingaucho@ucsb.edu");
+  }
+
+  @Benchmark
+  public boolean databaseNonAdmin() {
+    return securityConfig.getAdmin("student@ucsb.edu");
+  }
+}
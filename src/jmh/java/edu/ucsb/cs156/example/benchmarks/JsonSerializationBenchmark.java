@@ -0,0 +1,137 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReviews;
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganizations;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Serializes a list of each entity type the way the /all endpoints do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonSerializationBenchmark {
+
+  @Param({ "10000" })
+  int size;
+
+  ObjectMapper mapper;
+
+  List<Article> articles;
+  List<HelpRequest> helpRequests;
+  List<MenuItemReviews> menuItemReviews;
+  List<RecommendationRequest> recommendationRequests;
+  List<Restaurant> restaurants;
+  List<UCSBDate> ucsbDates;
+  List<UCSBDiningCommons> diningCommons;
+  List<UCSBDiningCommonsMenuItem> menuItems;
+  List<UCSBOrganizations> organizations;
+
+  @Setup
+  public void setup() {
+    // same settings Spring Boot applies to the application's ObjectMapper
+    mapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    LocalDateTime t = LocalDateTime.parse("2024-01-03T10:15:30");
+    articles = rows(i -> Article.builder().id(i).title("Article " + i).url("https://example.org/" + i)
+        .explanation("Explanation of article " + i).email("cgaucho@ucsb.edu").dateAdded(t).build());
+    helpRequests = rows(i -> HelpRequest.builder().id(i).requesterEmail("cgaucho@ucsb.edu").teamId("s22-5pm-" + i % 8)
+        .tableOrBreakoutRoom(String.valueOf(i % 12)).requestTime(t).explanation("Need help with " + i).solved(i % 2 == 0).build());
+    menuItemReviews = rows(i -> MenuItemReviews.builder().id(i).itemId(i % 500).reviewEmail("cgaucho@ucsb.edu")
+        .stars(i % 5 + 1).dateReviewed(t).comments("Review " + i).build());
+    recommendationRequests = rows(i -> RecommendationRequest.builder().id(i).requesterEmail("cgaucho@ucsb.edu")
+        .professorEmail("phtcon@ucsb.edu").explanation("Recommendation " + i).dateRequested(t).dateNeeded(t.plusDays(i % 30))
+        .done(i % 3 == 0).build());
+    restaurants = rows(i -> Restaurant.builder().id(i).name("Restaurant " + i).description("Description " + i).build());
+    ucsbDates = rows(i -> UCSBDate.builder().id(i).quarterYYYYQ("2024" + (i % 4 + 1)).name("Date " + i).localDateTime(t).build());
+    diningCommons = rows(i -> UCSBDiningCommons.builder().code("commons" + i).name("Commons " + i).hasSackMeal(i % 2 == 0)
+        .hasTakeOutMeal(i % 3 == 0).hasDiningCam(true).latitude(34.41 + i * 1e-6).longitude(-119.84 - i * 1e-6).build());
+    menuItems = rows(i -> UCSBDiningCommonsMenuItem.builder().id(i).diningCommonsCode("ortega").name("Menu item " + i)
+        .station("Entree Specials").build());
+    organizations = rows(i -> UCSBOrganizations.builder().orgCode("ORG" + i).orgTranslationShort("ORG " + i)
+        .orgTranslation("Organization " + i).inactive(i % 10 == 0).build());
+  }
+
+  private <T> List<T> rows(IntFunction<T> row) {
+    return IntStream.range(0, size).mapToObj(row).toList();
+  }
+
+  @Benchmark
+  public byte[] articles() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(articles);
+  }
+
+  @Benchmark
+  public byte[] helpRequests() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(helpRequests);
+  }
+
+  @Benchmark
+  public byte[] menuItemReviews() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(menuItemReviews);
+  }
+
+  @Benchmark
+  public byte[] recommendationRequests() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(recommendationRequests);
+  }
+
+  @Benchmark
+  public byte[] restaurants() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(restaurants);
+  }
+
+  @Benchmark
+  public byte[] ucsbDates() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(ucsbDates);
+  }
+
+  @Benchmark
+  public byte[] diningCommons() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(diningCommons);
+  }
+
+  @Benchmark
+  public byte[] menuItems() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(menuItems);
+  }
+
+  @Benchmark
+  public byte[] organizations() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(organizations);
+  }
+}
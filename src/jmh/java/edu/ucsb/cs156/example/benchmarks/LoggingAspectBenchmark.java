@@ -0,0 +1,96 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+
+import edu.ucsb.cs156.example.aop.LoggingAspect;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead that LoggingAspect.logControllers adds to a controller call, with the aspect's
+ * logger enabled (INFO) and disabled (WARN).  Log events go to a no-op appender so that
+ * the numbers measure the aspect rather than the console.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LoggingAspectBenchmark {
+
+  /**
+   * Stand-in for a controller: one mapped method, so that the aspect's pointcut applies.
+   */
+  public static class PingController {
+    @GetMapping("/api/ping")
+    public String ping() {
+      return "pong";
+    }
+  }
+
+  @Param({ "INFO", "WARN" })
+  String level;
+
+  PingController controller;
+  PingController advised;
+
+  @Setup
+  public void setup() {
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    context.reset();
+    NOPAppender<ILoggingEvent> appender = new NOPAppender<>();
+    appender.setContext(context);
+    appender.start();
+    Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+    root.setLevel(Level.WARN);
+    root.addAppender(appender);
+    context.getLogger(LoggingAspect.class).setLevel(Level.valueOf(level));
+
+    controller = new PingController();
+    AspectJProxyFactory factory = new AspectJProxyFactory(controller);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new LoggingAspect());
+    advised = factory.getProxy();
+
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/ping")));
+  }
+
+  @TearDown
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Benchmark
+  public String withoutAspect() {
+    return controller.ping();
+  }
+
+  @Benchmark
+  public String withAspect() {
+    return advised.ping();
+  }
+}
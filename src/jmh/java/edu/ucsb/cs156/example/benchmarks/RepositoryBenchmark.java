@@ -0,0 +1,118 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import edu.ucsb.cs156.example.entities.MenuItemReviews;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewsRepository;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Repository findAll/findById/findByEmail against an in-memory H2 database created by the
+ * application's Liquibase changelog.  Only the JPA part of the application is started.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RepositoryBenchmark {
+
+  @Configuration
+  @EnableAutoConfiguration
+  @EntityScan("edu.ucsb.cs156.example.entities")
+  @EnableJpaRepositories("edu.ucsb.cs156.example.repositories")
+  static class JpaOnly {
+  }
+
+  @Param({ "1000" })
+  int rows;
+
+  ConfigurableApplicationContext context;
+  RestaurantRepository restaurantRepository;
+  MenuItemReviewsRepository menuItemReviewsRepository;
+  UserRepository userRepository;
+  List<Long> restaurantIds;
+
+  @Setup
+  public void setup() {
+    context = new SpringApplicationBuilder(JpaOnly.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+            "spring.devtools.restart.enabled=false",
+            "spring.main.banner-mode=off",
+            "logging.level.root=WARN")
+        .run();
+    restaurantRepository = context.getBean(RestaurantRepository.class);
+    menuItemReviewsRepository = context.getBean(MenuItemReviewsRepository.class);
+    userRepository = context.getBean(UserRepository.class);
+
+    restaurantIds = IntStream.range(0, rows)
+        .mapToObj(i -> Restaurant.builder().name("Restaurant " + i).description("Description " + i).build())
+        .map(restaurantRepository::save)
+        .map(Restaurant::getId)
+        .toList();
+    LocalDateTime t = LocalDateTime.parse("2024-01-03T10:15:30");
+    menuItemReviewsRepository.saveAll(IntStream.range(0, rows)
+        .mapToObj(i -> MenuItemReviews.builder().itemId(i % 50).reviewEmail("cgaucho@ucsb.edu").stars(i % 5 + 1)
+            .dateReviewed(t).comments("Review " + i).build())
+        .toList());
+    userRepository.saveAll(IntStream.range(0, rows)
+        .mapToObj(i -> User.builder().email("user" + i + "@ucsb.edu").build())
+        .toList());
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Iterable<Restaurant> restaurantFindAll() {
+    return restaurantRepository.findAll();
+  }
+
+  @Benchmark
+  public Optional<Restaurant> restaurantFindById() {
+    return restaurantRepository.findById(restaurantIds.get(ThreadLocalRandom.current().nextInt(restaurantIds.size())));
+  }
+
+  @Benchmark
+  public Iterable<MenuItemReviews> menuItemReviewsFindAll() {
+    return menuItemReviewsRepository.findAll();
+  }
+
+  @Benchmark
+  public Optional<User> userFindByEmail() {
+    return userRepository.findByEmail("user" + ThreadLocalRandom.current().nextInt(rows) + "@ucsb.edu");
+  }
+}
@@ -0,0 +1,133 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Request throughput with 1000 concurrent clients, with Tomcat on platform threads (its default
+ * pool of 200) and on virtual threads (spring.threads.virtual.enabled).  Each request does a
+ * repository lookup and then blocks for a further {@code latencyMillis}, standing in for the slow
+ * JDBC round trip of a real database; with platform threads that blocking is what limits throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VirtualThreadsBenchmark {
+
+  static final int CLIENTS = 1000;
+
+  @RestController
+  public static class BlockingController {
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @GetMapping("/api/benchmark/restaurant")
+    public String restaurant(@RequestParam long id, @RequestParam long latencyMillis) throws InterruptedException {
+      String name = restaurantRepository.findById(id).map(Restaurant::getName).orElse("");
+      Thread.sleep(latencyMillis);
+      return name;
+    }
+  }
+
+  @Configuration
+  @EnableAutoConfiguration(excludeName = {
+      "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+      "org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration",
+      "org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration",
+      "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration" })
+  @EntityScan("edu.ucsb.cs156.example.entities")
+  @EnableJpaRepositories("edu.ucsb.cs156.example.repositories")
+  @Import(BlockingController.class)
+  static class WebAndJpaOnly {
+  }
+
+  @Param({ "platform", "virtual" })
+  String threads;
+
+  @Param({ "20" })
+  long latencyMillis;
+
+  ConfigurableApplicationContext context;
+  ExecutorService clientExecutor;
+  HttpClient client;
+  HttpRequest request;
+
+  @Setup
+  public void setup() {
+    context = new SpringApplicationBuilder(WebAndJpaOnly.class)
+        .properties(
+            "server.port=0",
+            "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+            "app.virtualThreads.pinningMonitor.enabled=false",
+            "spring.datasource.url=jdbc:h2:mem:jmh-threads;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            "spring.datasource.hikari.maximum-pool-size=50",
+            "spring.devtools.restart.enabled=false",
+            "spring.main.banner-mode=off",
+            "logging.level.root=WARN")
+        .run();
+    long id = context.getBean(RestaurantRepository.class)
+        .save(Restaurant.builder().name("Freebirds").description("Burritos").build()).getId();
+    int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+
+    clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    client = HttpClient.newBuilder().executor(clientExecutor).version(HttpClient.Version.HTTP_1_1).build();
+    request = HttpRequest.newBuilder(URI.create(
+        "http://localhost:%d/api/benchmark/restaurant?id=%d&latencyMillis=%d".formatted(port, id, latencyMillis))).build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    clientExecutor.close();
+    context.close();
+  }
+
+  /**
+   * One invocation sends {@value #CLIENTS} requests at once and waits for all of them.
+   */
+  @Benchmark
+  @OperationsPerInvocation(CLIENTS)
+  public void concurrentClients() {
+    CompletableFuture.allOf(IntStream.range(0, CLIENTS)
+        .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+        .toArray(CompletableFuture[]::new)).join();
+  }
+}
@@ -3,21 +3,31 @@ package edu.ucsb.cs156.example.aop;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class is an Aspect that logs all invocations of controller methods that are annotated
  * with {@code @RequestMapping}, {@code @GetMapping}, {@code @PostMapping}, {@code @PutMapping}, {@code @DeleteMapping},
  * or {@code @PatchMapping}.
  * 
+ * Everything the log line needs from the handler method (its name, its class, whether the class is on the
+ * stoplist) is worked out the first time the method is called and cached, so a request only pays for a map
+ * lookup.  Nothing is formatted unless INFO is enabled for this class, and only a fraction
+ * {@code app.accessLog.sampleRate} of requests (default: all of them) is logged.
+ * 
  * For more information on Aspect Oriented Programming (AOP)
  * and AspectJ, including what a {@code JoinPoint} is, 
  * refer to <a href="https://www.baeldung.com/aspectj">https://www.baeldung.com/aspectj</a> 
@@ -38,8 +48,27 @@ public class LoggingAspect {
       @annotation(org.springframework.web.bind.annotation.PatchMapping)
       """;
 
-  private ArrayList<String> stoplist = new ArrayList<String>(Arrays.asList(
-      "edu.ucsb.cs156.example.controllers.FrontendProxyController"));
+  private static final Set<String> stoplist = Set.of(
+      "edu.ucsb.cs156.example.controllers.FrontendProxyController");
+
+  /**
+   * What the log line needs to know about one handler method.
+   */
+  private record HandlerInfo(String name, String declaringTypeName, boolean logged) {
+    static HandlerInfo of(Signature signature) {
+      String declaringTypeName = signature.getDeclaringTypeName();
+      return new HandlerInfo(signature.getName(), declaringTypeName, !stoplist.contains(declaringTypeName));
+    }
+  }
+
+  /**
+   * Keyed by the handler {@code Method}: Spring creates a new {@code Signature} object for every
+   * invocation, but the {@code Method} it wraps is stable and has a proper equals/hashCode.
+   */
+  private final Map<Object, HandlerInfo> handlers = new ConcurrentHashMap<>();
+
+  @Value("${app.accessLog.sampleRate:1.0}")
+  double sampleRate = 1.0;
 
   /**
    * This method is called before any controller method that is annotated with
@@ -49,26 +78,34 @@ public class LoggingAspect {
    */
   @Before(pointcut)
   public void logControllers(JoinPoint joinPoint) {
-    getCurrentHttpRequest().ifPresent(
-        request -> {
-          String declaringTypeName = joinPoint.getSignature().getDeclaringTypeName();
-          if (!stoplist.contains(declaringTypeName)) {
-            log.info("===== %s %s handled by %s in %s".formatted(request.getMethod(), request.getRequestURI(),
-                joinPoint.getSignature().getName(), declaringTypeName));
-          }
-        });
+    if (!log.isInfoEnabled()) {
+      return;
+    }
+    Signature signature = joinPoint.getSignature();
+    Object key = signature instanceof MethodSignature methodSignature ? methodSignature.getMethod() : signature.toLongString();
+    HandlerInfo handler = handlers.computeIfAbsent(key, k -> HandlerInfo.of(signature));
+    if (!handler.logged() || !sampled()) {
+      return;
+    }
+    HttpServletRequest request = getCurrentHttpRequest();
+    if (request != null) {
+      log.info("===== {} {} handled by {} in {}", request.getMethod(), request.getRequestURI(),
+          handler.name(), handler.declaringTypeName());
+    }
+  }
+
+  private boolean sampled() {
+    return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
   }
 
   /**
-   * The function `getCurrentHttpRequest` returns an `Optional` containing the current
-   * `HttpServletRequest` if available.
+   * The function `getCurrentHttpRequest` returns the current `HttpServletRequest`,
+   * or null if this thread is not handling one.
    * 
-   * @return An Optional object containing the current HttpServletRequest, if available.
+   * @return the current HttpServletRequest, or null
    */
-  private static Optional<HttpServletRequest> getCurrentHttpRequest() {
-    return Optional.ofNullable(RequestContextHolder.getRequestAttributes())
-        .filter(ServletRequestAttributes.class::isInstance)
-        .map(ServletRequestAttributes.class::cast)
-        .map(ServletRequestAttributes::getRequest);
+  private static HttpServletRequest getCurrentHttpRequest() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
   }
 }
@@ -0,0 +1,34 @@
+package edu.ucsb.cs156.example.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * The `ControllerObservationConvention` class adds the handling controller class and method
+ * to the standard `http.server.requests` tags (HTTP method, uri template, status, outcome, exception).
+ * Both come from the handler Spring MVC matched, so the number of distinct values is bounded by
+ * the number of controller methods, never by ids or query strings in the request.
+ */
+@Component
+public class ControllerObservationConvention extends DefaultServerRequestObservationConvention {
+
+  private static final String NONE = "none";
+
+  @Override
+  public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+    String controller = NONE;
+    String handler = NONE;
+    Object bestMatch = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+    if (bestMatch instanceof HandlerMethod handlerMethod) {
+      controller = handlerMethod.getBeanType().getSimpleName();
+      handler = handlerMethod.getMethod().getName();
+    }
+    return super.getLowCardinalityKeyValues(context)
+        .and(KeyValue.of("controller", controller), KeyValue.of("handler", handler));
+  }
+}
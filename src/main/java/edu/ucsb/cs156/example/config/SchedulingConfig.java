@@ -0,0 +1,13 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * The `SchedulingConfig` class turns on Spring's `@Scheduled` methods, such as the
+ * nightly rebuild of the menu item rating statistics.  It is kept out of `ExampleApplication`
+ * so that sliced tests (e.g. `@WebMvcTest`) do not start the scheduler.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -0,0 +1,72 @@
+package edu.ucsb.cs156.example.config;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+/**
+ * The `WebConfig` class configures how the production build of the frontend is served.
+ *
+ * The frontend build (copied to `classpath:/public/` by the integration and production Maven profiles)
+ * contains a `.gz` and a `.br` copy of each asset, written by `frontend/scripts/compress.js`.
+ * Both handlers below serve the smallest variant the browser accepts (see `EncodedResourceResolver`).
+ *
+ * <ul>
+ * <li>Files under `/static/` have a content hash in their names, so they never change and
+ * may be cached for a year without revalidation.</li>
+ * <li>Everything else, in particular `index.html` (which names the current bundles), must be
+ * revalidated on every use; an ETag makes that a 304 with an empty body when nothing changed.</li>
+ * </ul>
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  private final String[] staticLocations;
+
+  public WebConfig(WebProperties webProperties) {
+    this.staticLocations = webProperties.getResources().getStaticLocations();
+  }
+
+  @Override
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    registry.addResourceHandler("/static/**")
+        .addResourceLocations(locations("static/"))
+        .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+        .resourceChain(true)
+        .addResolver(new EncodedResourceResolver());
+
+    registry.addResourceHandler("/**")
+        .addResourceLocations(staticLocations)
+        .setCacheControl(CacheControl.noCache())
+        .setEtagGenerator(WebConfig::etag)
+        .resourceChain(true)
+        .addResolver(new EncodedResourceResolver());
+  }
+
+  private String[] locations(String subdirectory) {
+    String[] locations = new String[staticLocations.length];
+    for (int i = 0; i < locations.length; i++) {
+      locations[i] = staticLocations[i] + subdirectory;
+    }
+    return locations;
+  }
+
+  /**
+   * Validator built from the file's modification time and size (as nginx does), which
+   * avoids reading the file to hash it; the size also tells the encoded variants apart.
+   */
+  static String etag(Resource resource) {
+    try {
+      return Long.toHexString(resource.lastModified()) + "-" + Long.toHexString(resource.contentLength());
+    } catch (IOException e) {
+      return null;
+    }
+  }
+}
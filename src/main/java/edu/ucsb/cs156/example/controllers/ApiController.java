@@ -1,14 +1,24 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.InvalidBulkRequestException;
+import edu.ucsb.cs156.example.errors.InvalidCursorException;
+import edu.ucsb.cs156.example.errors.InvalidLocationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import edu.ucsb.cs156.example.models.CurrentUser;
+import edu.ucsb.cs156.example.models.ErrorResponse;
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Map;
 
@@ -21,6 +31,12 @@ public abstract class ApiController {
   @Autowired
   private CurrentUserService currentUserService;
 
+  @Value("${app.pagination.defaultLimit:100}")
+  private int defaultPageLimit;
+
+  @Value("${app.pagination.maxLimit:1000}")
+  private int maxPageLimit;
+
   /**
    * This method returns the current user.
    * @return the current user
@@ -38,17 +54,86 @@ public abstract class ApiController {
     return Map.of("message", message);
   }
 
+  /**
+   * This method returns the page size to use for a keyset paginated request.
+   * A missing limit gets the default page size, and no request may ask for
+   * more than the maximum page size, so that a single request never loads a whole table.
+   * @param limit the limit requested by the client (may be null)
+   * @return the page size, between 1 and the maximum page size
+   */
+  protected int pageLimit(Integer limit) {
+    if (limit == null) {
+      return defaultPageLimit;
+    }
+    return Math.max(1, Math.min(limit, maxPageLimit));
+  }
+
+  /**
+   * This method returns the Pageable used to fetch one keyset page: one row more
+   * than the page size, so that we can tell whether there is a next page.
+   * @param pageLimit the page size (see {@link #pageLimit(Integer)})
+   * @return the pageable
+   */
+  protected Pageable keysetPageable(int pageLimit) {
+    return PageRequest.ofSize(pageLimit + 1);
+  }
+
+  /**
+   * This method answers a conditional GET for data whose current version is etag.
+   * It sets the ETag header, plus Cache-Control: no-cache so that browsers keep the
+   * response but revalidate it before each reuse (instead of the no-store Spring
+   * Security sends by default).  If the client's If-None-Match already matches, the
+   * response becomes a 304 and the handler should return null without reading anything.
+   * @param webRequest the current request
+   * @param etag the current version of the data, without quotes
+   * @return true if the client already has this version
+   */
+  protected boolean checkNotModified(ServletWebRequest webRequest, String etag) {
+    webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+    return webRequest.checkNotModified(etag);
+  }
+
   /**
    * This method handles the EntityNotFoundException.
    * @param e the exception
-   * @return a map with the type and message of the exception
+   * @return the type and message of the exception
    */
   @ExceptionHandler({ EntityNotFoundException.class })
   @ResponseStatus(HttpStatus.NOT_FOUND)
   public Object handleGenericException(Throwable e) {
-    return Map.of(
-      "type", e.getClass().getSimpleName(),
-      "message", e.getMessage()
-    );
+    return ErrorResponse.of(e);
+  }
+
+  /**
+   * This method handles the InvalidCursorException.
+   * @param e the exception
+   * @return the type and message of the exception
+   */
+  @ExceptionHandler({ InvalidCursorException.class })
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public Object handleInvalidCursorException(Throwable e) {
+    return ErrorResponse.of(e);
+  }
+
+  /**
+   * This method handles the InvalidBulkRequestException.
+   * @param e the exception
+   * @return the type and message of the exception
+   */
+  @ExceptionHandler({ InvalidBulkRequestException.class })
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public Object handleInvalidBulkRequestException(Throwable e) {
+    return ErrorResponse.of(e);
+  }
+
+  /**
+   * This method handles the InvalidLocationException.
+   * @param e the exception
+   * @return the type and message of the exception
+   */
+  @ExceptionHandler({ InvalidLocationException.class })
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public Object handleInvalidLocationException(Throwable e) {
+    return ErrorResponse.of(e);
   }
 }
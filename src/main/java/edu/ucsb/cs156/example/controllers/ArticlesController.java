@@ -2,7 +2,12 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.Article;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.ArticleSearchResult;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.CursorPage;
 import edu.ucsb.cs156.example.repositories.ArticleRepository;
+import edu.ucsb.cs156.example.services.ArticleSearchIndex;
+import edu.ucsb.cs156.example.services.BulkImportService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,6 +18,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,7 +31,10 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Tag(name = "Articles")
 @RequestMapping("/api/articles")
@@ -36,6 +45,12 @@ public class ArticlesController extends ApiController{
     @Autowired
     ArticleRepository articleRepository;
 
+    @Autowired
+    BulkImportService bulkImportService;
+
+    @Autowired
+    ArticleSearchIndex articleSearchIndex;
+
     @Operation(summary= "List all articles")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
@@ -44,6 +59,40 @@ public class ArticlesController extends ApiController{
         return article;
     }
 
+    /**
+     * List one page of articles, in id order (keyset pagination)
+     *
+     * @param limit maximum number of articles to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of articles and the cursor for the next page
+     */
+    @Operation(summary= "List one page of articles")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<Article> pageArticles(
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name="after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        List<Article> articles = articleRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeLong(after), keysetPageable(pageLimit));
+        return CursorPage.of(articles, pageLimit, Article::getId);
+    }
+
+    /**
+     * Search the titles and explanations of the articles
+     *
+     * @param q the words to search for; an article matches if it contains any of them
+     * @param limit maximum number of articles to return (optional)
+     * @return the matching articles and their scores, most relevant first
+     */
+    @Operation(summary= "Search articles by title and explanation, most relevant first")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/search")
+    public List<ArticleSearchResult> searchArticles(
+            @Parameter(name="q") @RequestParam String q,
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit) {
+        return articleSearchIndex.search(q, pageLimit(limit));
+    }
+
     @Operation(summary= "Create a new article")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/post")
@@ -68,6 +117,7 @@ public class ArticlesController extends ApiController{
         article.setDateAdded(dateAdded);
 
         Article savedArticle = articleRepository.save(article);
+        articleSearchIndex.refresh(savedArticle.getId());
 
         return savedArticle;
     }
@@ -86,6 +136,7 @@ public class ArticlesController extends ApiController{
         Article article = articleRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(Article.class, id));
 
         articleRepository.delete(article);
+        articleSearchIndex.refresh(article.getId());
         return genericMessage("Article with id %s deleted".formatted(id));
     }
 
@@ -128,7 +179,33 @@ public class ArticlesController extends ApiController{
         article.setDateAdded(incoming.getDateAdded());
 
         articleRepository.save(article);
+        articleSearchIndex.refresh(article.getId());
 
         return article;
     }
+
+    /**
+     * Create many articles at once
+     *
+     * @param body a JSON array of articles, or one per line (NDJSON); any id is ignored
+     * @return the outcome of each row
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(summary= "Create many articles from a JSON array or NDJSON")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BulkResult bulkArticles(InputStream body) throws IOException {
+        List<Article> articles = bulkImportService.readRows(body, Article.class);
+        articles.forEach(article -> article.setId(0));
+        BulkResult result = bulkImportService.saveRows(articles, articleRepository,
+                article -> BulkImportService.missing(
+                        "title", article.getTitle(),
+                        "url", article.getUrl(),
+                        "explanation", article.getExplanation(),
+                        "email", article.getEmail(),
+                        "dateAdded", article.getDateAdded()),
+                Article::getId);
+        articleSearchIndex.reload();
+        return result;
+    }
 }
\ No newline at end of file
@@ -1,25 +1,36 @@
 package edu.ucsb.cs156.example.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.gateway.mvc.ProxyExchange;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.ResourceAccessException;
 
 import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
 
 /**
  * The FrontendProxyController is used to proxy requests to the frontend of the application.
- * 
+ *
  * This is only used in development where we have a separate frontend server process
  * listening on port 3000.
- * 
+ *
  * For production, see the FrontendController.
- * 
+ *
  * @see edu.ucsb.cs156.example.controllers.FrontendController
  */
 
@@ -27,38 +38,96 @@ import java.net.ConnectException;
 @RestController
 public class FrontendProxyController {
 
+  /**
+   * Request headers passed on to the frontend server: the conditional ones let it answer
+   * 304 for chunks the browser already has, and Accept-Encoding lets it send them compressed.
+   */
+  static final List<String> REQUEST_HEADERS = List.of(
+      HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE,
+      HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+  /**
+   * Response headers passed back to the browser, including the frontend server's
+   * caching headers, so that the browser caches static chunks as the server intends.
+   */
+  static final List<String> RESPONSE_HEADERS = List.of(
+      HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_ENCODING,
+      HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.EXPIRES,
+      HttpHeaders.VARY);
+
   @Autowired
   WiremockService wiremockService;
-  
+
+  @Value("${app.frontend.devServerUrl:http://localhost:3000}")
+  String devServerUrl;
+
+  /**
+   * A single client for the life of the application, which keeps its connections to the
+   * frontend server alive and reuses them across requests.
+   */
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+
   /**
    * This method proxies requests to the frontend server.  It is only used in development.
    * The regular expression is used to exclude the paths that should NOT be proxied to the
    * frontend server, such as the endpoints for the api, oauth2, and swagger-ui.
-   * 
-   * @param proxy the proxy exchange, injected by Spring automatically
-   * @return response entity with the response from the frontend server, or a response entity with instructions in case the frontend server cannot be reached.
+   *
+   * The body is copied to the browser as it arrives, rather than read into memory first.
+   *
+   * @param request the request from the browser
+   * @param response the response to the browser, which gets the response from the frontend server,
+   *   or instructions in case the frontend server cannot be reached.
+   * @throws IOException if the frontend server or the browser connection fails mid-response
+   * @throws InterruptedException if the thread is interrupted while waiting for the frontend server
    */
 
   @GetMapping({"/", "/{path:^(?!api|oauth2|swagger-ui|h2-console).*}/**"})
-  public ResponseEntity<?> proxy(ProxyExchange<byte []> proxy) {
-    String path = proxy.path("/");
+  public void proxy(HttpServletRequest request, HttpServletResponse response)
+      throws IOException, InterruptedException {
+    String query = request.getQueryString();
+    URI uri = URI.create(devServerUrl + request.getRequestURI() + (query == null ? "" : "?" + query));
+
+    HttpRequest.Builder upstreamRequest = HttpRequest.newBuilder(uri).GET();
+    for (String name : REQUEST_HEADERS) {
+      String value = request.getHeader(name);
+      if (value != null) {
+        upstreamRequest.header(name, value);
+      }
+    }
+
+    HttpResponse<InputStream> upstream;
     try {
-      return proxy.uri("http://localhost:3000/" + path).get();
-    } catch (ResourceAccessException e) {
-      if (e.getCause() instanceof ConnectException) {
-        String instructions = """
-                <p>Failed to connect to the frontend server...</p>
-                <p>On Dokku, be sure that <code>PRODUCTION</code> is defined.</p>
-                <p>On localhost, open a second terminal window, cd into <code>frontend</code> and type: <code>nvm use 20.17.0; npm ci; npm start</code></p>
-                <p>Or, you may click to access: </p>
-                <ul>
-                  <li><a href='/swagger-ui/index.html'>/swagger-ui/index.html</a></li>
-                  <li><a href='/h2-console'>/h2-console</a></li>
-                </ul>""";
-
-        return ResponseEntity.ok(instructions);
+      upstream = httpClient.send(upstreamRequest.build(), HttpResponse.BodyHandlers.ofInputStream());
+    } catch (ConnectException e) {
+      String instructions = """
+              <p>Failed to connect to the frontend server...</p>
+              <p>On Dokku, be sure that <code>PRODUCTION</code> is defined.</p>
+              <p>On localhost, open a second terminal window, cd into <code>frontend</code> and type: <code>nvm use 20.17.0; npm ci; npm start</code></p>
+              <p>Or, you may click to access: </p>
+              <ul>
+                <li><a href='/swagger-ui/index.html'>/swagger-ui/index.html</a></li>
+                <li><a href='/h2-console'>/h2-console</a></li>
+              </ul>""";
+
+      response.setContentType(MediaType.TEXT_HTML_VALUE);
+      response.setCharacterEncoding("UTF-8");
+      response.getWriter().write(instructions);
+      return;
+    }
+
+    response.setStatus(upstream.statusCode());
+    for (String name : RESPONSE_HEADERS) {
+      for (String value : upstream.headers().allValues(name)) {
+        response.addHeader(name, value);
       }
-      throw e;
+    }
+    try (InputStream body = upstream.body()) {
+      OutputStream out = response.getOutputStream();
+      body.transferTo(out);
+      out.flush();
     }
   }
 }
@@ -2,7 +2,12 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.HelpRequest;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.CursorPage;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.HelpRequestSpecifications;
+import edu.ucsb.cs156.example.services.BulkImportService;
+import edu.ucsb.cs156.example.services.HelpRequestQueueService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,7 +17,11 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,10 +31,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * This is a REST controller for HelpRequests
@@ -40,6 +54,15 @@ public class HelpRequestController extends ApiController {
     @Autowired
     HelpRequestRepository helpRequestRepository;
 
+    @Autowired
+    BulkImportService bulkImportService;
+
+    @Autowired
+    HelpRequestQueueService helpRequestQueueService;
+
+    @Value("${app.helpRequestQueue.sseTimeout:PT30M}")
+    Duration sseTimeout = Duration.ofMinutes(30);
+
     /**
      * List all help requests
      * 
@@ -53,6 +76,88 @@ public class HelpRequestController extends ApiController {
         return dates;
     }
 
+    /**
+     * List the unsolved help requests, oldest first (served from memory)
+     *
+     * @return the unsolved help requests
+     */
+    @Operation(summary= "List the queue of unsolved help requests, oldest first")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/queue")
+    public List<HelpRequest> helpRequestQueue() {
+        return helpRequestQueueService.openRequests();
+    }
+
+    /**
+     * Subscribe to the queue of unsolved help requests with Server-Sent Events: the
+     * whole queue is sent first (event "queue"), then each change ("saved" with the help
+     * request, "removed" with its id).  The stream ends after app.helpRequestQueue.sseTimeout;
+     * an EventSource reconnects by itself and is sent the whole queue again.
+     *
+     * @return the event stream
+     */
+    @Operation(summary= "Stream changes to the queue of unsolved help requests (Server-Sent Events)")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping(value = "/queue/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter helpRequestQueueEvents() {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        helpRequestQueueService.subscribe(emitter);
+        return emitter;
+    }
+
+    /**
+     * List one page of help requests, in id order (keyset pagination)
+     *
+     * @param limit maximum number of help requests to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of help requests and the cursor for the next page
+     */
+    @Operation(summary= "List one page of help requests")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<HelpRequest> pageHelpRequests(
+            @Parameter(name = "limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name = "after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        List<HelpRequest> helpRequests = helpRequestRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeLong(after), keysetPageable(pageLimit));
+        return CursorPage.of(helpRequests, pageLimit, HelpRequest::getId);
+    }
+
+    /**
+     * List one page of the help requests that match all of the given filters, in id order
+     * (keyset pagination).  The filters are applied in the database, walking the team index in
+     * id order and checking the from/to window on each row (see HelpRequestSpecifications).
+     *
+     * @param solved only help requests with this solved state (optional)
+     * @param teamId only help requests from this team (optional)
+     * @param from only help requests made at or after this time (optional)
+     * @param to only help requests made before this time (optional)
+     * @param limit maximum number of help requests to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of matching help requests and the cursor for the next page
+     */
+    @Operation(summary= "List one page of help requests filtered by solved state, team and request time")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/query")
+    public CursorPage<HelpRequest> queryHelpRequests(
+            @Parameter(name = "solved") @RequestParam(required = false) Boolean solved,
+            @Parameter(name = "teamId") @RequestParam(required = false) String teamId,
+            @Parameter(name = "from", description = "earliest request time, inclusive (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(name = "to", description = "latest request time, exclusive (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(name = "limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name = "after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        Specification<HelpRequest> filters = Specification
+                .where(HelpRequestSpecifications.idGreaterThan(CursorPage.decodeLong(after)))
+                .and(HelpRequestSpecifications.solved(solved))
+                .and(HelpRequestSpecifications.teamId(teamId))
+                .and(HelpRequestSpecifications.requestedFrom(from))
+                .and(HelpRequestSpecifications.requestedBefore(to));
+        List<HelpRequest> helpRequests = helpRequestRepository.findBy(filters,
+                query -> query.sortBy(Sort.by("id")).limit(pageLimit + 1).all());
+        return CursorPage.of(helpRequests, pageLimit, HelpRequest::getId);
+    }
+
     /**
      * Get a single date by id
      * 
@@ -108,6 +213,7 @@ public class HelpRequestController extends ApiController {
             .build();
 
         HelpRequest savedHelpRequest = helpRequestRepository.save(helpRequest);
+        helpRequestQueueService.refresh(savedHelpRequest.getId());
 
         return savedHelpRequest;
     }
@@ -127,6 +233,7 @@ public class HelpRequestController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
 
         helpRequestRepository.delete(HelpRequest);
+        helpRequestQueueService.refresh(id);
         return genericMessage("HelpRequest with id %s deleted".formatted(id));
     }
 
@@ -155,7 +262,33 @@ public class HelpRequestController extends ApiController {
     
 
         helpRequestRepository.save(HelpRequest);
+        helpRequestQueueService.refresh(id);
 
         return HelpRequest;
     }
+
+    /**
+     * Create many help requests at once
+     *
+     * @param body a JSON array of help requests, or one per line (NDJSON); any id is ignored
+     * @return the outcome of each row
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(summary= "Create many help requests from a JSON array or NDJSON")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BulkResult bulkHelpRequests(InputStream body) throws IOException {
+        List<HelpRequest> helpRequests = bulkImportService.readRows(body, HelpRequest.class);
+        helpRequests.forEach(helpRequest -> helpRequest.setId(0));
+        BulkResult result = bulkImportService.saveRows(helpRequests, helpRequestRepository,
+                helpRequest -> BulkImportService.missing(
+                        "requesterEmail", helpRequest.getRequesterEmail(),
+                        "teamId", helpRequest.getTeamId(),
+                        "tableOrBreakoutRoom", helpRequest.getTableOrBreakoutRoom(),
+                        "requestTime", helpRequest.getRequestTime(),
+                        "explanation", helpRequest.getExplanation()),
+                HelpRequest::getId);
+        helpRequestQueueService.reload();
+        return result;
+    }
 }
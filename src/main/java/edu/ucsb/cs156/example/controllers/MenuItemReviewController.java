@@ -2,7 +2,12 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.MenuItemReviews;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.RatingStatistics;
 import edu.ucsb.cs156.example.repositories.MenuItemReviewsRepository;
+import edu.ucsb.cs156.example.services.BulkImportService;
+import edu.ucsb.cs156.example.services.MenuItemRatingsService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,6 +18,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,7 +31,10 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -36,6 +45,12 @@ public class MenuItemReviewController extends ApiController {
     @Autowired
     MenuItemReviewsRepository menuItemReviewsRepository;
 
+    @Autowired
+    BulkImportService bulkImportService;
+
+    @Autowired
+    MenuItemRatingsService menuItemRatingsService;
+
 
     @Operation(summary= "List all")
     @PreAuthorize("hasRole('ROLE_USER')")
@@ -45,6 +60,39 @@ public class MenuItemReviewController extends ApiController {
         return menuItemReviews;
     }
 
+    /**
+     * List one page of menu item reviews, in id order (keyset pagination)
+     *
+     * @param limit maximum number of menu item reviews to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of menu item reviews and the cursor for the next page
+     */
+    @Operation(summary = "List one page of menu item reviews")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<MenuItemReviews> pageMenuItemReviews(
+            @Parameter(name = "limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name = "after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        List<MenuItemReviews> menuItemReviews = menuItemReviewsRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeLong(after), keysetPageable(pageLimit));
+        return CursorPage.of(menuItemReviews, pageLimit, MenuItemReviews::getId);
+    }
+
+    /**
+     * Get the rating statistics of one menu item (number of reviews, total and average
+     * stars, and number of reviews with each number of stars), without reading its reviews
+     *
+     * @param itemId id of the menu item
+     * @return the item's rating statistics
+     */
+    @Operation(summary = "Get the rating statistics of a menu item")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/stats")
+    public RatingStatistics getRatingStatistics(
+            @Parameter(name = "itemId") @RequestParam long itemId) {
+        return menuItemRatingsService.get(itemId);
+    }
+
 
 
 
@@ -75,8 +123,11 @@ public class MenuItemReviewController extends ApiController {
 
 
 
-        MenuItemReviews createdReviews = menuItemReviewsRepository.save(menuItemReviewRequest);
-        return createdReviews;
+        return menuItemRatingsService.write(() -> {
+            MenuItemReviews createdReviews = menuItemReviewsRepository.save(menuItemReviewRequest);
+            menuItemRatingsService.reviewAdded(createdReviews.getItemId(), createdReviews.getStars());
+            return createdReviews;
+        });
     }
 
 
@@ -109,20 +160,26 @@ public class MenuItemReviewController extends ApiController {
             @Parameter(name = "id") @RequestParam long id,
             @RequestBody @Valid MenuItemReviews updatedReview) {
 
-        MenuItemReviews existingReview = menuItemReviewsRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(MenuItemReviews.class, id));
+        return menuItemRatingsService.write(() -> {
+            MenuItemReviews existingReview = menuItemReviewsRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException(MenuItemReviews.class, id));
+            long previousItemId = existingReview.getItemId();
+            int previousStars = existingReview.getStars();
 
 
-        existingReview.setItemId(updatedReview.getItemId());
-        existingReview.setReviewEmail(updatedReview.getReviewEmail());
-        existingReview.setStars(updatedReview.getStars());
-        existingReview.setDateReviewed(updatedReview.getDateReviewed());
-        existingReview.setComments(updatedReview.getComments());
+            existingReview.setItemId(updatedReview.getItemId());
+            existingReview.setReviewEmail(updatedReview.getReviewEmail());
+            existingReview.setStars(updatedReview.getStars());
+            existingReview.setDateReviewed(updatedReview.getDateReviewed());
+            existingReview.setComments(updatedReview.getComments());
 
 
-        menuItemReviewsRepository.save(existingReview);
+            menuItemReviewsRepository.save(existingReview);
+            menuItemRatingsService.reviewRemoved(previousItemId, previousStars);
+            menuItemRatingsService.reviewAdded(existingReview.getItemId(), existingReview.getStars());
 
-        return existingReview;
+            return existingReview;
+        });
     }
 
 
@@ -133,12 +190,15 @@ public class MenuItemReviewController extends ApiController {
 @PreAuthorize("hasRole('ROLE_ADMIN')")
 @Operation(summary = "Delete a menu item review by id")
 public String deleteMenuItemReview(@RequestParam long id) throws EntityNotFoundException {
-    MenuItemReviews menuItemReview = menuItemReviewsRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException(MenuItemReviews.class, id));
+    return menuItemRatingsService.write(() -> {
+        MenuItemReviews menuItemReview = menuItemReviewsRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(MenuItemReviews.class, id));
 
-    menuItemReviewsRepository.delete(menuItemReview);
+        menuItemReviewsRepository.delete(menuItemReview);
+        menuItemRatingsService.reviewRemoved(menuItemReview.getItemId(), menuItemReview.getStars());
 
-    return "MenuItemReview with id " + id + " deleted";
+        return "MenuItemReview with id " + id + " deleted";
+    });
 }
 
 
@@ -147,4 +207,26 @@ public String deleteMenuItemReview(@RequestParam long id) throws EntityNotFoundE
 
 
 
+    /**
+     * Create many menu item reviews at once
+     *
+     * @param body a JSON array of menu item reviews, or one per line (NDJSON); any id is ignored
+     * @return the outcome of each row
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(summary= "Create many menu item reviews from a JSON array or NDJSON")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BulkResult bulkMenuItemReviews(InputStream body) throws IOException {
+        List<MenuItemReviews> menuItemReviews = bulkImportService.readRows(body, MenuItemReviews.class);
+        menuItemReviews.forEach(menuItemReview -> menuItemReview.setId(0));
+        BulkResult result = bulkImportService.saveRows(menuItemReviews, menuItemReviewsRepository,
+                menuItemReview -> BulkImportService.missing(
+                        "reviewEmail", menuItemReview.getReviewEmail(),
+                        "dateReviewed", menuItemReview.getDateReviewed(),
+                        "comments", menuItemReview.getComments()),
+                MenuItemReviews::getId);
+        menuItemRatingsService.rebuild();
+        return result;
+    }
 }
@@ -3,7 +3,11 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.CursorPage;
 import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.example.services.BulkImportService;
+import edu.ucsb.cs156.example.services.RecommendationRequestDueDates;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,6 +19,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,7 +32,11 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * This is a REST controller for RecommendationRequests
@@ -42,6 +51,12 @@ public class RecommendationRequestController extends ApiController {
     @Autowired
     RecommendationRequestRepository recommendationRequestRepository;
 
+    @Autowired
+    BulkImportService bulkImportService;
+
+    @Autowired
+    RecommendationRequestDueDates recommendationRequestDueDates;
+
     /**
      * List all Recommendation Requests
      * 
@@ -55,6 +70,50 @@ public class RecommendationRequestController extends ApiController {
         return recommendationRequests;
     }
 
+    /**
+     * List one page of recommendation requests, in id order (keyset pagination)
+     *
+     * @param limit maximum number of recommendation requests to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of recommendation requests and the cursor for the next page
+     */
+    @Operation(summary= "List one page of recommendation requests")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<RecommendationRequest> pageRecommendationRequests(
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name="after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        List<RecommendationRequest> recommendationRequests = recommendationRequestRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeLong(after), keysetPageable(pageLimit));
+        return CursorPage.of(recommendationRequests, pageLimit, RecommendationRequest::getId);
+    }
+
+    /**
+     * List the open recommendation requests whose dateNeeded has passed, earliest first (served from memory)
+     *
+     * @return the overdue recommendation requests
+     */
+    @Operation(summary= "List the overdue recommendation requests")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/overdue")
+    public List<RecommendationRequest> overdueRecommendationRequests() {
+        return recommendationRequestDueDates.overdue();
+    }
+
+    /**
+     * List the open recommendation requests due in the next few days, earliest first (served from memory)
+     *
+     * @param days how many days ahead to look
+     * @return the recommendation requests due from now until that many days from now
+     */
+    @Operation(summary= "List the recommendation requests due within a number of days")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/due")
+    public List<RecommendationRequest> dueRecommendationRequests(
+            @Parameter(name="days") @RequestParam int days) {
+        return recommendationRequestDueDates.dueWithin(Duration.ofDays(Math.max(0, days)));
+    }
+
     @Operation(summary= "Create a new recommendation request")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/post")
@@ -82,6 +141,7 @@ public class RecommendationRequestController extends ApiController {
         recommendationRequest.setDone(done);
 
         RecommendationRequest savedRecommendationRequest = recommendationRequestRepository.save(recommendationRequest);
+        recommendationRequestDueDates.refresh(savedRecommendationRequest.getId());
 
         return savedRecommendationRequest;
     }
@@ -128,6 +188,7 @@ public class RecommendationRequestController extends ApiController {
         recommendationRequest.setDone(incoming.getDone());
 
         recommendationRequestRepository.save(recommendationRequest);
+        recommendationRequestDueDates.refresh(id);
 
         return recommendationRequest;
     }
@@ -147,6 +208,32 @@ public class RecommendationRequestController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
 
         recommendationRequestRepository.delete(recommendationRequest);
+        recommendationRequestDueDates.refresh(id);
         return genericMessage("RecommendationRequest with id %s deleted".formatted(id));
     }
+
+    /**
+     * Create many recommendation requests at once
+     *
+     * @param body a JSON array of recommendation requests, or one per line (NDJSON); any id is ignored
+     * @return the outcome of each row
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(summary= "Create many recommendation requests from a JSON array or NDJSON")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BulkResult bulkRecommendationRequests(InputStream body) throws IOException {
+        List<RecommendationRequest> recommendationRequests = bulkImportService.readRows(body, RecommendationRequest.class);
+        recommendationRequests.forEach(recommendationRequest -> recommendationRequest.setId(0));
+        BulkResult result = bulkImportService.saveRows(recommendationRequests, recommendationRequestRepository,
+                recommendationRequest -> BulkImportService.missing(
+                        "requesterEmail", recommendationRequest.getRequesterEmail(),
+                        "professorEmail", recommendationRequest.getProfessorEmail(),
+                        "explanation", recommendationRequest.getExplanation(),
+                        "dateRequested", recommendationRequest.getDateRequested(),
+                        "dateNeeded", recommendationRequest.getDateNeeded()),
+                RecommendationRequest::getId);
+        recommendationRequestDueDates.reload();
+        return result;
+    }
 }
@@ -2,13 +2,17 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.Restaurant;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.CursorPage;
 import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.services.BulkImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +25,10 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * This is a REST controller for Restaurants
  */
@@ -33,6 +41,9 @@ public class RestaurantsController extends ApiController {
     @Autowired
     RestaurantRepository restaurantRepository;
 
+    @Autowired
+    BulkImportService bulkImportService;
+
     /**
      * This method returns a list of all restaurants.
      * @return a list of all restaurants
@@ -45,6 +56,24 @@ public class RestaurantsController extends ApiController {
         return restaurants;
     }
 
+    /**
+     * List one page of restaurants, in id order (keyset pagination)
+     *
+     * @param limit maximum number of restaurants to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of restaurants and the cursor for the next page
+     */
+    @Operation(summary = "List one page of restaurants")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<Restaurant> pageRestaurants(
+            @Parameter(name = "limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name = "after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        List<Restaurant> restaurants = restaurantRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeLong(after), keysetPageable(pageLimit));
+        return CursorPage.of(restaurants, pageLimit, Restaurant::getId);
+    }
+
     /**
      * This method returns a single restaurant.
      * @param id id of the restaurant to get
@@ -122,4 +151,24 @@ public class RestaurantsController extends ApiController {
 
         return restaurant;
     }
+
+    /**
+     * Create many restaurants at once
+     *
+     * @param body a JSON array of restaurants, or one per line (NDJSON); any id is ignored
+     * @return the outcome of each row
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(summary= "Create many restaurants from a JSON array or NDJSON")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BulkResult bulkRestaurants(InputStream body) throws IOException {
+        List<Restaurant> restaurants = bulkImportService.readRows(body, Restaurant.class);
+        restaurants.forEach(restaurant -> restaurant.setId(0));
+        return bulkImportService.saveRows(restaurants, restaurantRepository,
+                restaurant -> BulkImportService.missing(
+                        "name", restaurant.getName(),
+                        "description", restaurant.getDescription()),
+                Restaurant::getId);
+    }
 }
\ No newline at end of file
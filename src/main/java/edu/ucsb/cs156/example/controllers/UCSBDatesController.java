@@ -2,7 +2,12 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.CursorPage;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.services.BulkImportService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+import edu.ucsb.cs156.example.services.UpcomingDatesCache;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,6 +18,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,10 +28,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * This is a REST controller for UCSBDates
@@ -40,19 +50,102 @@ public class UCSBDatesController extends ApiController {
     @Autowired
     UCSBDateRepository ucsbDateRepository;
 
+    @Autowired
+    BulkImportService bulkImportService;
+
+    @Autowired
+    TableVersionService tableVersionService;
+
+    @Autowired
+    UpcomingDatesCache upcomingDatesCache;
+
     /**
      * List all UCSB dates
+     * Answers 304 Not Modified, without reading the table, if the client already has the current list.
      * 
+     * @param webRequest the request (for its If-None-Match header)
      * @return an iterable of UCSBDate
      */
     @Operation(summary= "List all ucsb dates")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBDate> allUCSBDates() {
+    public Iterable<UCSBDate> allUCSBDates(ServletWebRequest webRequest) {
+        if (checkNotModified(webRequest, tableVersionService.etag(UCSBDate.class))) {
+            return null;
+        }
         Iterable<UCSBDate> dates = ucsbDateRepository.findAll();
         return dates;
     }
 
+    /**
+     * List one page of ucsb dates, in id order (keyset pagination)
+     *
+     * @param limit maximum number of ucsb dates to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of ucsb dates and the cursor for the next page
+     */
+    @Operation(summary= "List one page of ucsb dates")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<UCSBDate> pageUCSBDates(
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name="after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        List<UCSBDate> dates = ucsbDateRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeLong(after), keysetPageable(pageLimit));
+        return CursorPage.of(dates, pageLimit, UCSBDate::getId);
+    }
+
+    /**
+     * List the dates of one quarter
+     *
+     * @param quarterYYYYQ the quarter in the format YYYYQ
+     * @return the quarter's dates
+     */
+    @Operation(summary= "List the ucsb dates of one quarter")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/quarter")
+    public Iterable<UCSBDate> quarterUCSBDates(
+            @Parameter(name="quarterYYYYQ") @RequestParam String quarterYYYYQ) {
+        return ucsbDateRepository.findAllByQuarterYYYYQ(quarterYYYYQ);
+    }
+
+    /**
+     * List one page of the dates in a window of time, earliest first (keyset pagination on time, then id)
+     *
+     * @param from the start of the window (inclusive)
+     * @param to the end of the window (exclusive)
+     * @param limit maximum number of dates to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of the dates in the window and the cursor for the next page
+     */
+    @Operation(summary= "List one page of the ucsb dates in a window of time, earliest first")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/range")
+    public CursorPage<UCSBDate> rangeUCSBDates(
+            @Parameter(name="from", description="start of the window, inclusive (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(name="to", description="end of the window, exclusive (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name="after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        CursorPage.TimeKey key = CursorPage.decodeTimeKey(after, from);
+        List<UCSBDate> dates = ucsbDateRepository.findPageInWindow(from, to, key.time(), key.id(), keysetPageable(pageLimit));
+        return CursorPage.of(dates, pageLimit, date -> new CursorPage.TimeKey(date.getLocalDateTime(), date.getId()));
+    }
+
+    /**
+     * List the upcoming dates of the current and next quarter, earliest first (served from memory)
+     *
+     * @param limit maximum number of dates to return (optional)
+     * @return the upcoming dates
+     */
+    @Operation(summary= "List the upcoming ucsb dates of the current and next quarter")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/upcoming")
+    public List<UCSBDate> upcomingUCSBDates(
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit) {
+        return upcomingDatesCache.upcoming(pageLimit(limit));
+    }
+
     /**
      * Get a single date by id
      * 
@@ -98,6 +191,8 @@ public class UCSBDatesController extends ApiController {
         ucsbDate.setLocalDateTime(localDateTime);
 
         UCSBDate savedUcsbDate = ucsbDateRepository.save(ucsbDate);
+        tableVersionService.bump(UCSBDate.class);
+        upcomingDatesCache.refresh(savedUcsbDate.getId());
 
         return savedUcsbDate;
     }
@@ -117,6 +212,8 @@ public class UCSBDatesController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
 
         ucsbDateRepository.delete(ucsbDate);
+        tableVersionService.bump(UCSBDate.class);
+        upcomingDatesCache.refresh(id);
         return genericMessage("UCSBDate with id %s deleted".formatted(id));
     }
 
@@ -142,7 +239,33 @@ public class UCSBDatesController extends ApiController {
         ucsbDate.setLocalDateTime(incoming.getLocalDateTime());
 
         ucsbDateRepository.save(ucsbDate);
+        tableVersionService.bump(UCSBDate.class);
+        upcomingDatesCache.refresh(id);
 
         return ucsbDate;
     }
+
+    /**
+     * Create many ucsb dates at once
+     *
+     * @param body a JSON array of ucsb dates, or one per line (NDJSON); any id is ignored
+     * @return the outcome of each row
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(summary= "Create many ucsb dates from a JSON array or NDJSON")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BulkResult bulkUCSBDates(InputStream body) throws IOException {
+        List<UCSBDate> ucsbDates = bulkImportService.readRows(body, UCSBDate.class);
+        ucsbDates.forEach(ucsbDate -> ucsbDate.setId(0));
+        BulkResult result = bulkImportService.saveRows(ucsbDates, ucsbDateRepository,
+                ucsbDate -> BulkImportService.missing(
+                        "quarterYYYYQ", ucsbDate.getQuarterYYYYQ(),
+                        "name", ucsbDate.getName(),
+                        "localDateTime", ucsbDate.getLocalDateTime()),
+                UCSBDate::getId);
+        tableVersionService.bump(UCSBDate.class);
+        upcomingDatesCache.reload();
+        return result;
+    }
 }
@@ -2,7 +2,14 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.InvalidLocationException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.BulkImportService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsCache;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,6 +17,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,9 +27,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Predicate;
+
 /**
  * This is a REST controller for UCSBDiningCommons
  */
@@ -35,18 +49,115 @@ public class UCSBDiningCommonsController extends ApiController {
     @Autowired
     UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
 
+    @Autowired
+    BulkImportService bulkImportService;
+
+    @Autowired
+    TableVersionService tableVersionService;
+
+    @Autowired
+    UCSBDiningCommonsCache ucsbDiningCommonsCache;
+
     /**
      * THis method returns a list of all ucsbdiningcommons.
+     * Answers 304 Not Modified, without reading the table, if the client already has the current list.
+     * @param webRequest the request (for its If-None-Match header)
      * @return a list of all ucsbdiningcommons
      */
     @Operation(summary= "List all ucsb dining commons")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBDiningCommons> allCommonss() {
-        Iterable<UCSBDiningCommons> commons = ucsbDiningCommonsRepository.findAll();
+    public Iterable<UCSBDiningCommons> allCommonss(ServletWebRequest webRequest) {
+        if (checkNotModified(webRequest, tableVersionService.etag(UCSBDiningCommons.class))) {
+            return null;
+        }
+        Iterable<UCSBDiningCommons> commons = ucsbDiningCommonsCache.findAll();
         return commons;
     }
 
+    /**
+     * List one page of ucsb dining commons, in code order (keyset pagination)
+     *
+     * @param limit maximum number of ucsb dining commons to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of ucsb dining commons and the cursor for the next page
+     */
+    @Operation(summary= "List one page of ucsb dining commons")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<UCSBDiningCommons> pageCommons(
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name="after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        List<UCSBDiningCommons> commons = ucsbDiningCommonsRepository.findByCodeGreaterThanOrderByCodeAsc(CursorPage.decodeString(after), keysetPageable(pageLimit));
+        return CursorPage.of(commons, pageLimit, UCSBDiningCommons::getCode);
+    }
+
+    /**
+     * This method returns the dining commons nearest to a location, by great-circle distance.
+     * Commons without a location are never returned.
+     * @param latitude latitude of the location in degrees
+     * @param longitude longitude of the location in degrees
+     * @param limit maximum number of commons to return (optional, default 1)
+     * @param hasSackMeal if given, only commons that do (or don't) have sack meals
+     * @param hasTakeOutMeal if given, only commons that do (or don't) have take-out meals
+     * @param hasDiningCam if given, only commons that do (or don't) have a dining cam
+     * @return the nearest matching commons and their distances, nearest first
+     */
+    @Operation(summary= "List the dining commons nearest to a location")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/nearest")
+    public List<NearbyDiningCommons> nearestCommons(
+            @Parameter(name="latitude") @RequestParam double latitude,
+            @Parameter(name="longitude") @RequestParam double longitude,
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name="hasSackMeal") @RequestParam(required = false) Boolean hasSackMeal,
+            @Parameter(name="hasTakeOutMeal") @RequestParam(required = false) Boolean hasTakeOutMeal,
+            @Parameter(name="hasDiningCam") @RequestParam(required = false) Boolean hasDiningCam) {
+        checkLocation(latitude, longitude);
+        return ucsbDiningCommonsCache.nearest(latitude, longitude, limit == null ? 1 : limit,
+                        filter(hasSackMeal, hasTakeOutMeal, hasDiningCam))
+                .stream().map(NearbyDiningCommons::of).toList();
+    }
+
+    /**
+     * This method returns the dining commons within a distance of a location, by great-circle distance.
+     * @param latitude latitude of the location in degrees
+     * @param longitude longitude of the location in degrees
+     * @param radiusMeters the greatest distance to include, in meters
+     * @param hasSackMeal if given, only commons that do (or don't) have sack meals
+     * @param hasTakeOutMeal if given, only commons that do (or don't) have take-out meals
+     * @param hasDiningCam if given, only commons that do (or don't) have a dining cam
+     * @return the matching commons within the radius and their distances, nearest first
+     */
+    @Operation(summary= "List the dining commons within a distance of a location")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/within")
+    public List<NearbyDiningCommons> commonsWithin(
+            @Parameter(name="latitude") @RequestParam double latitude,
+            @Parameter(name="longitude") @RequestParam double longitude,
+            @Parameter(name="radiusMeters") @RequestParam double radiusMeters,
+            @Parameter(name="hasSackMeal") @RequestParam(required = false) Boolean hasSackMeal,
+            @Parameter(name="hasTakeOutMeal") @RequestParam(required = false) Boolean hasTakeOutMeal,
+            @Parameter(name="hasDiningCam") @RequestParam(required = false) Boolean hasDiningCam) {
+        checkLocation(latitude, longitude);
+        return ucsbDiningCommonsCache.within(latitude, longitude, radiusMeters,
+                        filter(hasSackMeal, hasTakeOutMeal, hasDiningCam))
+                .stream().map(NearbyDiningCommons::of).toList();
+    }
+
+    private static void checkLocation(double latitude, double longitude) {
+        if (!(Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180)) {
+            throw new InvalidLocationException(latitude, longitude);
+        }
+    }
+
+    static Predicate<UCSBDiningCommons> filter(Boolean hasSackMeal, Boolean hasTakeOutMeal, Boolean hasDiningCam) {
+        return commons -> (hasSackMeal == null || commons.getHasSackMeal() == hasSackMeal)
+                && (hasTakeOutMeal == null || commons.getHasTakeOutMeal() == hasTakeOutMeal)
+                && (hasDiningCam == null || commons.getHasDiningCam() == hasDiningCam);
+    }
+
     /**
      * This method returns a single diningcommons.
      * @param code code of the diningcommons
@@ -57,7 +168,7 @@ public class UCSBDiningCommonsController extends ApiController {
     @GetMapping("")
     public UCSBDiningCommons getById(
             @Parameter(name="code") @RequestParam String code) {
-        UCSBDiningCommons commons = ucsbDiningCommonsRepository.findById(code)
+        UCSBDiningCommons commons = ucsbDiningCommonsCache.findById(code)
                 .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
 
         return commons;
@@ -98,6 +209,8 @@ public class UCSBDiningCommonsController extends ApiController {
         commons.setLongitude(longitude);
 
         UCSBDiningCommons savedCommons = ucsbDiningCommonsRepository.save(commons);
+        ucsbDiningCommonsCache.refresh(code);
+        tableVersionService.bump(UCSBDiningCommons.class);
 
         return savedCommons;
     }
@@ -116,6 +229,8 @@ public class UCSBDiningCommonsController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
 
         ucsbDiningCommonsRepository.delete(commons);
+        ucsbDiningCommonsCache.refresh(code);
+        tableVersionService.bump(UCSBDiningCommons.class);
         return genericMessage("UCSBDiningCommons with id %s deleted".formatted(code));
     }
 
@@ -144,7 +259,33 @@ public class UCSBDiningCommonsController extends ApiController {
         commons.setLongitude(incoming.getLongitude());
 
         ucsbDiningCommonsRepository.save(commons);
+        ucsbDiningCommonsCache.refresh(code);
+        tableVersionService.bump(UCSBDiningCommons.class);
 
         return commons;
     }
+
+    /**
+     * Create many dining commons at once
+     *
+     * @param body a JSON array of dining commons, or one per line (NDJSON); a row whose code already exists, or is repeated, is not saved
+     * @return the outcome of each row
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(summary= "Create many dining commons from a JSON array or NDJSON")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BulkResult bulkCommons(InputStream body) throws IOException {
+        List<UCSBDiningCommons> commonsList = bulkImportService.readRows(body, UCSBDiningCommons.class);
+        BulkResult result = bulkImportService.saveNewRows(commonsList, ucsbDiningCommonsRepository,
+                commons -> BulkImportService.missing(
+                        "code", commons.getCode(),
+                        "name", commons.getName(),
+                        "latitude", commons.getLatitude(),
+                        "longitude", commons.getLongitude()),
+                UCSBDiningCommons::getCode);
+        ucsbDiningCommonsCache.reload();
+        tableVersionService.bump(UCSBDiningCommons.class);
+        return result;
+    }
 }
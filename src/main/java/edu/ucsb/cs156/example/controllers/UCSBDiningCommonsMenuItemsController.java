@@ -3,7 +3,12 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.MenuItemRanking;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.BulkImportService;
+import edu.ucsb.cs156.example.services.MenuItemLeaderboardService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +19,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,7 +32,10 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * This is a REST controller for UCSBDiningCommonsMenuItem
@@ -41,6 +50,12 @@ public class UCSBDiningCommonsMenuItemsController extends ApiController {
     @Autowired
     UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
 
+    @Autowired
+    BulkImportService bulkImportService;
+
+    @Autowired
+    MenuItemLeaderboardService menuItemLeaderboardService;
+
     /**
      * List all UCSB Dining Commons Menu Items
      * 
@@ -54,6 +69,41 @@ public class UCSBDiningCommonsMenuItemsController extends ApiController {
         return ucsbDiningCommonsMenuItems;
     }
 
+    /**
+     * List one page of ucsb dining commons menu items, in id order (keyset pagination)
+     *
+     * @param limit maximum number of ucsb dining commons menu items to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of ucsb dining commons menu items and the cursor for the next page
+     */
+    @Operation(summary= "List one page of ucsb dining commons menu items")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<UCSBDiningCommonsMenuItem> pageUCSBDiningCommonsMenuItems(
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name="after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        List<UCSBDiningCommonsMenuItem> ucsbDiningCommonsMenuItems = ucsbDiningCommonsMenuItemRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeLong(after), keysetPageable(pageLimit));
+        return CursorPage.of(ucsbDiningCommonsMenuItems, pageLimit, UCSBDiningCommonsMenuItem::getId);
+    }
+
+    /**
+     * List the best-rated menu items of a dining commons, best first.  The leaderboard is
+     * precomputed and refreshed periodically, so it may lag the latest reviews slightly.
+     *
+     * @param diningCommonsCode code of the dining commons
+     * @param limit maximum number of menu items to return (optional; default is the whole leaderboard)
+     * @return the dining commons' top-rated menu items
+     */
+    @Operation(summary= "List the top-rated menu items of a dining commons")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/top")
+    public List<MenuItemRanking> topUCSBDiningCommonsMenuItems(
+            @Parameter(name="diningCommonsCode") @RequestParam String diningCommonsCode,
+            @Parameter(name="limit") @RequestParam(required = false) Integer limit) {
+        return menuItemLeaderboardService.top(diningCommonsCode, limit == null ? Integer.MAX_VALUE : limit);
+    }
+
     /**
      * Get a single UCSBDiningCommonsMenuItem via ID
      *  
@@ -142,4 +192,25 @@ public class UCSBDiningCommonsMenuItemsController extends ApiController {
 
         return savedItems;
     }
+
+    /**
+     * Create many ucsb dining commons menu items at once
+     *
+     * @param body a JSON array of ucsb dining commons menu items, or one per line (NDJSON); any id is ignored
+     * @return the outcome of each row
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(summary= "Create many ucsb dining commons menu items from a JSON array or NDJSON")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BulkResult bulkUCSBDiningCommonsMenuItems(InputStream body) throws IOException {
+        List<UCSBDiningCommonsMenuItem> ucsbDiningCommonsMenuItems = bulkImportService.readRows(body, UCSBDiningCommonsMenuItem.class);
+        ucsbDiningCommonsMenuItems.forEach(ucsbDiningCommonsMenuItem -> ucsbDiningCommonsMenuItem.setId(0));
+        return bulkImportService.saveRows(ucsbDiningCommonsMenuItems, ucsbDiningCommonsMenuItemRepository,
+                ucsbDiningCommonsMenuItem -> BulkImportService.missing(
+                        "diningCommonsCode", ucsbDiningCommonsMenuItem.getDiningCommonsCode(),
+                        "name", ucsbDiningCommonsMenuItem.getName(),
+                        "station", ucsbDiningCommonsMenuItem.getStation()),
+                UCSBDiningCommonsMenuItem::getId);
+    }
 }
@@ -2,7 +2,12 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBOrganizations;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.CursorPage;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationsRepository;
+import edu.ucsb.cs156.example.services.BulkImportService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+import edu.ucsb.cs156.example.services.UCSBOrganizationsCache;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,6 +15,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,9 +25,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 @Tag(name = "UCSBOrganizations")
 @RequestMapping("/api/ucsborganizations")
 @RestController
@@ -31,19 +42,51 @@ public class UCSBOrganizationsController extends ApiController {
     @Autowired
     UCSBOrganizationsRepository ucsbOrganizationsRepository;
 
+    @Autowired
+    BulkImportService bulkImportService;
+
+    @Autowired
+    TableVersionService tableVersionService;
+
+    @Autowired
+    UCSBOrganizationsCache ucsbOrganizationsCache;
+
     /**
      * List all UCSB Orgs
+     * Answers 304 Not Modified, without reading the table, if the client already has the current list.
      *
+     * @param webRequest the request (for its If-None-Match header)
      * @return an iterable of UCSBOrganizations
      */
     @Operation(summary = "List all ucsb organizations")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBOrganizations> allOrganizations() {
-        Iterable<UCSBOrganizations> organizations = ucsbOrganizationsRepository.findAll();
+    public Iterable<UCSBOrganizations> allOrganizations(ServletWebRequest webRequest) {
+        if (checkNotModified(webRequest, tableVersionService.etag(UCSBOrganizations.class))) {
+            return null;
+        }
+        Iterable<UCSBOrganizations> organizations = ucsbOrganizationsCache.findAll();
         return organizations;
     }
 
+    /**
+     * List one page of ucsb organizations, in orgCode order (keyset pagination)
+     *
+     * @param limit maximum number of ucsb organizations to return (optional)
+     * @param after the cursor returned as next by the previous page (omit for the first page)
+     * @return a page of ucsb organizations and the cursor for the next page
+     */
+    @Operation(summary = "List one page of ucsb organizations")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<UCSBOrganizations> pageOrganizations(
+            @Parameter(name = "limit") @RequestParam(required = false) Integer limit,
+            @Parameter(name = "after") @RequestParam(required = false) String after) {
+        int pageLimit = pageLimit(limit);
+        List<UCSBOrganizations> organizations = ucsbOrganizationsRepository.findByOrgCodeGreaterThanOrderByOrgCodeAsc(CursorPage.decodeString(after), keysetPageable(pageLimit));
+        return CursorPage.of(organizations, pageLimit, UCSBOrganizations::getOrgCode);
+    }
+
     /**
      * Get a single org by id
      *
@@ -54,7 +97,7 @@ public class UCSBOrganizationsController extends ApiController {
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
     public UCSBOrganizations getById(@RequestParam String orgCode) {
-        return ucsbOrganizationsRepository.findById(orgCode)
+        return ucsbOrganizationsCache.findById(orgCode)
                 .orElseThrow(() -> new EntityNotFoundException(UCSBOrganizations.class, orgCode));
     }
 
@@ -81,6 +124,8 @@ public class UCSBOrganizationsController extends ApiController {
         organization.setInactive(incoming.getInactive());
 
         ucsbOrganizationsRepository.save(organization);
+        ucsbOrganizationsCache.refresh(orgCode);
+        tableVersionService.bump(UCSBOrganizations.class);
 
         return organization;
     }
@@ -101,6 +146,8 @@ public class UCSBOrganizationsController extends ApiController {
         organization.setOrgTranslation(orgTranslation);
         organization.setInactive(inactive);
         UCSBOrganizations savedOrganizations = ucsbOrganizationsRepository.save(organization);
+        ucsbOrganizationsCache.refresh(orgCode);
+        tableVersionService.bump(UCSBOrganizations.class);
 
         return savedOrganizations;
     }
@@ -114,6 +161,31 @@ public class UCSBOrganizationsController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(UCSBOrganizations.class, orgCode));
 
         ucsbOrganizationsRepository.delete(organizations);
+        ucsbOrganizationsCache.refresh(orgCode);
+        tableVersionService.bump(UCSBOrganizations.class);
         return genericMessage("UCSBOrganizations with id %s deleted".formatted(orgCode));
     }
+
+    /**
+     * Create many organizations at once
+     *
+     * @param body a JSON array of organizations, or one per line (NDJSON); a row whose orgCode already exists, or is repeated, is not saved
+     * @return the outcome of each row
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(summary= "Create many organizations from a JSON array or NDJSON")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BulkResult bulkOrganizations(InputStream body) throws IOException {
+        List<UCSBOrganizations> organizations = bulkImportService.readRows(body, UCSBOrganizations.class);
+        BulkResult result = bulkImportService.saveNewRows(organizations, ucsbOrganizationsRepository,
+                organization -> BulkImportService.missing(
+                        "orgCode", organization.getOrgCode(),
+                        "orgTranslationShort", organization.getOrgTranslationShort(),
+                        "orgTranslation", organization.getOrgTranslation()),
+                UCSBOrganizations::getOrgCode);
+        ucsbOrganizationsCache.reload();
+        tableVersionService.bump(UCSBOrganizations.class);
+        return result;
+    }
 }
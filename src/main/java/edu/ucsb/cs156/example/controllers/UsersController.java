@@ -1,19 +1,34 @@
 package edu.ucsb.cs156.example.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.CacheStatistics;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdminStatusService;
+import edu.ucsb.cs156.example.services.UserCacheService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 /**
  * This is a REST controller for getting information about the users.
@@ -31,6 +46,15 @@ public class UsersController extends ApiController {
     @Autowired
     ObjectMapper mapper;
 
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    UserCacheService userCacheService;
+
+    @Autowired
+    AdminStatusService adminStatusService;
+
     /**
      * This method returns a list of all users.  Accessible only to users with the role "ROLE_ADMIN".
      * @return a list of all users
@@ -45,4 +69,97 @@ public class UsersController extends ApiController {
         String body = mapper.writeValueAsString(users);
         return ResponseEntity.ok().body(body);
     }
-}
\ No newline at end of file
+
+    /**
+     * This method streams the list of all users as a JSON array.  Accessible only to users with the role "ROLE_ADMIN".
+     *
+     * Rows are read over a database cursor and each user is written to the response
+     * and detached from the persistence context as soon as it is read, so memory use
+     * does not grow with the number of users.
+     * @param response the servlet response (injected by Spring framework)
+     * @throws IOException if there is an error writing the response
+     */
+    @Operation(summary= "Stream a list of all users")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional(readOnly = true)
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (Stream<User> users = userRepository.streamAll();
+                JsonGenerator generator = mapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                generator.writeObject(user);
+                entityManager.detach(user);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * This method returns the hit/miss statistics of the cache of resolved users.  Accessible only to users with the role "ROLE_ADMIN".
+     * @return the cache statistics
+     */
+    @Operation(summary= "Get statistics for the user cache")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/cache")
+    public CacheStatistics userCacheStatistics() {
+        return userCacheService.getStatistics();
+    }
+
+    /**
+     * This method forgets cached users, either a single one or everyone, e.g. after users have been
+     * changed directly in the database.  Accessible only to users with the role "ROLE_ADMIN".
+     * @param email (optional) email of the user who should be forgotten
+     * @return a message indicating what was cleared
+     */
+    @Operation(summary= "Clear the user cache")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/cache")
+    public Object clearUserCache(
+            @Parameter(name="email", description="email of a single user to invalidate; omit to clear the whole cache") @RequestParam(required = false) String email) {
+        if (email == null) {
+            userCacheService.invalidateAll();
+            return genericMessage("User cache cleared");
+        }
+        userCacheService.invalidate(email);
+        return genericMessage("Cached user %s cleared".formatted(email));
+    }
+
+    /**
+     * This method returns the hit/miss statistics of the cache of admin flags read from the database.
+     * Accessible only to users with the role "ROLE_ADMIN".
+     * @return the cache statistics
+     */
+    @Operation(summary= "Get statistics for the admin status cache")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/adminCache")
+    public CacheStatistics adminCacheStatistics() {
+        return adminStatusService.getStatistics();
+    }
+
+    /**
+     * This method forgets cached admin flags, either for a single email or for everyone, so that
+     * a change to the admin column takes effect before the cache entry expires.  The same users
+     * are evicted from the user cache, which holds their admin flag too.
+     * Accessible only to users with the role "ROLE_ADMIN".
+     * @param email (optional) email of the user whose admin flag should be forgotten
+     * @return a message indicating what was cleared
+     */
+    @Operation(summary= "Clear the admin status cache")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/adminCache")
+    public Object clearAdminCache(
+            @Parameter(name="email", description="email of a single user to invalidate; omit to clear the whole cache") @RequestParam(required = false) String email) {
+        if (email == null) {
+            adminStatusService.invalidateAll();
+            userCacheService.invalidateAll();
+            return genericMessage("Admin status cache cleared");
+        }
+        adminStatusService.invalidate(email);
+        userCacheService.invalidate(email);
+        return genericMessage("Admin status for %s cleared".formatted(email));
+    }
+}
@@ -4,11 +4,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 /**
@@ -22,7 +26,8 @@ import java.time.LocalDateTime;
 @Entity(name = "article")
 public class Article {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "article_seq")
+  @SequenceGenerator(name = "article_seq", sequenceName = "ARTICLE_SEQ", allocationSize = 50)
   private long id;
 
   private String title;
@@ -30,4 +35,8 @@ public class Article {
   private String explanation;
   private String email;
   private LocalDateTime dateAdded;
+
+  /** when the row was last inserted or updated (see ArticleSearchIndex) */
+  @UpdateTimestamp
+  private Instant updatedAt;
 }
\ No newline at end of file
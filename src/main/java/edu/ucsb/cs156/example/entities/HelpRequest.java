@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,7 +19,8 @@ import java.time.LocalDateTime;
 //Help Requests Entity
 public class HelpRequest {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "helprequest_seq")
+  @SequenceGenerator(name = "helprequest_seq", sequenceName = "HELPREQUEST_SEQ", allocationSize = 50)
   private long id;
   
   private String requesterEmail;
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,7 +24,8 @@ import java.time.LocalDateTime;
 @Entity(name = "menuitemreviews")
 public class MenuItemReviews {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menuitemreviews_seq")
+  @SequenceGenerator(name = "menuitemreviews_seq", sequenceName = "MENUITEMREVIEWS_SEQ", allocationSize = 50)
 
   private long id;
 
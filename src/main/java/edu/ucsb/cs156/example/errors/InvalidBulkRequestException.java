@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.example.errors;
+
+/**
+ * This is an error class for a custom RuntimeException in Java that is used to indicate
+ * that the body of a bulk create request could not be read (malformed JSON, or too many rows).
+ */
+public class InvalidBulkRequestException extends RuntimeException {
+  /**
+   * Constructor for the exception
+   *
+   * @param message description of what was wrong with the request body
+   */
+  public InvalidBulkRequestException(String message) {
+    super(message);
+  }
+}
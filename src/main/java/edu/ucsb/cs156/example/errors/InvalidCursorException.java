@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.example.errors;
+
+/**
+ * This is an error class for a custom RuntimeException in Java that is used to indicate
+ * that a pagination cursor sent by the client could not be decoded.
+ */
+public class InvalidCursorException extends RuntimeException {
+  /**
+   * Constructor for the exception
+   *
+   * @param cursor the cursor that could not be decoded
+   */
+  public InvalidCursorException(String cursor) {
+    super("Invalid cursor %s".formatted(cursor));
+  }
+}
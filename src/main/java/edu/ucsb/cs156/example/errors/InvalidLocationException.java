@@ -0,0 +1,18 @@
+package edu.ucsb.cs156.example.errors;
+
+/**
+ * This is an error class for a custom RuntimeException in Java that is used to indicate
+ * that a latitude or longitude sent by the client is out of range.
+ */
+public class InvalidLocationException extends RuntimeException {
+  /**
+   * Constructor for the exception
+   *
+   * @param latitude the latitude sent
+   * @param longitude the longitude sent
+   */
+  public InvalidLocationException(double latitude, double longitude) {
+    super("Invalid location %s,%s: latitude must be between -90 and 90, and longitude between -180 and 180"
+        .formatted(latitude, longitude));
+  }
+}
@@ -0,0 +1,23 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import edu.ucsb.cs156.example.entities.Article;
+
+/**
+ * This is a model class that represents an article that matched a search,
+ * and its BM25 relevance score (higher is more relevant).
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class ArticleSearchResult {
+  private Article article;
+  private double score;
+}
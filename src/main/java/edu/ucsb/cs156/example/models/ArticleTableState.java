@@ -0,0 +1,24 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.time.Instant;
+
+/**
+ * This is a model class that summarizes the articles table: how many articles
+ * there are, and when one was last inserted or updated (null if none has a time).
+ * Any insert, update or delete through JPA changes it.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class ArticleTableState {
+  private long count;
+  private Instant lastUpdated;
+}
@@ -0,0 +1,45 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.util.List;
+
+/**
+ * This is a model class that represents the response to a bulk create request:
+ * counts by status, and one BulkRowResult per row in the order the rows were sent.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class BulkResult {
+  private int received;
+  private int created;
+  private int invalid;
+  private int failed;
+  private List<BulkRowResult> rows;
+
+  /**
+   * Summarize the per-row results
+   * @param rows the per-row results, in input order
+   * @return the bulk result
+   */
+  public static BulkResult of(List<BulkRowResult> rows) {
+    return BulkResult.builder()
+        .received(rows.size())
+        .created(count(rows, BulkRowResult.CREATED))
+        .invalid(count(rows, BulkRowResult.INVALID))
+        .failed(count(rows, BulkRowResult.FAILED))
+        .rows(rows)
+        .build();
+  }
+
+  private static int count(List<BulkRowResult> rows, String status) {
+    return (int) rows.stream().filter(row -> status.equals(row.getStatus())).count();
+  }
+}
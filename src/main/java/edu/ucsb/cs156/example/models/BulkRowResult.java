@@ -0,0 +1,31 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.util.List;
+
+/**
+ * This is a model class that represents the outcome of one row of a bulk create request.
+ *
+ * The status is one of CREATED (id is set), INVALID (errors lists what is wrong with the row),
+ * or FAILED (the database rejected the chunk the row was saved in; errors has the reason).
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class BulkRowResult {
+  public static final String CREATED = "CREATED";
+  public static final String INVALID = "INVALID";
+  public static final String FAILED = "FAILED";
+
+  private int index;
+  private String status;
+  private Object id;
+  private List<String> errors;
+}
@@ -0,0 +1,44 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * This is a model class that represents the hit/miss statistics of an in-memory cache.
+ *
+ * It is used by the admin endpoints so that cache sizes and TTLs can be tuned.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class CacheStatistics {
+  private long size;
+  private long hitCount;
+  private long missCount;
+  private double hitRate;
+  private long evictionCount;
+
+  /**
+   * Take a snapshot of the statistics of a Caffeine cache
+   * @param cache the cache (built with recordStats())
+   * @return the statistics
+   */
+  public static CacheStatistics of(Cache<?, ?> cache) {
+    CacheStats stats = cache.stats();
+    return CacheStatistics.builder()
+        .size(cache.estimatedSize())
+        .hitCount(stats.hitCount())
+        .missCount(stats.missCount())
+        .hitRate(stats.hitRate())
+        .evictionCount(stats.evictionCount())
+        .build();
+  }
+}
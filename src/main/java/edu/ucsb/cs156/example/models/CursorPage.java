@@ -0,0 +1,131 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.errors.InvalidCursorException;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AccessLevel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This is a model class that represents one page of a keyset (cursor) paginated list.
+ *
+ * The {@code next} cursor is an opaque string that the client passes back as the
+ * {@code after} parameter to get the following page; it is null on the last page.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class CursorPage<T> {
+  private List<T> content;
+  private String next;
+
+  /**
+   * Build a page from rows fetched with a limit of {@code limit + 1}.  The extra row,
+   * if present, is dropped and only tells us that there is a next page.
+   *
+   * @param <T> the type of the rows
+   * @param rows the rows, in key order, at most {@code limit + 1} of them
+   * @param limit the page size requested by the client
+   * @param key function that extracts the sort key from a row
+   * @return the page
+   */
+  public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, ?> key) {
+    if (rows.size() <= limit) {
+      return new CursorPage<>(rows, null);
+    }
+    List<T> content = new ArrayList<>(rows.subList(0, limit));
+    return new CursorPage<>(content, encode(key.apply(content.get(limit - 1))));
+  }
+
+  /**
+   * Encode a key as an opaque cursor
+   *
+   * @param key the key of the last row on a page
+   * @return the cursor
+   */
+  public static String encode(Object key) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decode a cursor for a table with a numeric key
+   *
+   * @param cursor the cursor, or null for the first page
+   * @return the key to continue after ({@code Long.MIN_VALUE} for the first page)
+   * @throws InvalidCursorException if the cursor was not produced by {@link #encode(Object)}
+   */
+  public static long decodeLong(String cursor) {
+    if (cursor == null) {
+      return Long.MIN_VALUE;
+    }
+    try {
+      return Long.parseLong(decodeString(cursor));
+    } catch (NumberFormatException e) {
+      throw new InvalidCursorException(cursor);
+    }
+  }
+
+  /**
+   * Decode a cursor for a table with a string key
+   *
+   * @param cursor the cursor, or null for the first page
+   * @return the key to continue after (the empty string for the first page)
+   * @throws InvalidCursorException if the cursor was not produced by {@link #encode(Object)}
+   */
+  public static String decodeString(String cursor) {
+    if (cursor == null) {
+      return "";
+    }
+    try {
+      return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException(cursor);
+    }
+  }
+
+  /**
+   * The key of a row in a list ordered by a time and then by id (the id breaks ties)
+   * @param time the row's time
+   * @param id the row's id
+   */
+  public record TimeKey(LocalDateTime time, long id) {
+    @Override
+    public String toString() {
+      return time + "," + id;
+    }
+  }
+
+  /**
+   * Decode a cursor for a list in (time, id) order, encoded from a {@link TimeKey}
+   *
+   * @param cursor the cursor, or null for the first page
+   * @param first the time the first page starts at (inclusive)
+   * @return the key to continue after ({@code first} and {@code Long.MIN_VALUE} for the first page)
+   * @throws InvalidCursorException if the cursor was not produced by {@link #encode(Object)} from a TimeKey
+   */
+  public static TimeKey decodeTimeKey(String cursor, LocalDateTime first) {
+    if (cursor == null) {
+      return new TimeKey(first, Long.MIN_VALUE);
+    }
+    String key = decodeString(cursor);
+    int comma = key.lastIndexOf(',');
+    try {
+      return new TimeKey(LocalDateTime.parse(key.substring(0, comma)), Long.parseLong(key.substring(comma + 1)));
+    } catch (IndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+      throw new InvalidCursorException(cursor);
+    }
+  }
+}
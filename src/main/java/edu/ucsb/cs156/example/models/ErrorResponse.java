@@ -0,0 +1,27 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.AccessLevel;
+
+/**
+ * This is a model class for the body of an error response: the simple name of the
+ * exception class, and its message.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ErrorResponse {
+  private String type;
+  private String message;
+
+  /**
+   * @param e the exception being reported
+   * @return the error response for the exception
+   */
+  public static ErrorResponse of(Throwable e) {
+    return new ErrorResponse(e.getClass().getSimpleName(), e.getMessage());
+  }
+}
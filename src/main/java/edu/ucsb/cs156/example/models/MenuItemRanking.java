@@ -0,0 +1,25 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+/**
+ * This is a model class that represents one entry of a dining commons' menu item
+ * leaderboard: the item, its place (1 is best), and the ratings it was ranked by.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class MenuItemRanking {
+  private int rank;
+  private long itemId;
+  private String name;
+  private String station;
+  private long reviews;
+  private double averageStars;
+}
@@ -0,0 +1,36 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.services.GeoIndex;
+
+/**
+ * This is a model class that represents a dining commons found near a location,
+ * and its great-circle distance from that location.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class NearbyDiningCommons {
+  private UCSBDiningCommons diningCommons;
+  private double distanceMeters;
+
+  /**
+   * Convert a result of a GeoIndex query
+   * @param neighbor the dining commons and its distance
+   * @return the nearby dining commons
+   */
+  public static NearbyDiningCommons of(GeoIndex.Neighbor<UCSBDiningCommons> neighbor) {
+    return NearbyDiningCommons.builder()
+        .diningCommons(neighbor.item())
+        .distanceMeters(neighbor.distanceMeters())
+        .build();
+  }
+}
@@ -0,0 +1,51 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This is a model class that represents the ratings of one menu item:
+ * how many reviews it has, their total and average number of stars, and
+ * how many reviews gave it each number of stars (histogram[0] is the number of
+ * 1-star reviews, ..., histogram[4] the number of 5-star reviews).
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class RatingStatistics {
+  private long itemId;
+  private long count;
+  private long sum;
+  private Double average;
+  private List<Long> histogram;
+
+  /**
+   * Summarize the number of reviews of an item with each number of stars
+   * @param itemId the id of the item
+   * @param starCounts the number of 1-star, ..., 5-star reviews
+   * @return the statistics (average is null when there are no reviews)
+   */
+  public static RatingStatistics of(long itemId, long[] starCounts) {
+    long count = 0;
+    long sum = 0;
+    for (int i = 0; i < starCounts.length; i++) {
+      count += starCounts[i];
+      sum += (i + 1) * starCounts[i];
+    }
+    return RatingStatistics.builder()
+        .itemId(itemId)
+        .count(count)
+        .sum(sum)
+        .average(count == 0 ? null : (double) sum / count)
+        .histogram(Arrays.stream(starCounts).boxed().toList())
+        .build();
+  }
+}
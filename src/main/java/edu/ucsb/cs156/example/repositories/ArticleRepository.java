@@ -1,15 +1,36 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.models.ArticleTableState;
 
 import org.springframework.beans.propertyeditors.StringArrayPropertyEditor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * The ArticleRepository is a repository for Articles entities
  */
 @Repository
-public interface ArticleRepository extends CrudRepository<Article, String> {
- 
-}
\ No newline at end of file
+public interface ArticleRepository extends CrudRepository<Article, String>, PagingAndSortingRepository<Article, String> {
+  /**
+   * This method returns the Article entities whose id is greater than the given id, in id order.
+   * It is used for keyset (cursor) pagination: pass the id of the last row of the previous page.
+   * @param id the id of the last row of the previous page
+   * @param pageable the page size
+   * @return the next page of Article entities
+   */
+  List<Article> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+  /**
+   * This method returns how many articles there are and when one was last written,
+   * in one query that reads only the index on updatedAt.
+   * @return the number of articles and the greatest updatedAt
+   */
+  @Query("select new edu.ucsb.cs156.example.models.ArticleTableState(count(a), max(a.updatedAt)) from article a")
+  ArticleTableState tableState();
+}
@@ -2,14 +2,35 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.HelpRequest;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * The HelpRequestRepository is a repository for HelpRequest entities.
+ * Filtered queries are built from the conditions in {@link HelpRequestSpecifications}.
  */
 
 @Repository
-public interface HelpRequestRepository extends CrudRepository<HelpRequest, Long> {
-  
-}
\ No newline at end of file
+public interface HelpRequestRepository extends CrudRepository<HelpRequest, Long>, PagingAndSortingRepository<HelpRequest, Long>,
+    JpaSpecificationExecutor<HelpRequest> {
+  /**
+   * This method returns the HelpRequest entities whose id is greater than the given id, in id order.
+   * It is used for keyset (cursor) pagination: pass the id of the last row of the previous page.
+   * @param id the id of the last row of the previous page
+   * @param pageable the page size
+   * @return the next page of HelpRequest entities
+   */
+  List<HelpRequest> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+  /**
+   * This method returns the HelpRequest entities that have not been solved.
+   * It is used to load the queue of open help requests (see HelpRequestQueueService).
+   * @return the unsolved HelpRequest entities
+   */
+  List<HelpRequest> findBySolvedFalse();
+}
@@ -0,0 +1,69 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * These are the conditions that HelpRequest queries can be filtered on, for use with
+ * {@link HelpRequestRepository#findBy}.  Each returns null when its argument is null,
+ * which Specification.where and Specification.and treat as "no condition", so optional
+ * request parameters can be passed straight through.
+ *
+ * Queries are paged in id order ({@link #idGreaterThan}), so with a teamId and a solved
+ * state the database walks the index IDX_HELPREQUEST_TEAM_ID_SOLVED_ID from the cursor in
+ * id order, and stops once it has a page.  The requestTime window is not part of that
+ * index: it is checked against each row walked.  For a narrow window the database may
+ * choose IDX_HELPREQUEST_SOLVED_REQUEST_TIME instead, and sort the matches by id.
+ */
+
+public final class HelpRequestSpecifications {
+
+  private HelpRequestSpecifications() {
+  }
+
+  /**
+   * @param solved the solved state to match, or null for either
+   * @return the condition
+   */
+  public static Specification<HelpRequest> solved(Boolean solved) {
+    return solved == null ? null : (root, query, cb) -> cb.equal(root.get("solved"), solved);
+  }
+
+  /**
+   * @param teamId the team to match, or null for any team
+   * @return the condition
+   */
+  public static Specification<HelpRequest> teamId(String teamId) {
+    return teamId == null ? null : (root, query, cb) -> cb.equal(root.get("teamId"), teamId);
+  }
+
+  /**
+   * @param from the earliest request time to match (inclusive), or null for no lower bound
+   * @return the condition
+   */
+  public static Specification<HelpRequest> requestedFrom(LocalDateTime from) {
+    return from == null ? null
+        : (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("requestTime"), from);
+  }
+
+  /**
+   * @param to the request time to match up to (exclusive), or null for no upper bound
+   * @return the condition
+   */
+  public static Specification<HelpRequest> requestedBefore(LocalDateTime to) {
+    return to == null ? null
+        : (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("requestTime"), to);
+  }
+
+  /**
+   * This condition is used for keyset (cursor) pagination in id order.
+   * @param id the id of the last row of the previous page
+   * @return the condition
+   */
+  public static Specification<HelpRequest> idGreaterThan(long id) {
+    return (root, query, cb) -> cb.greaterThan(root.<Long>get("id"), id);
+  }
+}
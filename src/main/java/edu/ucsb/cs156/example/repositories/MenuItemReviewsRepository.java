@@ -2,14 +2,44 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.MenuItemReviews;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * The MenuItemReviewsRepository is a repository for MenuItemReviews entities.
  */
 
 @Repository
-public interface MenuItemReviewsRepository extends CrudRepository<MenuItemReviews, Long> {
+public interface MenuItemReviewsRepository extends CrudRepository<MenuItemReviews, Long>, PagingAndSortingRepository<MenuItemReviews, Long> {
+  /**
+   * This method returns the MenuItemReviews entities whose id is greater than the given id, in id order.
+   * It is used for keyset (cursor) pagination: pass the id of the last row of the previous page.
+   * @param id the id of the last row of the previous page
+   * @param pageable the page size
+   * @return the next page of MenuItemReviews entities
+   */
+  List<MenuItemReviews> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+  /**
+   * One row of {@link #countReviewsByItemIdAndStars}: the number of reviews of an item with a given number of stars.
+   */
+  interface StarCount {
+    long getItemId();
+    int getStars();
+    long getReviews();
+  }
 
+  /**
+   * This method counts the reviews of each item by number of stars (1 to 5), in a single
+   * pass over the table.  Reviews with any other number of stars are not counted.
+   * @return one row per item and number of stars that has at least one review
+   */
+  @Query("select r.itemId as itemId, r.stars as stars, count(r) as reviews from menuitemreviews r"
+      + " where r.stars between 1 and 5 group by r.itemId, r.stars")
+  List<StarCount> countReviewsByItemIdAndStars();
 }
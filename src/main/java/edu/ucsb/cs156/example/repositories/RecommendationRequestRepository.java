@@ -1,14 +1,32 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * The RecommendationRequestRepository is a repository for RecommendationRequest entities.
  */
 
-public interface RecommendationRequestRepository extends CrudRepository<RecommendationRequest, Long>{
+public interface RecommendationRequestRepository extends CrudRepository<RecommendationRequest, Long>, PagingAndSortingRepository<RecommendationRequest, Long>{
+  /**
+   * This method returns the RecommendationRequest entities whose id is greater than the given id, in id order.
+   * It is used for keyset (cursor) pagination: pass the id of the last row of the previous page.
+   * @param id the id of the last row of the previous page
+   * @param pageable the page size
+   * @return the next page of RecommendationRequest entities
+   */
+  List<RecommendationRequest> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 
+  /**
+   * This method returns the RecommendationRequest entities that are not done.
+   * It is used to load the open requests by due date (see RecommendationRequestDueDates).
+   * @return the RecommendationRequest entities that are not done
+   */
+  List<RecommendationRequest> findByDoneFalse();
 }
@@ -2,12 +2,24 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.Restaurant;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * The RestaurantRepository is a repository for Restaurant entities
  */
 @Repository
-public interface RestaurantRepository extends CrudRepository<Restaurant, Long> {
+public interface RestaurantRepository extends CrudRepository<Restaurant, Long>, PagingAndSortingRepository<Restaurant, Long> {
+  /**
+   * This method returns the Restaurant entities whose id is greater than the given id, in id order.
+   * It is used for keyset (cursor) pagination: pass the id of the last row of the previous page.
+   * @param id the id of the last row of the previous page
+   * @param pageable the page size
+   * @return the next page of Restaurant entities
+   */
+  List<Restaurant> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 }
@@ -2,19 +2,59 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.UCSBDate;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * The UCSBDateRepository is a repository for UCSBDate entities.
  */
 
 @Repository
-public interface UCSBDateRepository extends CrudRepository<UCSBDate, Long> {
+public interface UCSBDateRepository extends CrudRepository<UCSBDate, Long>, PagingAndSortingRepository<UCSBDate, Long> {
   /**
    * This method returns all UCSBDate entities with a given quarterYYYYQ.
+   * The result is kept in Hibernate's query cache until the ucsbdates table changes.
    * @param quarterYYYYQ quarter in the format YYYYQ (e.g. 20241 for Winter 2024, 20242 for Spring 2024, 20243 for Summer 2024, 20244 for Fall 2024)
    * @return all UCSBDate entities with a given quarterYYYYQ
    */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   Iterable<UCSBDate> findAllByQuarterYYYYQ(String quarterYYYYQ);
-}
\ No newline at end of file
+
+  /**
+   * This method returns the UCSBDate entities whose id is greater than the given id, in id order.
+   * It is used for keyset (cursor) pagination: pass the id of the last row of the previous page.
+   * @param id the id of the last row of the previous page
+   * @param pageable the page size
+   * @return the next page of UCSBDate entities
+   */
+  List<UCSBDate> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+  /**
+   * This method returns one page of the UCSBDate entities in a window of time, in (time, id)
+   * order, for keyset (cursor) pagination.  It is a range scan of the index
+   * IDX_UCSBDATES_LOCAL_DATE_TIME from the later of from and afterTime up to to.
+   * @param from the start of the window (inclusive)
+   * @param to the end of the window (exclusive)
+   * @param afterTime the time of the last row of the previous page (from, for the first page)
+   * @param afterId the id of the last row of the previous page (Long.MIN_VALUE, for the first page)
+   * @param pageable the page size
+   * @return the UCSBDate entities with from &lt;= localDateTime &lt; to that come after
+   *     (afterTime, afterId), earliest first
+   */
+  @Query("select d from ucsbdates d where d.localDateTime >= :from and d.localDateTime < :to"
+      + " and d.localDateTime >= :afterTime and (d.localDateTime > :afterTime or d.id > :afterId)"
+      + " order by d.localDateTime, d.id")
+  List<UCSBDate> findPageInWindow(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+      @Param("afterTime") LocalDateTime afterTime, @Param("afterId") long afterId, Pageable pageable);
+}
@@ -3,13 +3,24 @@ package edu.ucsb.cs156.example.repositories;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 
 import org.springframework.beans.propertyeditors.StringArrayPropertyEditor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * The UCSBDiningCommonsRepository is a repository for UCSBDiningCommons entities
  */
 @Repository
-public interface UCSBDiningCommonsRepository extends CrudRepository<UCSBDiningCommons, String> {
- 
-}
\ No newline at end of file
+public interface UCSBDiningCommonsRepository extends CrudRepository<UCSBDiningCommons, String>, PagingAndSortingRepository<UCSBDiningCommons, String> {
+  /**
+   * This method returns the UCSBDiningCommons entities whose code is greater than the given code, in code order.
+   * It is used for keyset (cursor) pagination: pass the code of the last row of the previous page.
+   * @param code the code of the last row of the previous page
+   * @param pageable the page size
+   * @return the next page of UCSBDiningCommons entities
+   */
+  List<UCSBDiningCommons> findByCodeGreaterThanOrderByCodeAsc(String code, Pageable pageable);
+}
@@ -2,12 +2,23 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.UCSBOrganizations;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /* The UCSBOrganizationRepository is a repository for UCSBOrganization entities
 */
 @Repository
-public interface UCSBOrganizationsRepository extends CrudRepository<UCSBOrganizations, String> {
-
+public interface UCSBOrganizationsRepository extends CrudRepository<UCSBOrganizations, String>, PagingAndSortingRepository<UCSBOrganizations, String> {
+  /**
+   * This method returns the UCSBOrganizations entities whose orgCode is greater than the given orgCode, in orgCode order.
+   * It is used for keyset (cursor) pagination: pass the orgCode of the last row of the previous page.
+   * @param orgCode the orgCode of the last row of the previous page
+   * @param pageable the page size
+   * @return the next page of UCSBOrganizations entities
+   */
+  List<UCSBOrganizations> findByOrgCodeGreaterThanOrderByOrgCodeAsc(String orgCode, Pageable pageable);
 }
@@ -0,0 +1,118 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.CacheStatistics;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * This is a service that decides whether an email address belongs to an admin.
+ *
+ * An email is an admin if it is listed in the app.admin.emails property, or if
+ * the matching row in the users table has its admin flag set.  The configured emails
+ * are kept in a hash set, and the flags read from the database are cached (bounded,
+ * with a TTL) so that a burst of logins does not turn into a burst of queries.
+ */
+
+@Slf4j
+@Service("adminStatus")
+public class AdminStatusService {
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Value("${app.admin.emails}")
+  private List<String> adminEmailList = new ArrayList<>();
+
+  @Value("${app.adminCache.maximumSize:10000}")
+  private long maximumSize;
+
+  @Value("${app.adminCache.expireAfterWriteSeconds:60}")
+  private long expireAfterWriteSeconds;
+
+  private Set<String> adminEmails;
+
+  private Cache<String, Boolean> databaseAdminFlags;
+
+  /**
+   * Build the admin email set and the cache once the property values have been injected.
+   * Entries are split on commas and trimmed, so the set is the same whether or not the
+   * property was already split into a list during conversion.
+   */
+  @PostConstruct
+  public void init() {
+    adminEmails = adminEmailList.stream()
+        .flatMap(entry -> Arrays.stream(entry.split(",")))
+        .map(String::trim)
+        .filter(email -> !email.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+    databaseAdminFlags = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * This method checks whether the email is one of the configured admin emails (app.admin.emails).
+   * @param email email address of the user
+   * @return whether the email is a configured admin email
+   */
+  public boolean isAdminEmail(String email) {
+    return adminEmails.contains(email);
+  }
+
+  /**
+   * This method checks if the given email belongs to an admin user either from the
+   * configured list or from the admin flag in the users table (cached).
+   * @param email email address of the user
+   * @return whether the user with the given email is an admin
+   */
+  public boolean getAdmin(String email) {
+    if (isAdminEmail(email)) {
+      return true;
+    }
+    return databaseAdminFlags.get(email,
+        key -> userRepository.findByEmail(key).map(User::getAdmin).orElse(false));
+  }
+
+  /**
+   * This method forgets the cached admin flag for one email, e.g. after it has been changed.
+   * @param email email address of the user
+   */
+  public void invalidate(String email) {
+    databaseAdminFlags.invalidate(email);
+  }
+
+  /**
+   * This method forgets all cached admin flags.
+   */
+  public void invalidateAll() {
+    log.info("invalidating admin status cache");
+    databaseAdminFlags.invalidateAll();
+  }
+
+  /**
+   * This method returns the hit/miss statistics of the cache of admin flags.
+   * @return the statistics
+   */
+  public CacheStatistics getStatistics() {
+    return CacheStatistics.of(databaseAdminFlags);
+  }
+}
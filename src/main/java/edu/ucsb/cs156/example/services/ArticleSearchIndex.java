@@ -0,0 +1,360 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.models.ArticleSearchResult;
+import edu.ucsb.cs156.example.models.ArticleTableState;
+import edu.ucsb.cs156.example.repositories.ArticleRepository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * This service keeps an inverted index of the articles' titles and explanations in memory,
+ * so that a search can rank the matching articles without reading the articles table.
+ *
+ * Text is split into runs of letters and digits, lowercased.  For each term the index holds
+ * the articles that contain it and how often (a term in the title counts TITLE_WEIGHT times,
+ * so that title matches rank higher).  A search scores only the articles that contain one of
+ * its terms, by BM25: rare terms count for more than common ones, each repeat of a term in an
+ * article counts for less than the one before, and long articles are not favoured just for
+ * being long.
+ *
+ * The ArticlesController reports each article it writes ({@link #refresh}), which is read
+ * again so that only that article's entries change; a bulk import calls {@link #reload}.
+ * Searches share a read lock, and the index is swapped under the write lock.  Changes are
+ * also serialized with a separate lock, held while the table is read, so that a change
+ * reported during a rebuild is applied after it rather than overwritten by it, and two
+ * writes to one article end up as the later one.  Both are ReentrantLocks, because the
+ * table is read while they are held and a virtual thread blocked inside synchronized pins
+ * its carrier.
+ *
+ * After a change, the indexed articles are written to a snapshot file
+ * (app.articleSearch.snapshotFile; empty for none) on a schedule
+ * (app.articleSearch.snapshotInterval) and at shutdown.  At start-up the snapshot is used
+ * as it is if the table's article count and greatest updatedAt (one query on an index) match
+ * those of the articles in it.  Every JPA insert, update and delete changes one or the other,
+ * including ones made just before a crash, so a snapshot that is out of date is noticed;
+ * the index is then rebuilt from the table, and only the articles that differ from the
+ * snapshot are tokenized again.  Rows changed by SQL that does not set UPDATED_AT are not
+ * noticed until the next rebuild.
+ */
+
+@Slf4j
+@Service
+public class ArticleSearchIndex {
+
+  static final double K1 = 1.2;
+  static final double B = 0.75;
+  static final int TITLE_WEIGHT = 2;
+
+  private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+
+  /** lowest score first, and of equal scores the higher id, so it is the one dropped from a full page */
+  private static final Comparator<ArticleSearchResult> WORST_FIRST = Comparator
+      .comparingDouble(ArticleSearchResult::getScore)
+      .thenComparing(result -> result.getArticle().getId(), Comparator.reverseOrder());
+
+  /**
+   * An indexed article
+   * @param article the article
+   * @param termFrequencies the (weighted) number of times each term occurs in it
+   * @param length the sum of the term frequencies
+   */
+  record Document(Article article, Map<String, Integer> termFrequencies, int length) {
+  }
+
+  /**
+   * The contents of a snapshot file
+   * @param documents the indexed articles
+   */
+  record Snapshot(List<Document> documents) {
+
+    /** @return the state of the articles table that this snapshot was taken from */
+    ArticleTableState tableState() {
+      Instant lastUpdated = documents.stream().map(document -> document.article().getUpdatedAt())
+          .filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+      return new ArticleTableState(documents.size(), lastUpdated);
+    }
+  }
+
+  private final ArticleRepository articleRepository;
+  private final ObjectMapper mapper;
+
+  @Value("${app.articleSearch.snapshotFile:}")
+  String snapshotFile = "";
+
+  /** held by changes (and while the table is read for them) */
+  private final ReentrantLock writer = new ReentrantLock();
+
+  /** guards the index itself: searches read it, changes swap it */
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** article id to document */
+  private final Map<Long, Document> documents = new HashMap<>();
+
+  /** term to article id to term frequency */
+  private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+  /** sum of the documents' lengths */
+  private long totalLength;
+
+  /** whether the index has changed since the snapshot was written */
+  private final AtomicBoolean changed = new AtomicBoolean();
+
+  public ArticleSearchIndex(ArticleRepository articleRepository, ObjectMapper mapper) {
+    this.articleRepository = articleRepository;
+    this.mapper = mapper;
+  }
+
+  /**
+   * This method fills the index from the snapshot file if it is up to date, and
+   * otherwise from the articles table.
+   */
+  @PostConstruct
+  public void load() {
+    writer.lock();
+    try {
+      Snapshot snapshot = readSnapshot();
+      if (snapshot != null && snapshot.tableState().equals(articleRepository.tableState())) {
+        replace(snapshot.documents());
+        log.info("Loaded the article search index for {} articles from {}", snapshot.documents().size(), snapshotFile);
+        return;
+      }
+      Map<Long, Document> known = snapshot == null ? Map.of() : snapshot.documents().stream()
+          .collect(Collectors.toMap(document -> document.article().getId(), document -> document));
+      int reused = index(known);
+      changed.set(true);
+      log.info("Built the article search index for {} articles ({} unchanged since the snapshot)", documents.size(), reused);
+    } finally {
+      writer.unlock();
+    }
+  }
+
+  /** @return the snapshot file's contents (null if there is none, or it cannot be read) */
+  private Snapshot readSnapshot() {
+    if (snapshotFile.isEmpty() || !Files.exists(Path.of(snapshotFile))) {
+      return null;
+    }
+    try {
+      return mapper.readValue(Path.of(snapshotFile).toFile(), Snapshot.class);
+    } catch (IOException e) {
+      log.warn("Could not read the article search snapshot {}: {}", snapshotFile, e.toString());
+      return null;
+    }
+  }
+
+  /**
+   * This method rebuilds the index from the articles table, e.g. after a bulk import.
+   */
+  public void reload() {
+    writer.lock();
+    try {
+      index(Map.copyOf(documents));
+      changed.set(true);
+      log.info("Rebuilt the article search index for {} articles", documents.size());
+    } finally {
+      writer.unlock();
+    }
+  }
+
+  /**
+   * This method replaces the index with every article in the table; the writer lock must be held.
+   * @param known documents that may be reused, by article id
+   * @return the number of documents reused because their article had not changed
+   */
+  private int index(Map<Long, Document> known) {
+    List<Document> rebuilt = new ArrayList<>();
+    int reused = 0;
+    for (Article article : articleRepository.findAll()) {
+      Document document = known.get(article.getId());
+      if (document != null && document.article().equals(article)) {
+        reused++;
+      } else {
+        document = document(article);
+      }
+      rebuilt.add(document);
+    }
+    replace(rebuilt);
+    return reused;
+  }
+
+  private void replace(List<Document> rebuilt) {
+    lock.writeLock().lock();
+    try {
+      clear();
+      rebuilt.forEach(this::add);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * This method records that an article was created, updated or deleted, by reading it
+   * again and indexing it in place of any earlier version of it.
+   * @param id the id of the article that was written
+   */
+  public void refresh(long id) {
+    writer.lock();
+    try {
+      Document document = articleRepository.findById(Long.toString(id)).map(ArticleSearchIndex::document).orElse(null);
+      lock.writeLock().lock();
+      try {
+        remove(id);
+        if (document != null) {
+          add(document);
+        }
+        changed.set(true);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } finally {
+      writer.unlock();
+    }
+  }
+
+  /**
+   * Find the articles that best match a query
+   * @param query the words to search for; an article matches if it contains any of them
+   * @param limit the maximum number of articles to return
+   * @return up to limit matching articles, most relevant first (ties in id order)
+   */
+  public List<ArticleSearchResult> search(String query, int limit) {
+    Set<String> terms = new LinkedHashSet<>(terms(query));
+    if (limit < 1 || terms.isEmpty()) {
+      return List.of();
+    }
+    PriorityQueue<ArticleSearchResult> best = new PriorityQueue<>(WORST_FIRST);
+    lock.readLock().lock();
+    try {
+      int count = documents.size();
+      double averageLength = (double) totalLength / count;
+      Map<Long, Double> scores = new HashMap<>();
+      for (String term : terms) {
+        Map<Long, Integer> posting = postings.getOrDefault(term, Map.of());
+        double idf = Math.log(1 + (count - posting.size() + 0.5) / (posting.size() + 0.5));
+        posting.forEach((id, frequency) -> {
+          double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+          scores.merge(id, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+        });
+      }
+      scores.forEach((id, score) -> {
+        best.add(new ArticleSearchResult(documents.get(id).article(), score));
+        if (best.size() > limit) {
+          best.poll();
+        }
+      });
+    } finally {
+      lock.readLock().unlock();
+    }
+    List<ArticleSearchResult> results = new ArrayList<>(best);
+    results.sort(WORST_FIRST.reversed());
+    return results;
+  }
+
+  /**
+   * This method writes the snapshot file, if the index has changed since it was last written.
+   * The file is written next to the old one and then moved over it, so a reader sees either
+   * the old snapshot or the new one, never part of one.
+   */
+  @Scheduled(fixedDelayString = "${app.articleSearch.snapshotInterval:PT1M}")
+  @PreDestroy
+  public void writeSnapshot() {
+    if (snapshotFile.isEmpty() || !changed.getAndSet(false)) {
+      return;
+    }
+    Snapshot snapshot;
+    lock.readLock().lock();
+    try {
+      snapshot = new Snapshot(List.copyOf(documents.values()));
+    } finally {
+      lock.readLock().unlock();
+    }
+    Path path = Path.of(snapshotFile).toAbsolutePath();
+    try {
+      Files.createDirectories(path.getParent());
+      Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+      try {
+        mapper.writeValue(temporary.toFile(), snapshot);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+      log.info("Wrote the article search snapshot for {} articles to {}", snapshot.documents().size(), path);
+    } catch (IOException e) {
+      changed.set(true);
+      log.warn("Could not write the article search snapshot {}: {}", path, e.toString());
+    }
+  }
+
+  static List<String> terms(String text) {
+    if (text == null) {
+      return List.of();
+    }
+    return TERM.matcher(text).results().map(match -> match.group().toLowerCase(Locale.ROOT)).toList();
+  }
+
+  static Document document(Article article) {
+    Map<String, Integer> termFrequencies = new HashMap<>();
+    terms(article.getTitle()).forEach(term -> termFrequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+    terms(article.getExplanation()).forEach(term -> termFrequencies.merge(term, 1, Integer::sum));
+    int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+    return new Document(article, Map.copyOf(termFrequencies), length);
+  }
+
+  private void add(Document document) {
+    long id = document.article().getId();
+    documents.put(id, document);
+    document.termFrequencies().forEach((term, frequency) ->
+        postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+    totalLength += document.length();
+  }
+
+  private void remove(long id) {
+    Document document = documents.remove(id);
+    if (document == null) {
+      return;
+    }
+    for (String term : document.termFrequencies().keySet()) {
+      Map<Long, Integer> posting = postings.get(term);
+      posting.remove(id);
+      if (posting.isEmpty()) {
+        postings.remove(term);
+      }
+    }
+    totalLength -= document.length();
+  }
+
+  private void clear() {
+    documents.clear();
+    postings.clear();
+    totalLength = 0;
+  }
+}
@@ -0,0 +1,200 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.errors.InvalidBulkRequestException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.util.Streamable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This is a service that backs the bulk create (POST .../bulk) endpoints.
+ *
+ * The request body is either a JSON array or NDJSON (one JSON object per line).
+ * Every row is read and validated before anything is written; the valid rows are
+ * then saved in chunks of app.bulk.chunkSize, one transaction per chunk, so that
+ * Hibernate can send the inserts as JDBC batches.  A chunk the database rejects
+ * is reported as FAILED without undoing the chunks before it.
+ *
+ * Entities whose id is a natural key sent by the client (e.g. a dining commons code)
+ * are saved with {@link #saveNewRows}: saveAll would merge a row whose key is already
+ * taken, overwriting the stored row, so such rows are reported as INVALID instead.
+ */
+
+@Slf4j
+@Service
+public class BulkImportService {
+
+  @Autowired
+  ObjectMapper mapper;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Value("${app.bulk.chunkSize:500}")
+  private int chunkSize;
+
+  @Value("${app.bulk.maxRows:10000}")
+  private int maxRows;
+
+  /** the ids of a chunk's rows that were already in the table, and the rows that were saved */
+  private record ChunkOutcome<T>(Set<?> existing, List<T> saved) {
+  }
+
+  /**
+   * This method reads the rows of a bulk request body
+   * @param <T> the entity type
+   * @param body a JSON array, or one JSON object per line
+   * @param type the entity class
+   * @return the rows, in input order
+   * @throws IOException if the body cannot be read
+   * @throws InvalidBulkRequestException if a row is not valid JSON or there are more than app.bulk.maxRows rows
+   */
+  public <T> List<T> readRows(InputStream body, Class<T> type) throws IOException {
+    List<T> rows = new ArrayList<>();
+    try (MappingIterator<T> iterator = mapper.readerFor(type).readValues(body)) {
+      while (iterator.hasNextValue()) {
+        if (rows.size() == maxRows) {
+          throw new InvalidBulkRequestException("At most %d rows may be sent in one request".formatted(maxRows));
+        }
+        rows.add(iterator.nextValue());
+      }
+    } catch (JsonProcessingException e) {
+      throw new InvalidBulkRequestException("Row %d could not be read: %s".formatted(rows.size(), e.getOriginalMessage()));
+    }
+    return rows;
+  }
+
+  /**
+   * This method validates and saves the rows of a bulk request
+   * @param <T> the entity type
+   * @param rows the rows, in input order
+   * @param repository the repository to save the rows with
+   * @param validator returns the problems with a row (empty if the row is valid)
+   * @param idOf returns the id of a saved row
+   * @return the result for every row
+   */
+  public <T> BulkResult saveRows(List<T> rows, CrudRepository<T, ?> repository,
+      Function<T, List<String>> validator, Function<T, ?> idOf) {
+    return saveRows(rows, repository, validator, idOf, entities -> Set.of());
+  }
+
+  /**
+   * This method validates and saves the rows of a bulk request for an entity whose id is
+   * a natural key sent by the client.  A row whose key is already in the table, or appears
+   * earlier in the request, is reported as INVALID and not saved.
+   * @param <T> the entity type
+   * @param <ID> the type of the key
+   * @param rows the rows, in input order
+   * @param repository the repository to save the rows with
+   * @param validator returns the problems with a row (empty if the row is valid)
+   * @param keyOf returns the key of a row
+   * @return the result for every row
+   */
+  public <T, ID> BulkResult saveNewRows(List<T> rows, CrudRepository<T, ID> repository,
+      Function<T, List<String>> validator, Function<T, ID> keyOf) {
+    Set<ID> keys = new HashSet<>();
+    Function<T, List<String>> validatorAndRepeats = row -> {
+      List<String> errors = validator.apply(row);
+      if (errors.isEmpty() && !keys.add(keyOf.apply(row))) {
+        return List.of("%s appears more than once in the request".formatted(keyOf.apply(row)));
+      }
+      return errors;
+    };
+    return saveRows(rows, repository, validatorAndRepeats, keyOf,
+        entities -> Streamable.of(repository.findAllById(entities.stream().map(keyOf).toList())).map(keyOf).toSet());
+  }
+
+  /**
+   * This method validates and saves the rows of a bulk request, leaving out rows that are
+   * already in the table.
+   * @param <T> the entity type
+   * @param rows the rows, in input order
+   * @param repository the repository to save the rows with
+   * @param validator returns the problems with a row (empty if the row is valid)
+   * @param idOf returns the id of a row
+   * @param existingIds returns the ids of the given rows that are already in the table
+   *   (read in the chunk's transaction); those rows are not saved
+   * @return the result for every row
+   */
+  private <T> BulkResult saveRows(List<T> rows, CrudRepository<T, ?> repository,
+      Function<T, List<String>> validator, Function<T, ?> idOf, Function<List<T>, Set<?>> existingIds) {
+    BulkRowResult[] results = new BulkRowResult[rows.size()];
+    List<Integer> valid = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      List<String> errors = validator.apply(rows.get(i));
+      if (errors.isEmpty()) {
+        valid.add(i);
+      } else {
+        results[i] = BulkRowResult.builder().index(i).status(BulkRowResult.INVALID).errors(errors).build();
+      }
+    }
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    for (int start = 0; start < valid.size(); start += chunkSize) {
+      List<Integer> chunk = valid.subList(start, Math.min(start + chunkSize, valid.size()));
+      List<T> entities = chunk.stream().map(rows::get).toList();
+      try {
+        ChunkOutcome<T> outcome = transactionTemplate.execute(status -> {
+          Set<?> existing = existingIds.apply(entities);
+          List<T> fresh = entities.stream().filter(entity -> !existing.contains(idOf.apply(entity))).toList();
+          return new ChunkOutcome<>(existing, Streamable.of(repository.saveAll(fresh)).toList());
+        });
+        Iterator<T> saved = outcome.saved().iterator();
+        for (int index : chunk) {
+          Object id = idOf.apply(rows.get(index));
+          results[index] = outcome.existing().contains(id)
+              ? BulkRowResult.builder().index(index).status(BulkRowResult.INVALID)
+                  .errors(List.of("%s already exists".formatted(id))).build()
+              : BulkRowResult.builder().index(index).status(BulkRowResult.CREATED)
+                  .id(idOf.apply(saved.next())).build();
+        }
+      } catch (DataAccessException | TransactionException e) {
+        log.warn("bulk save of rows {}..{} failed", chunk.get(0), chunk.get(chunk.size() - 1), e);
+        List<String> errors = List.of(e.getMostSpecificCause().getMessage());
+        for (int index : chunk) {
+          results[index] = BulkRowResult.builder().index(index).status(BulkRowResult.FAILED).errors(errors).build();
+        }
+      }
+    }
+    return BulkResult.of(Arrays.asList(results));
+  }
+
+  /**
+   * This method lists the required fields of a row that are missing.
+   * @param namesAndValues alternating field names and values, e.g. "name", restaurant.getName()
+   * @return one "... is required" message per null value
+   */
+  public static List<String> missing(Object... namesAndValues) {
+    List<String> errors = new ArrayList<>();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      if (namesAndValues[i + 1] == null) {
+        errors.add("%s is required".formatted(namesAndValues[i]));
+      }
+    }
+    return errors;
+  }
+}
@@ -5,13 +5,10 @@ import edu.ucsb.cs156.example.models.CurrentUser;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -37,8 +34,11 @@ public class CurrentUserServiceImpl extends CurrentUserService {
   @Autowired
   GrantedAuthoritiesService grantedAuthoritiesService;
 
-  @Value("${app.admin.emails}")
-  final private List<String> adminEmails = new ArrayList<String>();
+  @Autowired
+  UserCacheService userCacheService;
+
+  @Autowired
+  AdminStatusService adminStatusService;
 
   /**
    * This method returns the current user as a User object.
@@ -58,6 +58,8 @@ public class CurrentUserServiceImpl extends CurrentUserService {
    * The parameters are automatically injected by Spring.
    * 
    * This method also has a side effect of storing the user in the database if they are not already there.
+   * Resolved users are cached by email (see UserCacheService), so the database is only
+   * consulted the first time a user is seen, or after their cache entry expires.
    * 
    * @param securityContext the security context (provided by Spring)
    * @param authentication the authentication token (provided by Spring)
@@ -66,6 +68,18 @@ public class CurrentUserServiceImpl extends CurrentUserService {
   
   public User getOAuth2AuthenticatedUser(SecurityContext securityContext, Authentication authentication) {
     OAuth2User oAuthUser = ((OAuth2AuthenticationToken) authentication).getPrincipal();
+    String email = oAuthUser.getAttribute("email");
+    return userCacheService.get(email, key -> loadOrCreateUser(oAuthUser));
+  }
+
+  /**
+   * This method looks up the user with the email of the OAuth2 principal, creating
+   * the user in the database if they are not already there.
+   * 
+   * @param oAuthUser the OAuth2 principal
+   * @return the User object representing the principal
+   */
+  private User loadOrCreateUser(OAuth2User oAuthUser) {
     String email = oAuthUser.getAttribute("email");
     String googleSub = oAuthUser.getAttribute("sub");
     String pictureUrl = oAuthUser.getAttribute("picture");
@@ -77,12 +91,12 @@ public class CurrentUserServiceImpl extends CurrentUserService {
     String hostedDomain = oAuthUser.getAttribute("hd");
 
     java.util.Map<java.lang.String,java.lang.Object> attrs = oAuthUser.getAttributes();
-    log.info("attrs={}",attrs);
+    log.debug("attrs={}",attrs);
 
     Optional<User> ou = userRepository.findByEmail(email);
     if (ou.isPresent()) {
       User u = ou.get();
-      if (adminEmails.contains(email) && !u.getAdmin()) {
+      if (adminStatusService.isAdminEmail(email) && !u.getAdmin()) {
         u.setAdmin(true);
         userRepository.save(u);
       }
@@ -99,7 +113,7 @@ public class CurrentUserServiceImpl extends CurrentUserService {
         .emailVerified(emailVerified)
         .locale(locale)
         .hostedDomain(hostedDomain)
-        .admin(adminEmails.contains(email))
+        .admin(adminStatusService.isAdminEmail(email))
         .build();
     userRepository.save(u);
     return u;
@@ -0,0 +1,188 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * This is an immutable spatial index of items that have a latitude and longitude, for
+ * nearest-neighbour and within-radius queries by great-circle distance.
+ *
+ * Each item's position is stored as a point on the unit sphere (x, y, z).  The straight-line
+ * (chord) distance between two such points grows with the great-circle distance between them,
+ * so the points can be kept in an ordinary 3-d tree: a query visits only the branches
+ * that could hold a closer (or in-range) point, instead of computing the distance to every item.
+ * Items without a latitude or longitude are not indexed.
+ *
+ * The tree is stored in a list: the node for the range [lo, hi) is the median element at
+ * (lo + hi) / 2, which splits the range on axis depth % 3.
+ *
+ * @param <T> the type of the indexed items
+ */
+
+public final class GeoIndex<T> {
+
+  /** mean radius of the Earth */
+  public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+  /**
+   * An item found by a query, and its great-circle distance from the query point.
+   * @param <T> the type of the indexed items
+   * @param item the item
+   * @param distanceMeters the distance in meters
+   */
+  public record Neighbor<T>(T item, double distanceMeters) {
+  }
+
+  private record Entry<T>(T item, double[] point) {
+  }
+
+  private record Candidate<T>(Entry<T> entry, double chordSquared) {
+  }
+
+  private static final int DIMENSIONS = 3;
+
+  private final List<Entry<T>> tree;
+
+  private GeoIndex(List<Entry<T>> tree) {
+    this.tree = tree;
+  }
+
+  /**
+   * Build an index
+   * @param <T> the type of the items
+   * @param items the items to index
+   * @param latitude the item's latitude in degrees (or null)
+   * @param longitude the item's longitude in degrees (or null)
+   * @return the index
+   */
+  public static <T> GeoIndex<T> of(Collection<? extends T> items, Function<T, Double> latitude,
+      Function<T, Double> longitude) {
+    List<Entry<T>> entries = new ArrayList<>(items.size());
+    for (T item : items) {
+      Double lat = latitude.apply(item);
+      Double lon = longitude.apply(item);
+      if (lat != null && lon != null) {
+        entries.add(new Entry<>(item, point(lat, lon)));
+      }
+    }
+    build(entries, 0, entries.size(), 0);
+    return new GeoIndex<>(List.copyOf(entries));
+  }
+
+  private static <T> void build(List<Entry<T>> entries, int lo, int hi, int axis) {
+    if (hi - lo < 2) {
+      return;
+    }
+    entries.subList(lo, hi).sort(Comparator.comparingDouble(entry -> entry.point()[axis]));
+    int mid = (lo + hi) >>> 1;
+    build(entries, lo, mid, (axis + 1) % DIMENSIONS);
+    build(entries, mid + 1, hi, (axis + 1) % DIMENSIONS);
+  }
+
+  /**
+   * Find the items nearest to a point
+   * @param latitude latitude of the point in degrees
+   * @param longitude longitude of the point in degrees
+   * @param limit the maximum number of items to return
+   * @param filter only items that pass are returned
+   * @return up to limit matching items, nearest first
+   */
+  public List<Neighbor<T>> nearest(double latitude, double longitude, int limit, Predicate<? super T> filter) {
+    if (limit < 1) {
+      return List.of();
+    }
+    // farthest of the best candidates so far at the head, so it is the one dropped when a nearer one is found
+    PriorityQueue<Candidate<T>> best = new PriorityQueue<>(
+        Comparator.comparingDouble((Candidate<T> candidate) -> candidate.chordSquared()).reversed());
+    nearest(0, tree.size(), 0, point(latitude, longitude), limit, filter, best);
+    return neighbors(new ArrayList<>(best));
+  }
+
+  private void nearest(int lo, int hi, int axis, double[] target, int limit, Predicate<? super T> filter,
+      PriorityQueue<Candidate<T>> best) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    Entry<T> node = tree.get(mid);
+    if (filter.test(node.item())) {
+      best.add(new Candidate<>(node, chordSquared(target, node.point())));
+      if (best.size() > limit) {
+        best.poll();
+      }
+    }
+    double split = target[axis] - node.point()[axis];
+    int next = (axis + 1) % DIMENSIONS;
+    boolean left = split < 0;
+    nearest(left ? lo : mid + 1, left ? mid : hi, next, target, limit, filter, best);
+    if (best.size() < limit || split * split < best.peek().chordSquared()) {
+      nearest(left ? mid + 1 : lo, left ? hi : mid, next, target, limit, filter, best);
+    }
+  }
+
+  /**
+   * Find the items within a distance of a point
+   * @param latitude latitude of the point in degrees
+   * @param longitude longitude of the point in degrees
+   * @param radiusMeters the greatest distance to include
+   * @param filter only items that pass are returned
+   * @return the matching items within radiusMeters, nearest first
+   */
+  public List<Neighbor<T>> within(double latitude, double longitude, double radiusMeters, Predicate<? super T> filter) {
+    double angle = Math.max(0, Math.min(Math.PI, radiusMeters / EARTH_RADIUS_METERS));
+    double chord = 2 * Math.sin(angle / 2);
+    List<Candidate<T>> found = new ArrayList<>();
+    within(0, tree.size(), 0, point(latitude, longitude), chord * chord, filter, found);
+    return neighbors(found);
+  }
+
+  private void within(int lo, int hi, int axis, double[] target, double limitSquared, Predicate<? super T> filter,
+      List<Candidate<T>> found) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    Entry<T> node = tree.get(mid);
+    double chordSquared = chordSquared(target, node.point());
+    if (chordSquared <= limitSquared && filter.test(node.item())) {
+      found.add(new Candidate<>(node, chordSquared));
+    }
+    double split = target[axis] - node.point()[axis];
+    int next = (axis + 1) % DIMENSIONS;
+    if (split < 0 || split * split <= limitSquared) {
+      within(lo, mid, next, target, limitSquared, filter, found);
+    }
+    if (split >= 0 || split * split <= limitSquared) {
+      within(mid + 1, hi, next, target, limitSquared, filter, found);
+    }
+  }
+
+  private static <T> List<Neighbor<T>> neighbors(List<Candidate<T>> candidates) {
+    candidates.sort(Comparator.comparingDouble(Candidate::chordSquared));
+    return candidates.stream()
+        .map(candidate -> new Neighbor<>(candidate.entry().item(), meters(candidate.chordSquared())))
+        .toList();
+  }
+
+  private static double[] point(double latitude, double longitude) {
+    double lat = Math.toRadians(latitude);
+    double lon = Math.toRadians(longitude);
+    return new double[] { Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat) };
+  }
+
+  private static double chordSquared(double[] a, double[] b) {
+    double dx = a[0] - b[0];
+    double dy = a[1] - b[1];
+    double dz = a[2] - b[2];
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  private static double meters(double chordSquared) {
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(chordSquared) / 2));
+  }
+}
@@ -0,0 +1,238 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * This service keeps the queue of unsolved help requests in memory, oldest request first,
+ * and pushes every change to it to the clients subscribed with Server-Sent Events.
+ *
+ * The queue is loaded from the helprequest table at start-up.  The HelpRequestController
+ * reports the id of each help request it writes ({@link #refresh}, or {@link #reload} after a
+ * bulk create), and only that row is read again, so the open queue is served without reading
+ * the table.  Like {@link ReferenceDataCache}, reads just dereference an immutable list, and
+ * writers take turns, holding the lock while they read the table.
+ *
+ * A subscriber is first sent the whole queue (event "queue"), then one event per change:
+ * "saved" with a help request that was added to or changed in the queue, and "removed" with
+ * the id of one that was solved or deleted.  Events are added to each subscriber's outbox
+ * while the lock is held, so each subscriber sees them in the order the changes were made,
+ * and none between its snapshot and its first change.  The outbox is sent on a thread of its
+ * own, so a slow client never holds up a change or the other clients.  An outbox holds at most
+ * app.helpRequestQueue.subscriberBacklog events; a client that falls that far behind has its
+ * stream completed, and its EventSource reconnects and starts again from the whole queue.
+ * A comment is sent every app.helpRequestQueue.heartbeatInterval, so that
+ * idle connections are not closed by proxies and closed ones are noticed.
+ */
+
+@Slf4j
+@Service
+public class HelpRequestQueueService {
+
+  static final Comparator<HelpRequest> QUEUE_ORDER = Comparator
+      .comparing(HelpRequest::getRequestTime, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparingLong(HelpRequest::getId);
+
+  private final HelpRequestRepository helpRequestRepository;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+  /** the unsolved help requests in QUEUE_ORDER; the list cannot be modified */
+  private volatile List<HelpRequest> queue = List.of();
+
+  @Value("${app.helpRequestQueue.subscriberBacklog:256}")
+  private int subscriberBacklog = 256;
+
+  /** runs each subscriber's sends */
+  Executor senders = task -> Thread.ofVirtual().name("help-request-queue-sender").start(task);
+
+  public HelpRequestQueueService(HelpRequestRepository helpRequestRepository) {
+    this.helpRequestRepository = helpRequestRepository;
+  }
+
+  /**
+   * This method replaces the queue with the unsolved help requests in the helprequest
+   * table, and sends the new queue to every subscriber.
+   */
+  @PostConstruct
+  public void reload() {
+    lock.lock();
+    try {
+      List<HelpRequest> open = new ArrayList<>(helpRequestRepository.findBySolvedFalse());
+      open.sort(QUEUE_ORDER);
+      queue = List.copyOf(open);
+      broadcast(() -> SseEmitter.event().name("queue").data(queue));
+      log.info("Loaded {} unsolved help requests into the queue", open.size());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the unsolved help requests, oldest first (the list cannot be modified)
+   */
+  public List<HelpRequest> openRequests() {
+    return queue;
+  }
+
+  /**
+   * This method brings one help request's place in the queue up to date with the
+   * helprequest table, after the request was created, updated or deleted.  The row is read
+   * while the lock is held, so whatever order writers call this in, the queue ends up as the
+   * table is.  An unsolved request joins the queue (or moves, if its request time changed),
+   * and a solved or deleted one leaves it.
+   * @param id the id of the help request that was written
+   */
+  public void refresh(long id) {
+    lock.lock();
+    try {
+      List<HelpRequest> changed = new ArrayList<>(queue);
+      boolean wasQueued = changed.removeIf(queued -> queued.getId() == id);
+      HelpRequest helpRequest = helpRequestRepository.findById(id).orElse(null);
+      if (helpRequest != null && !helpRequest.getSolved()) {
+        int insertionPoint = Collections.binarySearch(changed, helpRequest, QUEUE_ORDER);
+        changed.add(-insertionPoint - 1, helpRequest);
+        queue = List.copyOf(changed);
+        broadcast(() -> SseEmitter.event().name("saved").data(helpRequest));
+      } else if (wasQueued) {
+        queue = List.copyOf(changed);
+        broadcast(() -> SseEmitter.event().name("removed").data(id));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method sends the queue to a new subscriber, and then every change until
+   * the emitter completes, times out, can no longer be written to, or falls too far behind.
+   * @param emitter the emitter of the subscriber's response
+   */
+  public void subscribe(SseEmitter emitter) {
+    Subscriber subscriber = new Subscriber(emitter);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(e -> subscribers.remove(subscriber));
+    lock.lock();
+    try {
+      subscribers.add(subscriber);
+      subscriber.enqueue(SseEmitter.event().name("queue").data(queue));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of clients subscribed to the queue
+   */
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * This method sends a comment to every subscriber, dropping the ones that can no longer be written to.
+   */
+  @Scheduled(fixedDelayString = "${app.helpRequestQueue.heartbeatInterval:PT30S}",
+      initialDelayString = "${app.helpRequestQueue.heartbeatInterval:PT30S}")
+  public void heartbeat() {
+    lock.lock();
+    try {
+      broadcast(() -> SseEmitter.event().comment("heartbeat"));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** an event builder may only be built once, so each subscriber is given a new one */
+  private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+    subscribers.forEach(subscriber -> subscriber.enqueue(event.get()));
+  }
+
+  /**
+   * A subscribed client, and the events waiting to be sent to it.  At most one sender
+   * drains the outbox at a time, so events are sent in the order they were added.  The
+   * outbox is guarded by the subscriber's monitor, which is never held while sending.
+   */
+  private final class Subscriber {
+    private final SseEmitter emitter;
+    private final Deque<SseEmitter.SseEventBuilder> outbox = new ArrayDeque<>();
+    private boolean draining;
+
+    Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+
+    void enqueue(SseEmitter.SseEventBuilder event) {
+      boolean full;
+      boolean startSender = false;
+      synchronized (this) {
+        full = outbox.size() == subscriberBacklog;
+        if (full) {
+          outbox.clear();
+        } else {
+          outbox.add(event);
+          startSender = !draining;
+          draining = true;
+        }
+      }
+      if (full) {
+        log.debug("Dropping help request queue subscriber: more than {} events behind", subscriberBacklog);
+        subscribers.remove(this);
+        emitter.complete();
+      } else if (startSender) {
+        senders.execute(this::drain);
+      }
+    }
+
+    private synchronized SseEmitter.SseEventBuilder next() {
+      SseEmitter.SseEventBuilder event = outbox.poll();
+      if (event == null) {
+        draining = false;
+      }
+      return event;
+    }
+
+    private void drain() {
+      SseEmitter.SseEventBuilder event;
+      while ((event = next()) != null) {
+        if (!send(event)) {
+          return;
+        }
+      }
+    }
+
+    private boolean send(SseEmitter.SseEventBuilder event) {
+      try {
+        emitter.send(event);
+        return true;
+      } catch (IOException | IllegalStateException e) {
+        log.debug("Dropping help request queue subscriber: {}", e.toString());
+        subscribers.remove(this);
+        emitter.completeWithError(e);
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.MenuItemRanking;
+import edu.ucsb.cs156.example.models.RatingStatistics;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * This service keeps the best-rated menu items of each dining commons, so that the
+ * leaderboard can be served without joining menu items to reviews and sorting on every request.
+ *
+ * The leaderboards are recomputed at start-up and then on a schedule
+ * (app.menuItemLeaderboard.refreshInterval).  A refresh reads each menu item once, takes its
+ * rating statistics from the MenuItemRatingsService (kept in memory, so no reviews are read),
+ * and keeps a min-heap of at most app.menuItemLeaderboard.size items per dining commons; so a
+ * refresh takes time linear in the number of menu items and memory bounded by the number of
+ * leaderboard entries.  Items with fewer than app.menuItemLeaderboard.minReviews reviews are
+ * left out, so that a single 5-star review does not top the board.
+ *
+ * Items are ranked by average stars, then by number of reviews, then by id.
+ *
+ * A refresh holds no lock: it builds the new leaderboards from its own reads and publishes them
+ * all at once through a volatile field, so readers never wait on it and it never waits on a
+ * monitor across its JDBC call.  Scheduled refreshes run one at a time (fixed delay); if another
+ * caller's refresh overlapped one, each would still publish a complete set of leaderboards.
+ */
+
+@Slf4j
+@Service
+public class MenuItemLeaderboardService {
+
+  static final Comparator<MenuItemRanking> BEST_FIRST = Comparator
+      .comparingDouble(MenuItemRanking::getAverageStars).reversed()
+      .thenComparing(Comparator.comparingLong(MenuItemRanking::getReviews).reversed())
+      .thenComparingLong(MenuItemRanking::getItemId);
+
+  private final UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  private final MenuItemRatingsService menuItemRatingsService;
+
+  @Value("${app.menuItemLeaderboard.size:10}")
+  int size = 10;
+
+  @Value("${app.menuItemLeaderboard.minReviews:3}")
+  long minReviews = 3;
+
+  /** dining commons code to its leaderboard, best first; the lists cannot be modified */
+  private volatile Map<String, List<MenuItemRanking>> leaderboards = Map.of();
+
+  public MenuItemLeaderboardService(UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository,
+      MenuItemRatingsService menuItemRatingsService) {
+    this.ucsbDiningCommonsMenuItemRepository = ucsbDiningCommonsMenuItemRepository;
+    this.menuItemRatingsService = menuItemRatingsService;
+  }
+
+  /**
+   * This method recomputes the leaderboard of every dining commons and swaps them in.
+   */
+  @PostConstruct
+  @Scheduled(fixedDelayString = "${app.menuItemLeaderboard.refreshInterval:PT1M}",
+      initialDelayString = "${app.menuItemLeaderboard.refreshInterval:PT1M}")
+  public void refresh() {
+    // worst of the kept items at the head, so it is the one dropped when a better item arrives
+    Map<String, PriorityQueue<MenuItemRanking>> heaps = new HashMap<>();
+    for (UCSBDiningCommonsMenuItem item : ucsbDiningCommonsMenuItemRepository.findAll()) {
+      RatingStatistics ratings = menuItemRatingsService.get(item.getId());
+      if (item.getDiningCommonsCode() == null || ratings.getCount() < Math.max(1, minReviews)) {
+        continue;
+      }
+      PriorityQueue<MenuItemRanking> heap = heaps.computeIfAbsent(item.getDiningCommonsCode(),
+          code -> new PriorityQueue<>(BEST_FIRST.reversed()));
+      heap.add(MenuItemRanking.builder()
+          .itemId(item.getId())
+          .name(item.getName())
+          .station(item.getStation())
+          .reviews(ratings.getCount())
+          .averageStars(ratings.getAverage())
+          .build());
+      if (heap.size() > size) {
+        heap.poll();
+      }
+    }
+
+    Map<String, List<MenuItemRanking>> refreshed = new HashMap<>();
+    heaps.forEach((code, heap) -> {
+      List<MenuItemRanking> leaderboard = new ArrayList<>(heap);
+      leaderboard.sort(BEST_FIRST);
+      for (int i = 0; i < leaderboard.size(); i++) {
+        leaderboard.get(i).setRank(i + 1);
+      }
+      refreshed.put(code, List.copyOf(leaderboard));
+    });
+    leaderboards = Map.copyOf(refreshed);
+    log.info("Refreshed menu item leaderboards for {} dining commons", refreshed.size());
+  }
+
+  /**
+   * @param diningCommonsCode the code of the dining commons
+   * @param limit the maximum number of items to return
+   * @return the dining commons' best-rated items, best first (empty if none has enough reviews)
+   */
+  public List<MenuItemRanking> top(String diningCommonsCode, int limit) {
+    List<MenuItemRanking> leaderboard = leaderboards.getOrDefault(diningCommonsCode, List.of());
+    return leaderboard.subList(0, Math.max(0, Math.min(limit, leaderboard.size())));
+  }
+}
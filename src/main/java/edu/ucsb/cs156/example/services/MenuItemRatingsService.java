@@ -0,0 +1,140 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.RatingStatistics;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewsRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * This service keeps the rating statistics of every menu item in memory, so that
+ * they can be read in constant time instead of by averaging all of an item's reviews.
+ *
+ * For each item it holds the number of 1-star, ..., 5-star reviews.  The
+ * MenuItemReviewController makes each write to a review inside {@link #write}, and
+ * reports the review's old and new values ({@link #reviewRemoved},
+ * {@link #reviewAdded}), and the counts are adjusted by one.  Reviews with any other
+ * number of stars are not counted.
+ *
+ * The counts are rebuilt from the menuitemreviews table at start-up, and again on a
+ * schedule (app.menuItemRatings.reconcileCron), which corrects any drift from reviews
+ * written by anything other than the controller.
+ *
+ * Reads never lock.  Writes and rebuilds hold one lock from reading the table until
+ * the counts are changed, so a review can neither be counted by a rebuild and then
+ * again by the write that saved it, nor have its old stars read by two updates at
+ * once.  It is a ReentrantLock rather than synchronized because the lock is held
+ * across JDBC calls on request threads, and a virtual thread that blocks inside
+ * synchronized pins its carrier thread.
+ */
+
+@Slf4j
+@Service
+public class MenuItemRatingsService {
+
+  private static final int MAX_STARS = 5;
+
+  private final MenuItemReviewsRepository menuItemReviewsRepository;
+
+  /** item id to star counts; an array is never changed once it is in the map */
+  private volatile Map<Long, long[]> starCountsByItem = new ConcurrentHashMap<>();
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public MenuItemRatingsService(MenuItemReviewsRepository menuItemReviewsRepository) {
+    this.menuItemReviewsRepository = menuItemReviewsRepository;
+  }
+
+  /**
+   * This method replaces all counts with counts taken from the menuitemreviews table,
+   * and logs how many items' counts had drifted from the table.
+   */
+  @PostConstruct
+  @Scheduled(cron = "${app.menuItemRatings.reconcileCron:0 0 4 * * *}")
+  public void rebuild() {
+    lock.lock();
+    try {
+      ConcurrentHashMap<Long, long[]> rebuilt = new ConcurrentHashMap<>();
+      for (MenuItemReviewsRepository.StarCount row : menuItemReviewsRepository.countReviewsByItemIdAndStars()) {
+        rebuilt.computeIfAbsent(row.getItemId(), itemId -> new long[MAX_STARS])[row.getStars() - 1] = row.getReviews();
+      }
+      long drifted = rebuilt.entrySet().stream()
+          .filter(entry -> !Arrays.equals(entry.getValue(), starCountsByItem.get(entry.getKey())))
+          .count()
+          + starCountsByItem.keySet().stream().filter(itemId -> !rebuilt.containsKey(itemId)).count();
+      starCountsByItem = rebuilt;
+      log.info("Rebuilt rating statistics for {} menu items ({} had drifted)", rebuilt.size(), drifted);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method runs a write to the menuitemreviews table, which reads the review,
+   * saves or deletes it, and then reports it with {@link #reviewRemoved} and
+   * {@link #reviewAdded}, while no rebuild or other write is running.
+   * @param <T> the type of the write's result
+   * @param write the write
+   * @return the write's result
+   */
+  public <T> T write(Supplier<T> write) {
+    lock.lock();
+    try {
+      return write.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @param itemId the id of the menu item
+   * @return the item's rating statistics (all zero if it has no reviews)
+   */
+  public RatingStatistics get(long itemId) {
+    return RatingStatistics.of(itemId, starCountsByItem.getOrDefault(itemId, new long[MAX_STARS]));
+  }
+
+  /**
+   * This method records that a review was saved.
+   * @param itemId the id of the reviewed item
+   * @param stars the review's number of stars
+   */
+  public void reviewAdded(long itemId, int stars) {
+    adjust(itemId, stars, 1);
+  }
+
+  /**
+   * This method records that a review was deleted (or, for an update, that its old
+   * values no longer count).
+   * @param itemId the id of the reviewed item
+   * @param stars the review's number of stars
+   */
+  public void reviewRemoved(long itemId, int stars) {
+    adjust(itemId, stars, -1);
+  }
+
+  private void adjust(long itemId, int stars, long delta) {
+    if (stars < 1 || stars > MAX_STARS) {
+      return;
+    }
+    lock.lock();
+    try {
+      starCountsByItem.compute(itemId, (id, starCounts) -> {
+        long[] adjusted = starCounts == null ? new long[MAX_STARS] : starCounts.clone();
+        adjusted[stars - 1] = Math.max(0, adjusted[stars - 1] + delta);
+        return Arrays.stream(adjusted).allMatch(count -> count == 0) ? null : adjusted;
+      });
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This service keeps the open (not done) recommendation requests in memory, sorted by
+ * dateNeeded, so that the overdue and soon-due requests are found without reading the table,
+ * and publishes a {@link RecommendationRequestDueEvent} when each one falls due.
+ *
+ * The requests are held in a skip list keyed by (dateNeeded, id): the overdue requests are its
+ * head map and the requests due in the next N days a sub map, each found in O(log n) plus the
+ * size of the answer.  Requests without a dateNeeded are not held.  The skip list is loaded
+ * from the open rows at start-up, and the RecommendationRequestController reports the id of
+ * each request it writes ({@link #refresh}, or {@link #reload} after a bulk create), and only
+ * that row is read again.
+ *
+ * Reads never lock.  Changes take turns, holding the lock while they read the table, so
+ * whatever order writers report in, each request is held as it was last committed.  It is a
+ * ReentrantLock rather than synchronized because the lock is held across JDBC calls on request
+ * threads, and a virtual thread that blocks inside synchronized pins its carrier thread.
+ *
+ * Every app.recommendationRequestDueDates.tickInterval, {@link #tick} publishes an event for each
+ * request that fell due since the previous tick, so events are at most one interval late.
+ * The first tick, at start-up, publishes nothing: requests that were already overdue get no event.
+ */
+
+@Slf4j
+@Service
+public class RecommendationRequestDueDates {
+
+  private record DueKey(LocalDateTime dateNeeded, long id) implements Comparable<DueKey> {
+    private static final Comparator<DueKey> ORDER = Comparator.comparing(DueKey::dateNeeded)
+        .thenComparingLong(DueKey::id);
+
+    @Override
+    public int compareTo(DueKey other) {
+      return ORDER.compare(this, other);
+    }
+  }
+
+  private final RecommendationRequestRepository recommendationRequestRepository;
+
+  private final ApplicationEventPublisher applicationEventPublisher;
+
+  Clock clock = Clock.systemDefaultZone();
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private volatile ConcurrentSkipListMap<DueKey, RecommendationRequest> byDueDate = new ConcurrentSkipListMap<>();
+
+  /** the key of each request in byDueDate, by id; only used while holding the lock */
+  private Map<Long, DueKey> keys = new HashMap<>();
+
+  /** events have been published for the requests due at or before this time (null before the first tick) */
+  private LocalDateTime publishedThrough;
+
+  public RecommendationRequestDueDates(RecommendationRequestRepository recommendationRequestRepository,
+      ApplicationEventPublisher applicationEventPublisher) {
+    this.recommendationRequestRepository = recommendationRequestRepository;
+    this.applicationEventPublisher = applicationEventPublisher;
+  }
+
+  /**
+   * This method replaces the requests held with the open requests in the recommendationrequest table.
+   */
+  @PostConstruct
+  public void reload() {
+    lock.lock();
+    try {
+      ConcurrentSkipListMap<DueKey, RecommendationRequest> loaded = new ConcurrentSkipListMap<>();
+      Map<Long, DueKey> loadedKeys = new HashMap<>();
+      for (RecommendationRequest request : recommendationRequestRepository.findByDoneFalse()) {
+        if (request.getDateNeeded() != null) {
+          DueKey key = new DueKey(request.getDateNeeded(), request.getId());
+          loaded.put(key, request);
+          loadedKeys.put(request.getId(), key);
+        }
+      }
+      byDueDate = loaded;
+      keys = loadedKeys;
+      log.info("Loaded {} open recommendation requests by due date", loaded.size());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method brings one recommendation request up to date with the recommendationrequest
+   * table, after it was created, updated or deleted: it is held if it is open and has a
+   * dateNeeded, and dropped otherwise.
+   * @param id the id of the request that was written
+   */
+  public void refresh(long id) {
+    lock.lock();
+    try {
+      DueKey previous = keys.remove(id);
+      if (previous != null) {
+        byDueDate.remove(previous);
+      }
+      recommendationRequestRepository.findById(id)
+          .filter(request -> !request.getDone() && request.getDateNeeded() != null)
+          .ifPresent(request -> {
+            DueKey key = new DueKey(request.getDateNeeded(), id);
+            byDueDate.put(key, request);
+            keys.put(id, key);
+          });
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the open requests whose dateNeeded has passed, earliest first
+   */
+  public List<RecommendationRequest> overdue() {
+    return List.copyOf(byDueDate.headMap(new DueKey(LocalDateTime.now(clock), Long.MIN_VALUE)).values());
+  }
+
+  /**
+   * @param window how far ahead to look
+   * @return the open requests due from now until now + window (inclusive), earliest first
+   */
+  public List<RecommendationRequest> dueWithin(Duration window) {
+    LocalDateTime now = LocalDateTime.now(clock);
+    return List.copyOf(byDueDate.subMap(new DueKey(now, Long.MIN_VALUE), true,
+        new DueKey(now.plus(window), Long.MAX_VALUE), true).values());
+  }
+
+  /**
+   * This method publishes a RecommendationRequestDueEvent for each open request that fell due
+   * since the previous tick (the first tick only starts the count).  The events are published after the lock is released, so
+   * listeners may report changes back to this service.
+   */
+  @Scheduled(fixedDelayString = "${app.recommendationRequestDueDates.tickInterval:PT1M}")
+  public void tick() {
+    List<RecommendationRequest> due = List.of();
+    lock.lock();
+    try {
+      LocalDateTime now = LocalDateTime.now(clock);
+      // (if the clock was set back, wait for it to catch up rather than publish events again)
+      if (publishedThrough == null) {
+        publishedThrough = now;
+      } else if (!now.isBefore(publishedThrough)) {
+        due = List.copyOf(byDueDate.subMap(new DueKey(publishedThrough, Long.MAX_VALUE), false,
+            new DueKey(now, Long.MAX_VALUE), true).values());
+        publishedThrough = now;
+      }
+    } finally {
+      lock.unlock();
+    }
+    due.forEach(request -> applicationEventPublisher.publishEvent(new RecommendationRequestDueEvent(request)));
+    if (!due.isEmpty()) {
+      log.info("{} recommendation requests fell due", due.size());
+    }
+  }
+}
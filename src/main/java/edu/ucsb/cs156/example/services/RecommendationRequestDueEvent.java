@@ -0,0 +1,13 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+
+/**
+ * This is the application event published by {@link RecommendationRequestDueDates} when an
+ * open recommendation request reaches its dateNeeded.  Handle it with an @EventListener
+ * method (e.g. to send a reminder).
+ *
+ * @param recommendationRequest the request that is now due
+ */
+public record RecommendationRequestDueEvent(RecommendationRequest recommendationRequest) {
+}
@@ -0,0 +1,114 @@
+package edu.ucsb.cs156.example.services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * This is the base class for in-memory caches of small, read-mostly tables.
+ *
+ * The whole table is held in an immutable snapshot (a list in table order plus a map by id)
+ * that is loaded at start-up.  Reads just dereference the current snapshot, so they never
+ * lock and never see a half-applied change.  Controllers report each row they write to
+ * the database ({@link #refresh}, or {@link #reload} after a bulk create); the row is read
+ * again while the lock is held, and a new snapshot with it is swapped in.  Because the row
+ * is read under the lock rather than passed in, two writes to the same row that reach the
+ * cache in the other order than they were committed still leave the cache as the table is.
+ * Only writers take the lock.  It is a ReentrantLock rather than synchronized, because the
+ * reads block on the database and a virtual thread blocked inside synchronized pins its carrier.
+ *
+ * Rows changed in the database by anything other than the controllers are not seen
+ * until the next reload.
+ *
+ * @param <T> the entity type
+ * @param <ID> the type of the entity's id
+ */
+
+@Slf4j
+public abstract class ReferenceDataCache<T, ID> {
+
+  private record Snapshot<T, ID>(List<T> all, Map<ID, T> byId) {
+  }
+
+  private final CrudRepository<T, ID> repository;
+
+  private final Function<T, ID> idOf;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private volatile Snapshot<T, ID> snapshot = new Snapshot<>(List.of(), Map.of());
+
+  protected ReferenceDataCache(CrudRepository<T, ID> repository, Function<T, ID> idOf) {
+    this.repository = repository;
+    this.idOf = idOf;
+  }
+
+  /**
+   * This method replaces the snapshot with the current contents of the table.  It is
+   * called at start-up, so the cache is warm before the first request.
+   */
+  @PostConstruct
+  public void reload() {
+    lock.lock();
+    try {
+      LinkedHashMap<ID, T> rows = new LinkedHashMap<>();
+      repository.findAll().forEach(row -> rows.put(idOf.apply(row), row));
+      swap(rows);
+      log.info("Loaded {} rows into {}", rows.size(), getClass().getSimpleName());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return all rows, in table order (the list cannot be modified)
+   */
+  public List<T> findAll() {
+    return snapshot.all();
+  }
+
+  /**
+   * @param id the id to look up
+   * @return the row with that id, if there is one
+   */
+  public Optional<T> findById(ID id) {
+    return Optional.ofNullable(snapshot.byId().get(id));
+  }
+
+  /**
+   * This method records that a row was inserted, updated or deleted, by reading it again.
+   * @param id the id of the row that was written
+   */
+  public void refresh(ID id) {
+    lock.lock();
+    try {
+      LinkedHashMap<ID, T> rows = new LinkedHashMap<>(snapshot.byId());
+      repository.findById(id).ifPresentOrElse(row -> rows.put(id, row), () -> rows.remove(id));
+      swap(rows);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void swap(LinkedHashMap<ID, T> rows) {
+    snapshot = new Snapshot<>(List.copyOf(rows.values()), Collections.unmodifiableMap(rows));
+    snapshotChanged(snapshot.all());
+  }
+
+  /**
+   * This method is called, while the lock is held, each time a new snapshot is swapped in,
+   * so that a subclass can rebuild anything it derives from the rows.  It does nothing by default.
+   * @param all all rows, in table order
+   */
+  protected void snapshotChanged(List<T> all) {
+  }
+}
@@ -0,0 +1,47 @@
+package edu.ucsb.cs156.example.services;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is a service that keeps a version counter for each table of reference data,
+ * from which the controllers derive the ETag of their /all responses.
+ *
+ * Controllers call {@link #bump(Class)} after every change they make to a table,
+ * and read {@link #etag(Class)} before querying it; a client whose If-None-Match
+ * matches the current ETag therefore already has the current contents.  The ETag
+ * also includes the time this instance started, so that tags handed out before a
+ * restart never match afterwards.
+ */
+
+@Service
+public class TableVersionService {
+
+  private final String startTime = Long.toString(System.currentTimeMillis(), 36);
+
+  private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+  /**
+   * This method returns the current ETag (without quotes) for a table.
+   * @param entityType the entity class stored in the table, e.g. UCSBDate.class
+   * @return the current ETag for the table
+   */
+  public String etag(Class<?> entityType) {
+    return entityType.getSimpleName() + "-" + startTime + "-" + version(entityType).get();
+  }
+
+  /**
+   * This method records that a table has changed, so that its ETag changes.
+   * @param entityType the entity class stored in the table
+   */
+  public void bump(Class<?> entityType) {
+    version(entityType).incrementAndGet();
+  }
+
+  private AtomicLong version(Class<?> entityType) {
+    return versions.computeIfAbsent(entityType, type -> new AtomicLong());
+  }
+}
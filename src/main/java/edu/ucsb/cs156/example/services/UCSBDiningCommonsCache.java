@@ -0,0 +1,55 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * This is a service that holds the UCSBDiningCommons table in memory, keyed by code
+ * (see {@link ReferenceDataCache}), plus a spatial index of the commons' locations
+ * (see {@link GeoIndex}) that is rebuilt whenever the table changes.
+ */
+
+@Service
+public class UCSBDiningCommonsCache extends ReferenceDataCache<UCSBDiningCommons, String> {
+
+  private volatile GeoIndex<UCSBDiningCommons> geoIndex = GeoIndex.of(List.of(), UCSBDiningCommons::getLatitude,
+      UCSBDiningCommons::getLongitude);
+
+  public UCSBDiningCommonsCache(UCSBDiningCommonsRepository ucsbDiningCommonsRepository) {
+    super(ucsbDiningCommonsRepository, UCSBDiningCommons::getCode);
+  }
+
+  @Override
+  protected void snapshotChanged(List<UCSBDiningCommons> all) {
+    geoIndex = GeoIndex.of(all, UCSBDiningCommons::getLatitude, UCSBDiningCommons::getLongitude);
+  }
+
+  /**
+   * @param latitude latitude in degrees
+   * @param longitude longitude in degrees
+   * @param limit the maximum number of commons to return
+   * @param filter only commons that pass are returned
+   * @return the nearest matching commons (that have a location), nearest first
+   */
+  public List<GeoIndex.Neighbor<UCSBDiningCommons>> nearest(double latitude, double longitude, int limit,
+      Predicate<UCSBDiningCommons> filter) {
+    return geoIndex.nearest(latitude, longitude, limit, filter);
+  }
+
+  /**
+   * @param latitude latitude in degrees
+   * @param longitude longitude in degrees
+   * @param radiusMeters the greatest distance to include
+   * @param filter only commons that pass are returned
+   * @return the matching commons within radiusMeters, nearest first
+   */
+  public List<GeoIndex.Neighbor<UCSBDiningCommons>> within(double latitude, double longitude, double radiusMeters,
+      Predicate<UCSBDiningCommons> filter) {
+    return geoIndex.within(latitude, longitude, radiusMeters, filter);
+  }
+}
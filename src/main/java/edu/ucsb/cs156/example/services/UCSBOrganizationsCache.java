@@ -0,0 +1,19 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBOrganizations;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationsRepository;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that holds the UCSBOrganizations table in memory, keyed by orgCode
+ * (see {@link ReferenceDataCache}).
+ */
+
+@Service
+public class UCSBOrganizationsCache extends ReferenceDataCache<UCSBOrganizations, String> {
+
+  public UCSBOrganizationsCache(UCSBOrganizationsRepository ucsbOrganizationsRepository) {
+    super(ucsbOrganizationsRepository, UCSBOrganizations::getOrgCode);
+  }
+}
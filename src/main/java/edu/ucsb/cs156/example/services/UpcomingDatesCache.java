@@ -0,0 +1,141 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This service holds the UCSB dates of the current and next quarter in memory, sorted by
+ * time, so that "what is coming up" is answered without a query.
+ *
+ * The dates are kept in a NavigableMap from time to the dates at that time: the dates
+ * after a moment are its tail map, found in O(log n).  The map is an immutable snapshot
+ * that readers just dereference.  It is loaded from the two quarters' rows at start-up,
+ * after a bulk import, and at midnight (so it moves on when a new quarter starts).  For
+ * each date the UCSBDatesController writes, only that row is read again ({@link #refresh})
+ * and moved in a copy of the map.  Changes are serialized with a ReentrantLock, held while
+ * the rows are read, so that the last change to a date to take it also read its latest
+ * version; it is not synchronized, because a virtual thread blocked inside synchronized
+ * pins its carrier.
+ *
+ * Quarters are taken from the calendar: winter (1) is January to March, spring (2) April to
+ * June, summer (3) July to September and fall (4) October to December.
+ */
+
+@Slf4j
+@Service
+public class UpcomingDatesCache {
+
+  private final UCSBDateRepository ucsbDateRepository;
+
+  Clock clock = Clock.systemDefaultZone();
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** the quarters whose dates are held, as of the last reload */
+  private Set<String> quarters = Set.of();
+
+  private volatile NavigableMap<LocalDateTime, List<UCSBDate>> datesByTime = Collections.emptyNavigableMap();
+
+  public UpcomingDatesCache(UCSBDateRepository ucsbDateRepository) {
+    this.ucsbDateRepository = ucsbDateRepository;
+  }
+
+  /**
+   * @param date a date
+   * @return the quarter the date is in, in the format YYYYQ
+   */
+  public static String quarterOf(LocalDate date) {
+    return "%04d%d".formatted(date.getYear(), (date.getMonthValue() - 1) / 3 + 1);
+  }
+
+  /**
+   * @param quarterYYYYQ a quarter in the format YYYYQ
+   * @return the quarter after it (fall is followed by the next year's winter)
+   */
+  public static String nextQuarter(String quarterYYYYQ) {
+    int year = Integer.parseInt(quarterYYYYQ.substring(0, 4));
+    int quarter = Integer.parseInt(quarterYYYYQ.substring(4));
+    return quarter == 4 ? "%04d1".formatted(year + 1) : "%04d%d".formatted(year, quarter + 1);
+  }
+
+  /**
+   * This method replaces the snapshot with the dates of the current and next quarter.
+   */
+  @PostConstruct
+  @Scheduled(cron = "${app.upcomingDates.reloadCron:0 0 0 * * *}")
+  public void reload() {
+    lock.lock();
+    try {
+      String current = quarterOf(LocalDate.now(clock));
+      quarters = Set.of(current, nextQuarter(current));
+      TreeMap<LocalDateTime, List<UCSBDate>> rebuilt = new TreeMap<>();
+      for (String quarter : quarters) {
+        ucsbDateRepository.findAllByQuarterYYYYQ(quarter).forEach(date -> add(rebuilt, date));
+      }
+      datesByTime = Collections.unmodifiableNavigableMap(rebuilt);
+      log.info("Loaded {} upcoming dates for quarters {} and {}",
+          rebuilt.values().stream().mapToInt(List::size).sum(), current, nextQuarter(current));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method records that a date was created, updated or deleted, by reading it again
+   * and putting it in place of any earlier version of it.
+   * @param id the id of the date that was written
+   */
+  public void refresh(long id) {
+    lock.lock();
+    try {
+      TreeMap<LocalDateTime, List<UCSBDate>> changed = new TreeMap<>(datesByTime);
+      changed.replaceAll((time, dates) -> dates.stream().filter(date -> date.getId() != id).toList());
+      changed.values().removeIf(List::isEmpty);
+      ucsbDateRepository.findById(id).ifPresent(date -> add(changed, date));
+      datesByTime = Collections.unmodifiableNavigableMap(changed);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** adds a date to the map if it has a time and is in one of the quarters held, keeping each time's dates in id order */
+  private void add(TreeMap<LocalDateTime, List<UCSBDate>> map, UCSBDate date) {
+    if (date.getLocalDateTime() == null || !quarters.contains(date.getQuarterYYYYQ())) {
+      return;
+    }
+    List<UCSBDate> dates = new ArrayList<>(map.getOrDefault(date.getLocalDateTime(), List.of()));
+    dates.add(date);
+    dates.sort(Comparator.comparingLong(UCSBDate::getId));
+    map.put(date.getLocalDateTime(), List.copyOf(dates));
+  }
+
+  /**
+   * @param limit the maximum number of dates to return
+   * @return the dates of the current and next quarter from now on, earliest first
+   */
+  public List<UCSBDate> upcoming(int limit) {
+    return datesByTime.tailMap(LocalDateTime.now(clock), true).values().stream()
+        .flatMap(Collection::stream)
+        .limit(Math.max(0, limit))
+        .toList();
+  }
+}
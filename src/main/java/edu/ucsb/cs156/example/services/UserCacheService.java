@@ -0,0 +1,87 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.CacheStatistics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * This is a service that caches resolved User entities by email address,
+ * so that looking up the current user does not cost a database round-trip on every request.
+ *
+ * The cache is bounded in size, and entries expire a fixed time after they are written,
+ * so a change made directly in the database is picked up within that time.  Admins can
+ * evict one user, or everyone, sooner through DELETE /api/admin/users/cache; clearing
+ * the admin status cache (DELETE /api/admin/users/adminCache) evicts the same users here.
+ */
+
+@Slf4j
+@Service("userCache")
+public class UserCacheService {
+
+  @Value("${app.userCache.maximumSize:10000}")
+  private long maximumSize;
+
+  @Value("${app.userCache.expireAfterWriteSeconds:300}")
+  private long expireAfterWriteSeconds;
+
+  private Cache<String, User> users;
+
+  /**
+   * Build the cache once the property values have been injected.
+   */
+  @PostConstruct
+  public void init() {
+    users = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * This method returns the cached user with the given email, calling the loader on a miss.
+   * If the loader returns null, nothing is cached.
+   * @param email email address of the user
+   * @param loader function that resolves the user from the database
+   * @return the user
+   */
+  public User get(String email, Function<String, User> loader) {
+    return users.get(email, loader);
+  }
+
+  /**
+   * This method removes a single user from the cache, e.g. after their row or admin status
+   * has changed, so that the next lookup reads them from the database again.
+   * @param email email address of the user
+   */
+  public void invalidate(String email) {
+    users.invalidate(email);
+  }
+
+  /**
+   * This method removes all users from the cache.
+   */
+  public void invalidateAll() {
+    log.info("invalidating user cache");
+    users.invalidateAll();
+  }
+
+  /**
+   * This method returns the hit/miss statistics of the cache.
+   * @return the statistics
+   */
+  public CacheStatistics getStatistics() {
+    return CacheStatistics.of(users);
+  }
+}
@@ -0,0 +1,113 @@
+package edu.ucsb.cs156.example.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * This is a service that reports virtual threads pinned to their carrier thread.
+ *
+ * On Java 21 a virtual thread that blocks inside a {@code synchronized} block (or a native
+ * method) cannot unmount, so it holds on to one of the few carrier threads; if the JDBC
+ * driver or Hibernate does this on a hot path, request handling on virtual threads degrades
+ * to a handful of platform threads.  The JDK records each such episode longer than the threshold
+ * as a {@code jdk.VirtualThreadPinned} JFR event; this service streams those events, counts them
+ * in the {@code jvm.threads.virtual.pinned} counter, and logs a warning with the stack the
+ * first time each distinct location pins.
+ *
+ * Only active when app.virtualThreads.pinningMonitor.enabled is true (by default, whenever
+ * spring.threads.virtual.enabled is).
+ */
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.virtualThreads.pinningMonitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+  static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private static final int MAX_FRAMES = 12;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Value("${app.virtualThreads.pinningThresholdMillis:20}")
+  private long thresholdMillis;
+
+  private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+
+  private Counter pinned;
+
+  private RecordingStream stream;
+
+  /**
+   * Start streaming pinned-thread events in the background.
+   */
+  @PostConstruct
+  public void start() {
+    pinned = Counter.builder("jvm.threads.virtual.pinned")
+        .description("Virtual threads pinned to their carrier for longer than app.virtualThreads.pinningThresholdMillis")
+        .register(meterRegistry);
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+  }
+
+  @PreDestroy
+  public void stop() {
+    stream.close();
+  }
+
+  void onPinned(RecordedEvent event) {
+    pinned.increment();
+    String location = describe(event.getStackTrace());
+    if (reportedLocations.add(location)) {
+      log.warn("Virtual thread pinned to its carrier for {} ms at:{}", event.getDuration().toMillis(), location);
+    }
+  }
+
+  /**
+   * The top frames of a stack trace, one per line, or "(no stack trace)".
+   * @param stackTrace stack trace recorded with the event, may be null
+   * @return printable location of the pinning
+   */
+  static String describe(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return " (no stack trace)";
+    }
+    return stackTrace.getFrames().stream()
+        .limit(MAX_FRAMES)
+        .map(VirtualThreadPinningMonitor::describe)
+        .collect(Collectors.joining());
+  }
+
+  private static String describe(RecordedFrame frame) {
+    return "%n\tat %s.%s(line %d)".formatted(frame.getMethod().getType().getName(), frame.getMethod().getName(),
+        frame.getLineNumber());
+  }
+
+  /**
+   * @return number of pinning events seen since start-up
+   */
+  public long getPinnedCount() {
+    return (long) pinned.count();
+  }
+}
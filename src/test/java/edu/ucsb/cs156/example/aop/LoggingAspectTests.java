@@ -0,0 +1,129 @@
+package edu.ucsb.cs156.example.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+class LoggingAspectTests {
+
+  private final Logger logger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+
+  private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+
+  private final LoggingAspect loggingAspect = new LoggingAspect();
+
+  @BeforeEach
+  void captureLog() {
+    logged.start();
+    logger.addAppender(logged);
+    logger.setAdditive(false);
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/ucsbdates/all")));
+  }
+
+  @AfterEach
+  void releaseLog() {
+    logger.detachAppender(logged);
+    logger.setAdditive(true);
+    logger.setLevel(null);
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private static JoinPoint handler(String declaringTypeName, String name) throws NoSuchMethodException {
+    Method method = LoggingAspectTests.class.getDeclaredMethod("handler", String.class, String.class);
+    MethodSignature signature = mock(MethodSignature.class);
+    when(signature.getMethod()).thenReturn(method);
+    when(signature.getDeclaringTypeName()).thenReturn(declaringTypeName);
+    when(signature.getName()).thenReturn(name);
+    JoinPoint joinPoint = mock(JoinPoint.class);
+    when(joinPoint.getSignature()).thenReturn(signature);
+    return joinPoint;
+  }
+
+  private List<String> messages() {
+    return logged.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+  }
+
+  @Test
+  void every_request_is_logged_by_default() throws Exception {
+    JoinPoint joinPoint = handler("edu.ucsb.cs156.example.controllers.UCSBDatesController", "allUCSBDates");
+
+    loggingAspect.logControllers(joinPoint);
+    loggingAspect.logControllers(joinPoint);
+
+    assertEquals(List.of(
+        "===== GET /api/ucsbdates/all handled by allUCSBDates in edu.ucsb.cs156.example.controllers.UCSBDatesController",
+        "===== GET /api/ucsbdates/all handled by allUCSBDates in edu.ucsb.cs156.example.controllers.UCSBDatesController"),
+        messages());
+  }
+
+  @Test
+  void handlers_on_the_stoplist_are_not_logged() throws Exception {
+    loggingAspect.logControllers(handler("edu.ucsb.cs156.example.controllers.FrontendProxyController", "proxy"));
+
+    assertEquals(List.of(), messages());
+  }
+
+  @Test
+  void a_sample_rate_of_zero_logs_nothing() throws Exception {
+    loggingAspect.sampleRate = 0.0;
+    JoinPoint joinPoint = handler("edu.ucsb.cs156.example.controllers.UCSBDatesController", "allUCSBDates");
+
+    for (int i = 0; i < 100; i++) {
+      loggingAspect.logControllers(joinPoint);
+    }
+
+    assertEquals(List.of(), messages());
+  }
+
+  @Test
+  void a_sample_rate_logs_about_that_fraction_of_requests() throws Exception {
+    loggingAspect.sampleRate = 0.25;
+    JoinPoint joinPoint = handler("edu.ucsb.cs156.example.controllers.UCSBDatesController", "allUCSBDates");
+
+    for (int i = 0; i < 4000; i++) {
+      loggingAspect.logControllers(joinPoint);
+    }
+
+    // 1000 expected; the standard deviation is about 27
+    int count = messages().size();
+    assertTrue(count > 800 && count < 1200, "logged " + count + " of 4000");
+  }
+
+  @Test
+  void nothing_is_logged_when_info_is_off() throws Exception {
+    logger.setLevel(Level.WARN);
+
+    loggingAspect.logControllers(handler("edu.ucsb.cs156.example.controllers.UCSBDatesController", "allUCSBDates"));
+
+    assertEquals(List.of(), messages());
+  }
+
+  @Test
+  void nothing_is_logged_outside_a_request() throws Exception {
+    RequestContextHolder.resetRequestAttributes();
+
+    loggingAspect.logControllers(handler("edu.ucsb.cs156.example.controllers.UCSBDatesController", "allUCSBDates"));
+
+    assertEquals(List.of(), messages());
+  }
+}
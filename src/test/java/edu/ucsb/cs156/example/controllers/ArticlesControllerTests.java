@@ -5,9 +5,15 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Article;
 import edu.ucsb.cs156.example.repositories.ArticleRepository;
+import edu.ucsb.cs156.example.services.ArticleSearchIndex;
+import edu.ucsb.cs156.example.models.ArticleSearchResult;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -16,6 +22,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,6 +49,9 @@ public class ArticlesControllerTests extends ControllerTestCase{
     @MockBean
     UserRepository userRepository;
 
+    @MockBean
+    ArticleSearchIndex articleSearchIndex;
+
     // Authorization tests for /api/ucsbdates/admin/all
 
     @Test
@@ -194,6 +204,7 @@ public class ArticlesControllerTests extends ControllerTestCase{
 
             // assert
             verify(articleRepository, times(1)).save(article1);
+            verify(articleSearchIndex, times(1)).refresh(article1.getId());
             String expectedJson = mapper.writeValueAsString(article1);
             String responseString = response.getResponse().getContentAsString();
             assertEquals(expectedJson, responseString);
@@ -208,6 +219,7 @@ public class ArticlesControllerTests extends ControllerTestCase{
             LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
 
             Article article1 = Article.builder()
+                            .id(15L)
                             .title("TestTitle")
                             .url("testUrl")
                             .explanation("testExplanation")
@@ -226,6 +238,7 @@ public class ArticlesControllerTests extends ControllerTestCase{
             // assert
             verify(articleRepository, times(1)).findById("15");
             verify(articleRepository, times(1)).delete(any());
+            verify(articleSearchIndex, times(1)).refresh(15L);
 
             Map<String, Object> json = responseToJson(response);
             assertEquals("Article with id 15 deleted", json.get("message"));
@@ -295,6 +308,7 @@ public class ArticlesControllerTests extends ControllerTestCase{
             // assert
             verify(articleRepository, times(1)).findById("67");
             verify(articleRepository, times(1)).save(articleEdited); // should be saved with correct user
+            verify(articleSearchIndex, times(1)).refresh(articleEdited.getId());
             String responseString = response.getResponse().getContentAsString();
             assertEquals(requestBody, responseString);
     }
@@ -335,5 +349,174 @@ public class ArticlesControllerTests extends ControllerTestCase{
             assertEquals("Article with id 67 not found", json.get("message"));
 
     }
-    
-}
\ No newline at end of file
+
+    // Tests for GET /api/articles/page
+
+    @Test
+    public void logged_out_users_cannot_get_page() throws Exception {
+        mockMvc.perform(get("/api/articles/page"))
+                            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_first_page_of_articles() throws Exception {
+
+        // arrange
+
+        Article row1 = Article.builder().id(1L).build();
+        Article row2 = Article.builder().id(2L).build();
+        Article row3 = Article.builder().id(3L).build();
+
+        when(articleRepository.findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3))))
+                            .thenReturn(new ArrayList<>(Arrays.asList(row1, row2, row3)));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/articles/page?limit=2"))
+                            .andExpect(status().isOk()).andReturn();
+
+        // assert
+
+        verify(articleRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3)));
+        String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode(2L)));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_last_page_of_articles() throws Exception {
+
+        // arrange
+
+        Article row3 = Article.builder().id(3L).build();
+
+        when(articleRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101))))
+                            .thenReturn(new ArrayList<>(Arrays.asList(row3)));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/articles/page?after=" + CursorPage.encode(2L)))
+                            .andExpect(status().isOk()).andReturn();
+
+        // assert
+
+        verify(articleRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101)));
+        String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    // Tests for GET /api/articles/search
+
+    @Test
+    public void logged_out_users_cannot_search() throws Exception {
+        mockMvc.perform(get("/api/articles/search?q=spring"))
+                            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_search_articles() throws Exception {
+
+        // arrange
+
+        Article row1 = Article.builder().id(4L).title("Handy Spring Utility Classes").build();
+        Article row2 = Article.builder().id(9L).title("Spring Boot testing").build();
+        List<ArticleSearchResult> results = List.of(
+                            ArticleSearchResult.builder().article(row1).score(2.5).build(),
+                            ArticleSearchResult.builder().article(row2).score(1.25).build());
+
+        when(articleSearchIndex.search(eq("spring utility"), eq(5))).thenReturn(results);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/articles/search?q=spring utility&limit=5"))
+                            .andExpect(status().isOk()).andReturn();
+
+        // assert
+
+        verify(articleSearchIndex, times(1)).search(eq("spring utility"), eq(5));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(mapper.writeValueAsString(results), responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void search_uses_the_default_limit_when_none_is_given() throws Exception {
+        when(articleSearchIndex.search(eq("spring"), eq(100))).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/articles/search?q=spring"))
+                            .andExpect(status().isOk());
+
+        verify(articleSearchIndex, times(1)).search(eq("spring"), eq(100));
+    }
+
+    // Tests for POST /api/articles/bulk
+
+    @Test
+    public void logged_out_users_cannot_bulk_create() throws Exception {
+        mockMvc.perform(post("/api/articles/bulk").with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_regular_users_cannot_bulk_create() throws Exception {
+        mockMvc.perform(post("/api/articles/bulk").with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void an_admin_user_can_bulk_create_articles() throws Exception {
+        // arrange
+
+        Article row1 = Article.builder()
+                            .id(7L)
+                            .title("Using testing-playground")
+                            .url("https://example.org/1")
+                            .explanation("helps")
+                            .email("cgaucho@ucsb.edu")
+                            .dateAdded(LocalDateTime.parse("2024-01-03T00:00:00"))
+                            .build();
+        Article row2 = Article.builder()
+                            .title("Handy Spring Utility Classes")
+                            .url("https://example.org/2")
+                            .explanation("useful")
+                            .email("ldelplaya@ucsb.edu")
+                            .dateAdded(LocalDateTime.parse("2024-01-03T00:00:00"))
+                            .build();
+        Article invalid = Article.builder()
+                            .url("https://example.org/1")
+                            .explanation("helps")
+                            .email("cgaucho@ucsb.edu")
+                            .dateAdded(LocalDateTime.parse("2024-01-03T00:00:00"))
+                            .build();
+
+        when(articleRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Article> saved = invocation.getArgument(0);
+            assertEquals(0L, saved.get(0).getId());
+            saved.get(0).setId(101L);
+            saved.get(1).setId(102L);
+            return saved;
+        });
+
+        // act
+        MvcResult response = mockMvc.perform(post("/api/articles/bulk").with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(List.of(row1, invalid, row2))))
+                            .andExpect(status().isOk()).andReturn();
+
+        // assert
+
+        verify(articleRepository, times(1)).saveAll(any());
+        verify(articleSearchIndex, times(1)).reload();
+        BulkResult expected = BulkResult.of(List.of(
+                            BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id(101L).build(),
+                            BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("title is required")).build(),
+                            BulkRowResult.builder().index(2).status(BulkRowResult.CREATED).id(102L).build()));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(mapper.writeValueAsString(expected), responseString);
+    }
+}
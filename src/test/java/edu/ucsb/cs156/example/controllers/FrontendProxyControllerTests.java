@@ -0,0 +1,113 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@ActiveProfiles("development")
+@WebMvcTest(controllers = FrontendProxyController.class)
+@Import(TestConfig.class)
+public class FrontendProxyControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @Autowired
+  FrontendProxyController frontendProxyController;
+
+  HttpServer frontendServer;
+
+  List<String> requestsSeen = new ArrayList<>();
+
+  @BeforeEach
+  public void startFrontendServer() throws Exception {
+    // stands in for the frontend dev server: one static chunk with a validator
+    frontendServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    frontendServer.createContext("/", exchange -> {
+      requestsSeen.add(exchange.getRequestURI().toString());
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return;
+      }
+      byte[] body = ("chunk for " + exchange.getRequestURI().getPath()).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/javascript; charset=utf-8");
+      exchange.getResponseHeaders().add("Cache-Control", "max-age=3600");
+      exchange.getResponseHeaders().add("ETag", "\"v1\"");
+      exchange.getResponseHeaders().add("X-Powered-By", "Express");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    frontendServer.start();
+    frontendProxyController.devServerUrl = "http://localhost:" + frontendServer.getAddress().getPort();
+  }
+
+  @AfterEach
+  public void stopFrontendServer() {
+    frontendServer.stop(0);
+  }
+
+  @Test
+  public void proxy_streams_the_response_and_its_caching_headers() throws Exception {
+    MvcResult response = mockMvc.perform(get("/static/js/bundle.js?v=2"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "application/javascript; charset=utf-8"))
+        .andExpect(header().string("Cache-Control", "max-age=3600"))
+        .andExpect(header().string("ETag", "\"v1\""))
+        .andReturn();
+
+    assertEquals("chunk for /static/js/bundle.js", response.getResponse().getContentAsString());
+    assertNull(response.getResponse().getHeader("X-Powered-By"));
+    assertEquals(List.of("/static/js/bundle.js?v=2"), requestsSeen);
+  }
+
+  @Test
+  public void proxy_passes_conditional_requests_through() throws Exception {
+    MvcResult response = mockMvc.perform(get("/").header("If-None-Match", "\"v1\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"v1\""))
+        .andReturn();
+
+    assertEquals(0, response.getResponse().getContentAsByteArray().length);
+    assertEquals(List.of("/"), requestsSeen);
+  }
+
+  @Test
+  public void proxy_gives_instructions_when_the_frontend_server_is_not_running() throws Exception {
+    frontendServer.stop(0);
+
+    MvcResult response = mockMvc.perform(get("/"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("text/html;charset=UTF-8"))
+        .andReturn();
+
+    assertTrue(response.getResponse().getContentAsString().contains("Failed to connect to the frontend server"));
+  }
+}
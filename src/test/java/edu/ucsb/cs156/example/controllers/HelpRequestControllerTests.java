@@ -5,17 +5,28 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.HelpRequest;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
+import edu.ucsb.cs156.example.services.HelpRequestQueueService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -24,10 +35,13 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import java.time.LocalDateTime;
 
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -42,6 +56,9 @@ public class HelpRequestControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        HelpRequestQueueService helpRequestQueueService;
+
         // Authorization tests for /api/HelpRequest/admin/all
 
         @Test
@@ -202,6 +219,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
                 // assert
                 verify(helpRequestRepository, times(1)).save(HelpRequest1);
+                verify(helpRequestQueueService, times(1)).refresh(0L);
                 String expectedJson = mapper.writeValueAsString(HelpRequest1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -233,7 +251,8 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
                 // assert
                 verify(helpRequestRepository, times(1)).findById(15L);
-                verify(helpRequestRepository, times(1)).delete(any());
+                verify(helpRequestRepository, times(1)).delete(any(HelpRequest.class));
+                verify(helpRequestQueueService, times(1)).refresh(15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("HelpRequest with id 15 deleted", json.get("message"));
@@ -302,6 +321,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 // assert
                 verify(helpRequestRepository, times(1)).findById(67L);
                 verify(helpRequestRepository, times(1)).save(HelpRequestEdited); // should be saved with correct user
+                verify(helpRequestQueueService, times(1)).refresh(67L);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -358,4 +378,263 @@ public class HelpRequestControllerTests extends ControllerTestCase {
         //                         .andExpect(status().is(200)); // logged
         //         when(HelpRequestRepository.findById(eq(67L))).thenReturn(Optional.empty());
         // }
+
+        // Tests for GET /api/helprequest/queue and /api/helprequest/queue/events
+
+        @Test
+        public void logged_out_users_cannot_get_queue() throws Exception {
+                mockMvc.perform(get("/api/helprequest/queue"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_the_queue_from_memory() throws Exception {
+
+                // arrange
+
+                HelpRequest open = HelpRequest.builder()
+                                .id(4L)
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .teamId("s22-5pm-3")
+                                .tableOrBreakoutRoom("7")
+                                .requestTime(LocalDateTime.parse("2024-01-03T10:00:00"))
+                                .explanation("Need help with Swagger-ui")
+                                .solved(false)
+                                .build();
+
+                when(helpRequestQueueService.openRequests()).thenReturn(List.of(open));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequest/queue"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(helpRequestQueueService, times(1)).openRequests();
+                verify(helpRequestRepository, times(0)).findAll();
+                assertEquals(mapper.writeValueAsString(List.of(open)), response.getResponse().getContentAsString());
+        }
+
+        @Test
+        public void logged_out_users_cannot_subscribe_to_queue_events() throws Exception {
+                mockMvc.perform(get("/api/helprequest/queue/events"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_subscribe_to_queue_events() throws Exception {
+
+                // act
+                mockMvc.perform(get("/api/helprequest/queue/events").accept(MediaType.TEXT_EVENT_STREAM))
+                                .andExpect(request().asyncStarted())
+                                .andExpect(status().isOk());
+
+                // assert
+
+                ArgumentCaptor<SseEmitter> emitter = ArgumentCaptor.forClass(SseEmitter.class);
+                verify(helpRequestQueueService, times(1)).subscribe(emitter.capture());
+                assertEquals(30 * 60 * 1000L, emitter.getValue().getTimeout());
+        }
+
+        // Tests for GET /api/helprequest/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/helprequest/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_first_page_of_help_requests() throws Exception {
+
+                // arrange
+
+                HelpRequest row1 = HelpRequest.builder().id(1L).build();
+                HelpRequest row2 = HelpRequest.builder().id(2L).build();
+                HelpRequest row3 = HelpRequest.builder().id(3L).build();
+
+                when(helpRequestRepository.findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row1, row2, row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequest/page?limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(helpRequestRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode(2L)));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_last_page_of_help_requests() throws Exception {
+
+                // arrange
+
+                HelpRequest row3 = HelpRequest.builder().id(3L).build();
+
+                when(helpRequestRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequest/page?after=" + CursorPage.encode(2L)))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(helpRequestRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for GET /api/helprequest/query
+
+        /** stubs findBy to run the query function against a fluent query that returns rows */
+        @SuppressWarnings("unchecked")
+        private FluentQuery.FetchableFluentQuery<HelpRequest> stubFindBy(List<HelpRequest> rows) {
+                FluentQuery.FetchableFluentQuery<HelpRequest> query = mock(FluentQuery.FetchableFluentQuery.class, RETURNS_SELF);
+                when(query.all()).thenReturn(rows);
+                when(helpRequestRepository.findBy(any(Specification.class), any())).thenAnswer(invocation -> invocation
+                                .<Function<FluentQuery.FetchableFluentQuery<HelpRequest>, List<HelpRequest>>>getArgument(1)
+                                .apply(query));
+                return query;
+        }
+
+        @Test
+        public void logged_out_users_cannot_query() throws Exception {
+                mockMvc.perform(get("/api/helprequest/query"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_query_help_requests_with_filters() throws Exception {
+
+                // arrange
+
+                HelpRequest row1 = HelpRequest.builder().id(1L).teamId("s22-5pm-3").solved(false).build();
+                HelpRequest row2 = HelpRequest.builder().id(5L).teamId("s22-5pm-3").solved(false).build();
+                HelpRequest row3 = HelpRequest.builder().id(9L).teamId("s22-5pm-3").solved(false).build();
+                FluentQuery.FetchableFluentQuery<HelpRequest> query = stubFindBy(new ArrayList<>(Arrays.asList(row1, row2, row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequest/query?solved=false&teamId=s22-5pm-3"
+                                + "&from=2024-01-03T10:00:00&to=2024-01-03T12:00:00&limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(helpRequestRepository, times(1)).findBy(any(Specification.class), any());
+                verify(query, times(1)).sortBy(Sort.by("id"));
+                verify(query, times(1)).limit(3);
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode(5L)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_query_the_last_page_without_filters() throws Exception {
+
+                // arrange
+
+                HelpRequest row3 = HelpRequest.builder().id(3L).build();
+                FluentQuery.FetchableFluentQuery<HelpRequest> query = stubFindBy(new ArrayList<>(Arrays.asList(row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequest/query?after=" + CursorPage.encode(2L)))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(query, times(1)).limit(101);
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void query_with_an_invalid_cursor_is_a_bad_request() throws Exception {
+                mockMvc.perform(get("/api/helprequest/query?after=not-a-cursor"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        // Tests for POST /api/helprequest/bulk
+
+        @Test
+        public void logged_out_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/helprequest/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/helprequest/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_create_help_requests() throws Exception {
+                // arrange
+
+                HelpRequest row1 = HelpRequest.builder()
+                                .id(7L)
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .teamId("s22-5pm-3")
+                                .tableOrBreakoutRoom("7")
+                                .requestTime(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .explanation("Need help with Swagger-ui")
+                                .solved(false)
+                                .build();
+                HelpRequest row2 = HelpRequest.builder()
+                                .requesterEmail("ldelplaya@ucsb.edu")
+                                .teamId("s22-6pm-4")
+                                .tableOrBreakoutRoom("11")
+                                .requestTime(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .explanation("Dokku problems")
+                                .solved(false)
+                                .build();
+                HelpRequest invalid = HelpRequest.builder()
+                                .teamId("s22-5pm-3")
+                                .tableOrBreakoutRoom("7")
+                                .requestTime(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .explanation("Need help with Swagger-ui")
+                                .solved(false)
+                                .build();
+
+                when(helpRequestRepository.saveAll(any())).thenAnswer(invocation -> {
+                        List<HelpRequest> saved = invocation.getArgument(0);
+                        assertEquals(0L, saved.get(0).getId());
+                        saved.get(0).setId(101L);
+                        saved.get(1).setId(102L);
+                        return saved;
+                });
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/helprequest/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(row1, invalid, row2))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(helpRequestRepository, times(1)).saveAll(any());
+                verify(helpRequestQueueService, times(1)).reload();
+                BulkResult expected = BulkResult.of(List.of(
+                                BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id(101L).build(),
+                                BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("requesterEmail is required")).build(),
+                                BulkRowResult.builder().index(2).status(BulkRowResult.CREATED).id(102L).build()));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(mapper.writeValueAsString(expected), responseString);
+        }
 }
@@ -9,11 +9,19 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.MenuItemReviews;
 import edu.ucsb.cs156.example.repositories.MenuItemReviewsRepository;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
+import edu.ucsb.cs156.example.models.RatingStatistics;
+import edu.ucsb.cs156.example.services.MenuItemRatingsService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -21,6 +29,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -48,6 +57,14 @@ public class MenuItemReviewControllerTests extends ControllerTestCase{
     @MockBean
     UserRepository userRepository;
 
+    @MockBean
+    MenuItemRatingsService menuItemRatingsService;
+
+    @BeforeEach
+    public void writes_run_inside_the_ratings_service() {
+        when(menuItemRatingsService.write(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
     @Test
     public void logged_out_users_cannot_get_all() throws Exception {
         mockMvc.perform(get("/api/menuitemreview/all"))
@@ -63,6 +80,26 @@ public class MenuItemReviewControllerTests extends ControllerTestCase{
 
 
 
+    @Test
+    public void logged_out_users_cannot_get_rating_statistics() throws Exception {
+        mockMvc.perform(get("/api/menuitemreview/stats?itemId=3"))
+                .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = {"USER"})
+    @Test
+    public void logged_in_users_can_get_rating_statistics_without_reading_reviews() throws Exception {
+        RatingStatistics statistics = RatingStatistics.of(3L, new long[] { 0, 0, 1, 2, 1 });
+        when(menuItemRatingsService.get(3L)).thenReturn(statistics);
+
+        MvcResult response = mockMvc.perform(get("/api/menuitemreview/stats?itemId=3"))
+                .andExpect(status().isOk()).andReturn();
+
+        verify(menuItemRatingsService, times(1)).get(3L);
+        verify(menuItemReviewsRepository, times(0)).findAll();
+        assertEquals(mapper.writeValueAsString(statistics), response.getResponse().getContentAsString());
+    }
+
     @WithMockUser(roles = {"ADMIN"})
     @Test
     public void admin_can_post_a_new_review() throws Exception {
@@ -82,6 +119,8 @@ public class MenuItemReviewControllerTests extends ControllerTestCase{
                 .andExpect(status().isOk()).andReturn();
 
         verify(menuItemReviewsRepository, times(1)).save(review);
+        verify(menuItemRatingsService, times(1)).write(any());
+        verify(menuItemRatingsService, times(1)).reviewAdded(3L, 4);
         String expectedJson = mapper.writeValueAsString(review);
         assertEquals(expectedJson, response.getResponse().getContentAsString());
     }
@@ -259,6 +298,9 @@ public class MenuItemReviewControllerTests extends ControllerTestCase{
 
             verify(menuItemReviewsRepository, times(1)).findById(10L);
             verify(menuItemReviewsRepository, times(1)).save(editedReview);
+            verify(menuItemRatingsService, times(1)).write(any());
+            verify(menuItemRatingsService, times(1)).reviewRemoved(3L, 4);
+            verify(menuItemRatingsService, times(1)).reviewAdded(4L, 5);
             String responseString = response.getResponse().getContentAsString();
             assertEquals(requestBody, responseString);
         }
@@ -293,6 +335,8 @@ public class MenuItemReviewControllerTests extends ControllerTestCase{
 
             verify(menuItemReviewsRepository, times(1)).findById(10L);
             verify(menuItemReviewsRepository, times(1)).delete(review);
+            verify(menuItemRatingsService, times(1)).write(any());
+            verify(menuItemRatingsService, times(1)).reviewRemoved(3L, 5);
             String responseString = response.getResponse().getContentAsString();
             assertEquals("MenuItemReview with id 10 deleted", responseString);
         }
@@ -316,9 +360,129 @@ public class MenuItemReviewControllerTests extends ControllerTestCase{
             assertEquals("MenuItemReviews with id 67 not found", json.get("message"));
         }
 
+    // Tests for GET /api/menuitemreview/page
+
+    @Test
+    public void logged_out_users_cannot_get_page() throws Exception {
+        mockMvc.perform(get("/api/menuitemreview/page"))
+                            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_first_page_of_menu_item_reviews() throws Exception {
+
+        // arrange
 
+        MenuItemReviews row1 = MenuItemReviews.builder().id(1L).build();
+        MenuItemReviews row2 = MenuItemReviews.builder().id(2L).build();
+        MenuItemReviews row3 = MenuItemReviews.builder().id(3L).build();
 
+        when(menuItemReviewsRepository.findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3))))
+                            .thenReturn(new ArrayList<>(Arrays.asList(row1, row2, row3)));
 
+        // act
+        MvcResult response = mockMvc.perform(get("/api/menuitemreview/page?limit=2"))
+                            .andExpect(status().isOk()).andReturn();
 
+        // assert
 
+        verify(menuItemReviewsRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3)));
+        String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode(2L)));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_last_page_of_menu_item_reviews() throws Exception {
+
+        // arrange
+
+        MenuItemReviews row3 = MenuItemReviews.builder().id(3L).build();
+
+        when(menuItemReviewsRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101))))
+                            .thenReturn(new ArrayList<>(Arrays.asList(row3)));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/menuitemreview/page?after=" + CursorPage.encode(2L)))
+                            .andExpect(status().isOk()).andReturn();
+
+        // assert
+
+        verify(menuItemReviewsRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101)));
+        String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    // Tests for POST /api/menuitemreview/bulk
+
+    @Test
+    public void logged_out_users_cannot_bulk_create() throws Exception {
+        mockMvc.perform(post("/api/menuitemreview/bulk").with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_regular_users_cannot_bulk_create() throws Exception {
+        mockMvc.perform(post("/api/menuitemreview/bulk").with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void an_admin_user_can_bulk_create_menu_item_reviews() throws Exception {
+        // arrange
+
+        MenuItemReviews row1 = MenuItemReviews.builder()
+                            .id(7L)
+                            .reviewEmail("cgaucho@ucsb.edu")
+                            .itemId(7L)
+                            .stars(5)
+                            .dateReviewed(LocalDateTime.parse("2024-01-03T00:00:00"))
+                            .comments("great")
+                            .build();
+        MenuItemReviews row2 = MenuItemReviews.builder()
+                            .reviewEmail("ldelplaya@ucsb.edu")
+                            .itemId(8L)
+                            .stars(2)
+                            .dateReviewed(LocalDateTime.parse("2024-01-03T00:00:00"))
+                            .comments("cold")
+                            .build();
+        MenuItemReviews invalid = MenuItemReviews.builder()
+                            .itemId(7L)
+                            .stars(5)
+                            .dateReviewed(LocalDateTime.parse("2024-01-03T00:00:00"))
+                            .comments("great")
+                            .build();
+
+        when(menuItemReviewsRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<MenuItemReviews> saved = invocation.getArgument(0);
+            assertEquals(0L, saved.get(0).getId());
+            saved.get(0).setId(101L);
+            saved.get(1).setId(102L);
+            return saved;
+        });
+
+        // act
+        MvcResult response = mockMvc.perform(post("/api/menuitemreview/bulk").with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(List.of(row1, invalid, row2))))
+                            .andExpect(status().isOk()).andReturn();
+
+        // assert
+
+        verify(menuItemReviewsRepository, times(1)).saveAll(any());
+        verify(menuItemRatingsService, times(1)).rebuild();
+        BulkResult expected = BulkResult.of(List.of(
+                            BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id(101L).build(),
+                            BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("reviewEmail is required")).build(),
+                            BulkRowResult.builder().index(2).status(BulkRowResult.CREATED).id(102L).build()));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(mapper.writeValueAsString(expected), responseString);
+    }
 }
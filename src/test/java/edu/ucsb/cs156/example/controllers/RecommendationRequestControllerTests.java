@@ -7,9 +7,14 @@ import edu.ucsb.cs156.example.entities.RecommendationRequest;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
+import edu.ucsb.cs156.example.services.RecommendationRequestDueDates;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -18,11 +23,13 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import java.util.Optional;
@@ -43,6 +50,9 @@ public class RecommendationRequestControllerTests extends ControllerTestCase{
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        RecommendationRequestDueDates recommendationRequestDueDates;
+
         // Authorization tests for /api/RecommendationRequest/admin/all
 
         @Test
@@ -202,6 +212,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase{
 
                 // assert
                 verify(recommendationRequestRepository, times(1)).save(recommendationRequest1);
+                verify(recommendationRequestDueDates, times(1)).refresh(0L);
                 String expectedJson = mapper.writeValueAsString(recommendationRequest1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -249,6 +260,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase{
                 // assert
                 verify(recommendationRequestRepository, times(1)).findById(123L);
                 verify(recommendationRequestRepository, times(1)).save(recommendationRequestEdited); // should be saved with correct user
+                verify(recommendationRequestDueDates, times(1)).refresh(123L);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -316,6 +328,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase{
                 // assert
                 verify(recommendationRequestRepository, times(1)).findById(123L);
                 verify(recommendationRequestRepository, times(1)).delete(any());
+                verify(recommendationRequestDueDates, times(1)).refresh(123L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("RecommendationRequest with id 123 deleted", json.get("message"));
@@ -340,6 +353,192 @@ public class RecommendationRequestControllerTests extends ControllerTestCase{
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("RecommendationRequest with id 123 not found", json.get("message"));
         }
-    
 
+        // Tests for GET /api/RecommendationRequest/overdue and /api/RecommendationRequest/due
+
+        private final RecommendationRequest openRequest = RecommendationRequest.builder()
+                        .id(4L)
+                        .requesterEmail("cgaucho@ucsb.edu")
+                        .professorEmail("phtcon@ucsb.edu")
+                        .explanation("BS/MS program")
+                        .dateRequested(LocalDateTime.parse("2024-10-01T00:00:00"))
+                        .dateNeeded(LocalDateTime.parse("2024-11-01T00:00:00"))
+                        .done(false)
+                        .build();
+
+        @Test
+        public void logged_out_users_cannot_get_overdue_or_due() throws Exception {
+                mockMvc.perform(get("/api/RecommendationRequest/overdue"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/api/RecommendationRequest/due?days=7"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_overdue_requests_from_memory() throws Exception {
+
+                // arrange
+
+                when(recommendationRequestDueDates.overdue()).thenReturn(List.of(openRequest));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/overdue"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(recommendationRequestRepository, times(0)).findAll();
+                assertEquals(mapper.writeValueAsString(List.of(openRequest)), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_requests_due_within_some_days_from_memory() throws Exception {
+
+                // arrange
+
+                when(recommendationRequestDueDates.dueWithin(Duration.ofDays(7))).thenReturn(List.of(openRequest));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/due?days=7"))
+                                .andExpect(status().isOk()).andReturn();
+                mockMvc.perform(get("/api/RecommendationRequest/due?days=-3"))
+                                .andExpect(status().isOk());
+
+                // assert
+
+                verify(recommendationRequestDueDates, times(1)).dueWithin(Duration.ZERO);
+                verify(recommendationRequestRepository, times(0)).findAll();
+                assertEquals(mapper.writeValueAsString(List.of(openRequest)), response.getResponse().getContentAsString());
+        }
+
+        // Tests for GET /api/RecommendationRequest/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/RecommendationRequest/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_first_page_of_recommendation_requests() throws Exception {
+
+                // arrange
+
+                RecommendationRequest row1 = RecommendationRequest.builder().id(1L).build();
+                RecommendationRequest row2 = RecommendationRequest.builder().id(2L).build();
+                RecommendationRequest row3 = RecommendationRequest.builder().id(3L).build();
+
+                when(recommendationRequestRepository.findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row1, row2, row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/page?limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(recommendationRequestRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode(2L)));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_last_page_of_recommendation_requests() throws Exception {
+
+                // arrange
+
+                RecommendationRequest row3 = RecommendationRequest.builder().id(3L).build();
+
+                when(recommendationRequestRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/page?after=" + CursorPage.encode(2L)))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(recommendationRequestRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for POST /api/RecommendationRequest/bulk
+
+        @Test
+        public void logged_out_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/RecommendationRequest/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/RecommendationRequest/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_create_recommendation_requests() throws Exception {
+                // arrange
+
+                RecommendationRequest row1 = RecommendationRequest.builder()
+                                .id(7L)
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .professorEmail("phtcon@ucsb.edu")
+                                .explanation("grad school")
+                                .dateRequested(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .dateNeeded(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .done(false)
+                                .build();
+                RecommendationRequest row2 = RecommendationRequest.builder()
+                                .requesterEmail("ldelplaya@ucsb.edu")
+                                .professorEmail("richert@ucsb.edu")
+                                .explanation("internship")
+                                .dateRequested(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .dateNeeded(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .done(false)
+                                .build();
+                RecommendationRequest invalid = RecommendationRequest.builder()
+                                .professorEmail("phtcon@ucsb.edu")
+                                .explanation("grad school")
+                                .dateRequested(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .dateNeeded(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .done(false)
+                                .build();
+
+                when(recommendationRequestRepository.saveAll(any())).thenAnswer(invocation -> {
+                        List<RecommendationRequest> saved = invocation.getArgument(0);
+                        assertEquals(0L, saved.get(0).getId());
+                        saved.get(0).setId(101L);
+                        saved.get(1).setId(102L);
+                        return saved;
+                });
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/RecommendationRequest/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(row1, invalid, row2))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(recommendationRequestRepository, times(1)).saveAll(any());
+                verify(recommendationRequestDueDates, times(1)).reload();
+                BulkResult expected = BulkResult.of(List.of(
+                                BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id(101L).build(),
+                                BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("requesterEmail is required")).build(),
+                                BulkRowResult.builder().index(2).status(BulkRowResult.CREATED).id(102L).build()));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(mapper.writeValueAsString(expected), responseString);
+        }
 }
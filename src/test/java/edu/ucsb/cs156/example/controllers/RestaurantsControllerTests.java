@@ -5,9 +5,14 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Restaurant;
 import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -16,6 +21,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -294,4 +300,203 @@ public class RestaurantsControllerTests extends ControllerTestCase {
                 assertEquals("Restaurant with id 67 not found", json.get("message"));
 
         }
+
+        // Tests for GET /api/restaurants/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/restaurants/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_first_page_of_restaurants() throws Exception {
+
+                // arrange
+
+                Restaurant row1 = Restaurant.builder().id(1L).build();
+                Restaurant row2 = Restaurant.builder().id(2L).build();
+                Restaurant row3 = Restaurant.builder().id(3L).build();
+
+                when(restaurantRepository.findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row1, row2, row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/restaurants/page?limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(restaurantRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode(2L)));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_last_page_of_restaurants() throws Exception {
+
+                // arrange
+
+                Restaurant row3 = Restaurant.builder().id(3L).build();
+
+                when(restaurantRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/restaurants/page?after=" + CursorPage.encode(2L)))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(restaurantRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void page_limit_is_capped_at_the_maximum() throws Exception {
+                mockMvc.perform(get("/api/restaurants/page?limit=5000"))
+                                .andExpect(status().isOk());
+                verify(restaurantRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(1001)));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void page_limit_is_at_least_one() throws Exception {
+                mockMvc.perform(get("/api/restaurants/page?limit=0"))
+                                .andExpect(status().isOk());
+                verify(restaurantRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(2)));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void page_with_a_non_numeric_cursor_is_a_bad_request() throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/restaurants/page?after=" + CursorPage.encode("not-a-number")))
+                                .andExpect(status().isBadRequest()).andReturn();
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("InvalidCursorException", json.get("type"));
+                assertEquals("Invalid cursor " + CursorPage.encode("not-a-number"), json.get("message"));
+        }
+
+        // Tests for POST /api/restaurants/bulk
+
+        @Test
+        public void logged_out_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/restaurants/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/restaurants/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_create_restaurants() throws Exception {
+                // arrange
+
+                Restaurant row1 = Restaurant.builder()
+                                .id(7L)
+                                .name("Freebirds")
+                                .description("Burritos")
+                                .build();
+                Restaurant row2 = Restaurant.builder()
+                                .name("Hollister Brewing")
+                                .description("Pub food")
+                                .build();
+                Restaurant invalid = Restaurant.builder()
+                                .description("Burritos")
+                                .build();
+
+                when(restaurantRepository.saveAll(any())).thenAnswer(invocation -> {
+                        List<Restaurant> saved = invocation.getArgument(0);
+                        assertEquals(0L, saved.get(0).getId());
+                        saved.get(0).setId(101L);
+                        saved.get(1).setId(102L);
+                        return saved;
+                });
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/restaurants/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(row1, invalid, row2))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(restaurantRepository, times(1)).saveAll(any());
+                BulkResult expected = BulkResult.of(List.of(
+                                BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id(101L).build(),
+                                BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("name is required")).build(),
+                                BulkRowResult.builder().index(2).status(BulkRowResult.CREATED).id(102L).build()));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(mapper.writeValueAsString(expected), responseString);
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_create_restaurants_from_ndjson() throws Exception {
+                // arrange
+
+                Restaurant row1 = Restaurant.builder().name("Freebirds").description("Burritos").build();
+                Restaurant row2 = Restaurant.builder().name("Hollister Brewing").description("Pub food").build();
+                when(restaurantRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/restaurants/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(mapper.writeValueAsString(row1) + "\n" + mapper.writeValueAsString(row2) + "\n"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                Map<String, Object> json = responseToJson(response);
+                assertEquals(2, json.get("received"));
+                assertEquals(2, json.get("created"));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void bulk_create_with_malformed_json_is_a_bad_request() throws Exception {
+                MvcResult response = mockMvc.perform(post("/api/restaurants/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[{\"name\": \"Freebirds\", \"description\": \"Burritos\"}, {\"name\": ]"))
+                                .andExpect(status().isBadRequest()).andReturn();
+
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("InvalidBulkRequestException", json.get("type"));
+                assertEquals(true, ((String) json.get("message")).startsWith("Row 1 could not be read"));
+                verify(restaurantRepository, times(0)).saveAll(any());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void bulk_create_reports_rows_the_database_rejects_as_failed() throws Exception {
+                // arrange
+
+                Restaurant row1 = Restaurant.builder().name("Freebirds").description("Burritos").build();
+                when(restaurantRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("value too long"));
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/restaurants/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(row1))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                BulkResult expected = BulkResult.of(List.of(
+                                BulkRowResult.builder().index(0).status(BulkRowResult.FAILED).errors(List.of("value too long")).build()));
+                assertEquals(mapper.writeValueAsString(expected), response.getResponse().getContentAsString());
+        }
 }
@@ -5,9 +5,14 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
+import edu.ucsb.cs156.example.services.UpcomingDatesCache;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -16,6 +21,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,6 +48,9 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        UpcomingDatesCache upcomingDatesCache;
+
         // Authorization tests for /api/ucsbdates/admin/all
 
         @Test
@@ -166,6 +175,45 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 assertEquals(expectedJson, responseString);
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_not_modified_for_all_ucsbdates_when_etag_matches() throws Exception {
+                // arrange
+                when(ucsbDateRepository.findAll()).thenReturn(new ArrayList<>());
+                String etag = mockMvc.perform(get("/api/ucsbdates/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Cache-Control", "no-cache"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act
+                mockMvc.perform(get("/api/ucsbdates/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string("ETag", etag));
+
+                // assert
+                verify(ucsbDateRepository, times(1)).findAll();
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void etag_of_all_ucsbdates_changes_when_an_admin_posts_a_date() throws Exception {
+                // arrange
+                when(ucsbDateRepository.findAll()).thenReturn(new ArrayList<>());
+                when(ucsbDateRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+                String etag = mockMvc.perform(get("/api/ucsbdates/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act
+                mockMvc.perform(post("/api/ucsbdates/post?name=firstDayOfClasses&quarterYYYYQ=20222&localDateTime=2022-01-03T00:00:00")
+                                .with(csrf()))
+                                .andExpect(status().isOk());
+
+                // assert
+                mockMvc.perform(get("/api/ucsbdates/all").header("If-None-Match", etag))
+                                .andExpect(status().isOk());
+                verify(ucsbDateRepository, times(2)).findAll();
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_ucsbdate() throws Exception {
@@ -189,6 +237,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
 
                 // assert
                 verify(ucsbDateRepository, times(1)).save(ucsbDate1);
+                verify(upcomingDatesCache, times(1)).refresh(0L);
                 String expectedJson = mapper.writeValueAsString(ucsbDate1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -218,6 +267,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDateRepository, times(1)).findById(15L);
                 verify(ucsbDateRepository, times(1)).delete(any());
+                verify(upcomingDatesCache, times(1)).refresh(15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDate with id 15 deleted", json.get("message"));
@@ -279,6 +329,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDateRepository, times(1)).findById(67L);
                 verify(ucsbDateRepository, times(1)).save(ucsbDateEdited); // should be saved with correct user
+                verify(upcomingDatesCache, times(1)).refresh(67L);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -315,4 +366,262 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 assertEquals("UCSBDate with id 67 not found", json.get("message"));
 
         }
+
+        // Tests for GET /api/ucsbdates/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_first_page_of_ucsbdates() throws Exception {
+
+                // arrange
+
+                UCSBDate row1 = UCSBDate.builder().id(1L).build();
+                UCSBDate row2 = UCSBDate.builder().id(2L).build();
+                UCSBDate row3 = UCSBDate.builder().id(3L).build();
+
+                when(ucsbDateRepository.findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row1, row2, row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/page?limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDateRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode(2L)));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_last_page_of_ucsbdates() throws Exception {
+
+                // arrange
+
+                UCSBDate row3 = UCSBDate.builder().id(3L).build();
+
+                when(ucsbDateRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/page?after=" + CursorPage.encode(2L)))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDateRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for GET /api/ucsbdates/quarter, /api/ucsbdates/range and /api/ucsbdates/upcoming
+
+        private final UCSBDate firstDayOfClasses = UCSBDate.builder()
+                        .id(1L)
+                        .name("firstDayOfClasses")
+                        .quarterYYYYQ("20241")
+                        .localDateTime(LocalDateTime.parse("2024-01-08T00:00:00"))
+                        .build();
+
+        private final UCSBDate lastDayOfClasses = UCSBDate.builder()
+                        .id(2L)
+                        .name("lastDayOfClasses")
+                        .quarterYYYYQ("20241")
+                        .localDateTime(LocalDateTime.parse("2024-03-15T00:00:00"))
+                        .build();
+
+        @Test
+        public void logged_out_users_cannot_get_quarter_range_or_upcoming() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/quarter?quarterYYYYQ=20241"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/api/ucsbdates/range?from=2024-01-01T00:00:00&to=2024-02-01T00:00:00"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/api/ucsbdates/upcoming"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_the_dates_of_a_quarter() throws Exception {
+
+                // arrange
+
+                when(ucsbDateRepository.findAllByQuarterYYYYQ(eq("20241")))
+                                .thenReturn(new ArrayList<>(Arrays.asList(firstDayOfClasses, lastDayOfClasses)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/quarter?quarterYYYYQ=20241"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDateRepository, times(1)).findAllByQuarterYYYYQ("20241");
+                String expectedJson = mapper.writeValueAsString(Arrays.asList(firstDayOfClasses, lastDayOfClasses));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_the_first_page_of_the_dates_in_a_window() throws Exception {
+
+                // arrange
+
+                LocalDateTime from = LocalDateTime.parse("2024-01-01T00:00:00");
+                LocalDateTime to = LocalDateTime.parse("2024-04-01T00:00:00");
+                UCSBDate finals = UCSBDate.builder().id(3L).name("finalsStart").quarterYYYYQ("20241")
+                                .localDateTime(LocalDateTime.parse("2024-03-16T00:00:00")).build();
+                when(ucsbDateRepository.findPageInWindow(eq(from), eq(to), eq(from), eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(firstDayOfClasses, lastDayOfClasses, finals)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/range?from=2024-01-01T00:00:00&to=2024-04-01T00:00:00&limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDateRepository, times(1)).findPageInWindow(from, to, from, Long.MIN_VALUE, PageRequest.ofSize(3));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(firstDayOfClasses, lastDayOfClasses),
+                                CursorPage.encode("2024-03-15T00:00,2")));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_the_last_page_of_the_dates_in_a_window() throws Exception {
+
+                // arrange
+
+                LocalDateTime from = LocalDateTime.parse("2024-01-01T00:00:00");
+                LocalDateTime to = LocalDateTime.parse("2024-04-01T00:00:00");
+                LocalDateTime after = LocalDateTime.parse("2024-01-08T00:00:00");
+                when(ucsbDateRepository.findPageInWindow(eq(from), eq(to), eq(after), eq(1L), eq(PageRequest.ofSize(101))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(lastDayOfClasses)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/range?from=2024-01-01T00:00:00&to=2024-04-01T00:00:00&after="
+                                + CursorPage.encode(new CursorPage.TimeKey(after, 1L))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDateRepository, times(1)).findPageInWindow(from, to, after, 1L, PageRequest.ofSize(101));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(lastDayOfClasses), null));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void a_window_with_a_malformed_cursor_is_a_bad_request() throws Exception {
+                for (String cursor : List.of(CursorPage.encode("no comma"), CursorPage.encode("2024-13-01T00:00,1"),
+                                CursorPage.encode("2024-01-01T00:00,one"))) {
+                        MvcResult response = mockMvc.perform(get("/api/ucsbdates/range?from=2024-01-01T00:00:00&to=2024-04-01T00:00:00&after=" + cursor))
+                                        .andExpect(status().isBadRequest()).andReturn();
+                        Map<String, Object> json = responseToJson(response);
+                        assertEquals("InvalidCursorException", json.get("type"));
+                }
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void a_window_needs_both_ends() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/range?from=2024-01-01T00:00:00"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_upcoming_dates_from_memory() throws Exception {
+
+                // arrange
+
+                when(upcomingDatesCache.upcoming(eq(100))).thenReturn(List.of(firstDayOfClasses, lastDayOfClasses));
+                when(upcomingDatesCache.upcoming(eq(1))).thenReturn(List.of(firstDayOfClasses));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/upcoming"))
+                                .andExpect(status().isOk()).andReturn();
+                MvcResult limited = mockMvc.perform(get("/api/ucsbdates/upcoming?limit=1"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                assertEquals(mapper.writeValueAsString(List.of(firstDayOfClasses, lastDayOfClasses)),
+                                response.getResponse().getContentAsString());
+                assertEquals(mapper.writeValueAsString(List.of(firstDayOfClasses)),
+                                limited.getResponse().getContentAsString());
+                verify(ucsbDateRepository, times(0)).findAll();
+        }
+
+        // Tests for POST /api/ucsbdates/bulk
+
+        @Test
+        public void logged_out_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/ucsbdates/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/ucsbdates/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_create_ucsb_dates() throws Exception {
+                // arrange
+
+                UCSBDate row1 = UCSBDate.builder()
+                                .id(7L)
+                                .quarterYYYYQ("20241")
+                                .name("firstDayOfClasses")
+                                .localDateTime(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .build();
+                UCSBDate row2 = UCSBDate.builder()
+                                .quarterYYYYQ("20241")
+                                .name("lastDayOfClasses")
+                                .localDateTime(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .build();
+                UCSBDate invalid = UCSBDate.builder()
+                                .name("firstDayOfClasses")
+                                .localDateTime(LocalDateTime.parse("2024-01-03T00:00:00"))
+                                .build();
+
+                when(ucsbDateRepository.saveAll(any())).thenAnswer(invocation -> {
+                        List<UCSBDate> saved = invocation.getArgument(0);
+                        assertEquals(0L, saved.get(0).getId());
+                        saved.get(0).setId(101L);
+                        saved.get(1).setId(102L);
+                        return saved;
+                });
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/ucsbdates/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(row1, invalid, row2))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDateRepository, times(1)).saveAll(any());
+                verify(upcomingDatesCache, times(1)).reload();
+                BulkResult expected = BulkResult.of(List.of(
+                                BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id(101L).build(),
+                                BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("quarterYYYYQ is required")).build(),
+                                BulkRowResult.builder().index(2).status(BulkRowResult.CREATED).id(102L).build()));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(mapper.writeValueAsString(expected), responseString);
+        }
 }
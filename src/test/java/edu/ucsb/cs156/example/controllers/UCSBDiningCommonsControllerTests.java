@@ -5,17 +5,27 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.GeoIndex;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsCache;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -24,7 +34,11 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -37,6 +51,9 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
         @MockBean
         UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
 
+        @MockBean
+        UCSBDiningCommonsCache ucsbDiningCommonsCache;
+
         @MockBean
         UserRepository userRepository;
 
@@ -95,7 +112,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                                 .longitude(-119.85277)
                                 .build();
 
-                when(ucsbDiningCommonsRepository.findById(eq("carrillo"))).thenReturn(Optional.of(commons));
+                when(ucsbDiningCommonsCache.findById(eq("carrillo"))).thenReturn(Optional.of(commons));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons?code=carrillo"))
@@ -103,7 +120,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbDiningCommonsRepository, times(1)).findById(eq("carrillo"));
+                verify(ucsbDiningCommonsCache, times(1)).findById(eq("carrillo"));
                 String expectedJson = mapper.writeValueAsString(commons);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -115,7 +132,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
                 // arrange
 
-                when(ucsbDiningCommonsRepository.findById(eq("munger-hall"))).thenReturn(Optional.empty());
+                when(ucsbDiningCommonsCache.findById(eq("munger-hall"))).thenReturn(Optional.empty());
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons?code=munger-hall"))
@@ -123,7 +140,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbDiningCommonsRepository, times(1)).findById(eq("munger-hall"));
+                verify(ucsbDiningCommonsCache, times(1)).findById(eq("munger-hall"));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("UCSBDiningCommons with id munger-hall not found", json.get("message"));
@@ -158,7 +175,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 ArrayList<UCSBDiningCommons> expectedCommons = new ArrayList<>();
                 expectedCommons.addAll(Arrays.asList(carrillo, dlg));
 
-                when(ucsbDiningCommonsRepository.findAll()).thenReturn(expectedCommons);
+                when(ucsbDiningCommonsCache.findAll()).thenReturn(expectedCommons);
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/all"))
@@ -166,12 +183,51 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbDiningCommonsRepository, times(1)).findAll();
+                verify(ucsbDiningCommonsCache, times(1)).findAll();
                 String expectedJson = mapper.writeValueAsString(expectedCommons);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_not_modified_for_all_commons_when_etag_matches() throws Exception {
+                // arrange
+                when(ucsbDiningCommonsCache.findAll()).thenReturn(new ArrayList<>());
+                String etag = mockMvc.perform(get("/api/ucsbdiningcommons/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Cache-Control", "no-cache"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act
+                mockMvc.perform(get("/api/ucsbdiningcommons/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string("ETag", etag));
+
+                // assert
+                verify(ucsbDiningCommonsCache, times(1)).findAll();
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void etag_of_all_commons_changes_when_an_admin_posts_a_commons() throws Exception {
+                // arrange
+                when(ucsbDiningCommonsCache.findAll()).thenReturn(new ArrayList<>());
+                when(ucsbDiningCommonsRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+                String etag = mockMvc.perform(get("/api/ucsbdiningcommons/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act
+                mockMvc.perform(post("/api/ucsbdiningcommons/post?name=Ortega&code=ortega&hasSackMeal=true&hasTakeOutMeal=true&hasDiningCam=true&latitude=34.410987&longitude=-119.84709")
+                                .with(csrf()))
+                                .andExpect(status().isOk());
+
+                // assert
+                mockMvc.perform(get("/api/ucsbdiningcommons/all").header("If-None-Match", etag))
+                                .andExpect(status().isOk());
+                verify(ucsbDiningCommonsCache, times(2)).findAll();
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_commons() throws Exception {
@@ -197,6 +253,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
                 // assert
                 verify(ucsbDiningCommonsRepository, times(1)).save(ortega);
+                verify(ucsbDiningCommonsCache, times(1)).refresh("ortega");
                 String expectedJson = mapper.writeValueAsString(ortega);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -228,6 +285,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDiningCommonsRepository, times(1)).findById("portola");
                 verify(ucsbDiningCommonsRepository, times(1)).delete(any());
+                verify(ucsbDiningCommonsCache, times(1)).refresh("portola");
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDiningCommons with id portola deleted", json.get("message"));
@@ -294,6 +352,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDiningCommonsRepository, times(1)).findById("carrillo");
                 verify(ucsbDiningCommonsRepository, times(1)).save(carrilloEdited); // should be saved with updated info
+                verify(ucsbDiningCommonsCache, times(1)).refresh("carrillo");
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -332,4 +391,316 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 assertEquals("UCSBDiningCommons with id munger-hall not found", json.get("message"));
 
         }
+
+        // Tests for GET /api/ucsbdiningcommons/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_first_page_of_commons() throws Exception {
+
+                // arrange
+
+                UCSBDiningCommons row1 = UCSBDiningCommons.builder().code("carrillo").build();
+                UCSBDiningCommons row2 = UCSBDiningCommons.builder().code("dlg").build();
+                UCSBDiningCommons row3 = UCSBDiningCommons.builder().code("ortega").build();
+
+                when(ucsbDiningCommonsRepository.findByCodeGreaterThanOrderByCodeAsc(eq(""), eq(PageRequest.ofSize(3))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row1, row2, row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/page?limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsRepository, times(1)).findByCodeGreaterThanOrderByCodeAsc(eq(""), eq(PageRequest.ofSize(3)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode("dlg")));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_last_page_of_commons() throws Exception {
+
+                // arrange
+
+                UCSBDiningCommons row3 = UCSBDiningCommons.builder().code("ortega").build();
+
+                when(ucsbDiningCommonsRepository.findByCodeGreaterThanOrderByCodeAsc(eq("dlg"), eq(PageRequest.ofSize(101))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/page?after=" + CursorPage.encode("dlg")))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsRepository, times(1)).findByCodeGreaterThanOrderByCodeAsc(eq("dlg"), eq(PageRequest.ofSize(101)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void page_with_a_malformed_cursor_is_a_bad_request() throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/page?after=a"))
+                                .andExpect(status().isBadRequest()).andReturn();
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("InvalidCursorException", json.get("type"));
+                assertEquals("Invalid cursor a", json.get("message"));
+        }
+
+        // Tests for GET /api/ucsbdiningcommons/nearest and /within
+
+        @Test
+        public void logged_out_users_cannot_get_nearest() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?latitude=34.4126&longitude=-119.8485"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_the_nearest_commons() throws Exception {
+                // arrange
+                UCSBDiningCommons ortega = UCSBDiningCommons.builder()
+                                .code("ortega").name("Ortega").hasTakeOutMeal(true)
+                                .latitude(34.410987).longitude(-119.84709).build();
+                when(ucsbDiningCommonsCache.nearest(eq(34.4126), eq(-119.8485), eq(1), any()))
+                                .thenReturn(List.of(new GeoIndex.Neighbor<>(ortega, 220.5)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/nearest?latitude=34.4126&longitude=-119.8485"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsCache, times(1)).nearest(eq(34.4126), eq(-119.8485), eq(1), any());
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                NearbyDiningCommons.builder().diningCommons(ortega).distanceMeters(220.5).build()));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void nearest_passes_the_limit_and_the_feature_filters_to_the_index() throws Exception {
+                // arrange
+                UCSBDiningCommons sackAndCam = UCSBDiningCommons.builder().code("a").hasSackMeal(true).hasDiningCam(true).build();
+                UCSBDiningCommons sackOnly = UCSBDiningCommons.builder().code("b").hasSackMeal(true).build();
+                UCSBDiningCommons sackCamAndTakeOut = UCSBDiningCommons.builder().code("c").hasSackMeal(true).hasDiningCam(true)
+                                .hasTakeOutMeal(true).build();
+                UCSBDiningCommons camOnly = UCSBDiningCommons.builder().code("d").hasDiningCam(true).build();
+
+                // act
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?latitude=34.4&longitude=-119.8&limit=3"
+                                + "&hasSackMeal=true&hasTakeOutMeal=false&hasDiningCam=true"))
+                                .andExpect(status().isOk());
+
+                // assert
+                @SuppressWarnings("unchecked")
+                ArgumentCaptor<Predicate<UCSBDiningCommons>> filter = ArgumentCaptor.forClass(Predicate.class);
+                verify(ucsbDiningCommonsCache, times(1)).nearest(eq(34.4), eq(-119.8), eq(3), filter.capture());
+                assertTrue(filter.getValue().test(sackAndCam));
+                assertFalse(filter.getValue().test(sackOnly));
+                assertFalse(filter.getValue().test(sackCamAndTakeOut));
+                assertFalse(filter.getValue().test(camOnly));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void nearest_without_filters_accepts_every_commons() throws Exception {
+                // act
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?latitude=34.4&longitude=-119.8"))
+                                .andExpect(status().isOk());
+
+                // assert
+                @SuppressWarnings("unchecked")
+                ArgumentCaptor<Predicate<UCSBDiningCommons>> filter = ArgumentCaptor.forClass(Predicate.class);
+                verify(ucsbDiningCommonsCache, times(1)).nearest(eq(34.4), eq(-119.8), eq(1), filter.capture());
+                assertTrue(filter.getValue().test(UCSBDiningCommons.builder().code("a").build()));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void nearest_with_an_invalid_location_is_a_bad_request() throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/nearest?latitude=91&longitude=-119.8"))
+                                .andExpect(status().isBadRequest()).andReturn();
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("InvalidLocationException", json.get("type"));
+                assertEquals("Invalid location 91.0,-119.8: latitude must be between -90 and 90, and longitude between -180 and 180",
+                                json.get("message"));
+                verify(ucsbDiningCommonsCache, times(0)).nearest(anyDouble(), anyDouble(), anyInt(), any());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void within_with_an_invalid_location_is_a_bad_request() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/within?latitude=34.4&longitude=-181&radiusMeters=500"))
+                                .andExpect(status().isBadRequest());
+                mockMvc.perform(get("/api/ucsbdiningcommons/within?latitude=-90.5&longitude=119.8&radiusMeters=500"))
+                                .andExpect(status().isBadRequest());
+                mockMvc.perform(get("/api/ucsbdiningcommons/within?latitude=34.4&longitude=180.5&radiusMeters=500"))
+                                .andExpect(status().isBadRequest());
+                verify(ucsbDiningCommonsCache, times(0)).within(anyDouble(), anyDouble(), anyDouble(), any());
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_within() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/within?latitude=34.4126&longitude=-119.8485&radiusMeters=500"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_the_commons_within_a_radius() throws Exception {
+                // arrange
+                UCSBDiningCommons ortega = UCSBDiningCommons.builder()
+                                .code("ortega").name("Ortega").hasTakeOutMeal(true)
+                                .latitude(34.410987).longitude(-119.84709).build();
+                UCSBDiningCommons dlg = UCSBDiningCommons.builder()
+                                .code("de-la-guerra").name("De La Guerra").hasTakeOutMeal(true)
+                                .latitude(34.409811).longitude(-119.845026).build();
+                when(ucsbDiningCommonsCache.within(eq(34.4126), eq(-119.8485), eq(500.0), any()))
+                                .thenReturn(List.of(new GeoIndex.Neighbor<>(ortega, 220.5), new GeoIndex.Neighbor<>(dlg, 440.25)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/within?latitude=34.4126&longitude=-119.8485"
+                                + "&radiusMeters=500&hasTakeOutMeal=true"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                @SuppressWarnings("unchecked")
+                ArgumentCaptor<Predicate<UCSBDiningCommons>> filter = ArgumentCaptor.forClass(Predicate.class);
+                verify(ucsbDiningCommonsCache, times(1)).within(eq(34.4126), eq(-119.8485), eq(500.0), filter.capture());
+                assertTrue(filter.getValue().test(ortega));
+                assertFalse(filter.getValue().test(UCSBDiningCommons.builder().code("carrillo").build()));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                NearbyDiningCommons.builder().diningCommons(ortega).distanceMeters(220.5).build(),
+                                NearbyDiningCommons.builder().diningCommons(dlg).distanceMeters(440.25).build()));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        // Tests for POST /api/ucsbdiningcommons/bulk
+
+        @Test
+        public void logged_out_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/ucsbdiningcommons/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/ucsbdiningcommons/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_create_dining_commons() throws Exception {
+                // arrange
+
+                UCSBDiningCommons row1 = UCSBDiningCommons.builder()
+                                .code("ortega")
+                                .name("Ortega")
+                                .hasSackMeal(true)
+                                .hasTakeOutMeal(true)
+                                .hasDiningCam(true)
+                                .latitude(34.410987)
+                                .longitude(-119.84709)
+                                .build();
+                UCSBDiningCommons row2 = UCSBDiningCommons.builder()
+                                .code("portola")
+                                .name("Portola")
+                                .hasSackMeal(true)
+                                .hasTakeOutMeal(true)
+                                .hasDiningCam(true)
+                                .latitude(34.417723)
+                                .longitude(-119.867427)
+                                .build();
+                UCSBDiningCommons invalid = UCSBDiningCommons.builder()
+                                .name("Ortega")
+                                .hasSackMeal(true)
+                                .hasTakeOutMeal(true)
+                                .hasDiningCam(true)
+                                .latitude(34.410987)
+                                .longitude(-119.84709)
+                                .build();
+
+                when(ucsbDiningCommonsRepository.saveAll(any())).thenAnswer(invocation -> {
+                        return invocation.getArgument(0);
+                });
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/ucsbdiningcommons/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(row1, invalid, row2))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsRepository, times(1)).saveAll(any());
+                verify(ucsbDiningCommonsCache, times(1)).reload();
+                BulkResult expected = BulkResult.of(List.of(
+                                BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id("ortega").build(),
+                                BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("code is required")).build(),
+                                BulkRowResult.builder().index(2).status(BulkRowResult.CREATED).id("portola").build()));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(mapper.writeValueAsString(expected), responseString);
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void bulk_create_does_not_overwrite_an_existing_or_repeated_code() throws Exception {
+                // arrange
+
+                UCSBDiningCommons ortega = UCSBDiningCommons.builder()
+                                .code("ortega")
+                                .name("Ortega")
+                                .latitude(34.410987)
+                                .longitude(-119.84709)
+                                .build();
+                UCSBDiningCommons portola = UCSBDiningCommons.builder()
+                                .code("portola")
+                                .name("Portola")
+                                .latitude(34.417723)
+                                .longitude(-119.867427)
+                                .build();
+                UCSBDiningCommons portolaAgain = UCSBDiningCommons.builder()
+                                .code("portola")
+                                .name("Portola Again")
+                                .latitude(34.417723)
+                                .longitude(-119.867427)
+                                .build();
+
+                when(ucsbDiningCommonsRepository.findAllById(eq(List.of("ortega", "portola"))))
+                                .thenReturn(List.of(ortega));
+                when(ucsbDiningCommonsRepository.saveAll(any())).thenAnswer(invocation -> {
+                        return invocation.getArgument(0);
+                });
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/ucsbdiningcommons/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(ortega, portola, portolaAgain))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsRepository, times(1)).saveAll(eq(List.of(portola)));
+                BulkResult expected = BulkResult.of(List.of(
+                                BulkRowResult.builder().index(0).status(BulkRowResult.INVALID).errors(List.of("ortega already exists")).build(),
+                                BulkRowResult.builder().index(1).status(BulkRowResult.CREATED).id("portola").build(),
+                                BulkRowResult.builder().index(2).status(BulkRowResult.INVALID).errors(List.of("portola appears more than once in the request")).build()));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(mapper.writeValueAsString(expected), responseString);
+        }
 }
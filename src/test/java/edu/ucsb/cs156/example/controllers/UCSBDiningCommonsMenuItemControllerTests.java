@@ -7,9 +7,15 @@ import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
+import edu.ucsb.cs156.example.models.MenuItemRanking;
+import edu.ucsb.cs156.example.services.MenuItemLeaderboardService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -18,6 +24,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -44,6 +51,9 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        MenuItemLeaderboardService menuItemLeaderboardService;
+
         // Authorization tests for /api/ucsbdiningcommonsmenuitems/all
 
         @Test
@@ -59,6 +69,49 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                                 .andExpect(status().is(200)); // logged
         }
         
+        // Tests for /api/ucsbdiningcommonsmenuitems/top
+
+        @Test
+        public void logged_out_users_cannot_get_top() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommonsmenuitems/top?diningCommonsCode=ortega"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_users_can_get_the_top_items_of_a_dining_commons() throws Exception {
+                // arrange
+                List<MenuItemRanking> top = List.of(
+                                MenuItemRanking.builder().rank(1).itemId(7).name("Tofu Banh Mi").station("Entree Specials")
+                                                .reviews(12).averageStars(4.5).build(),
+                                MenuItemRanking.builder().rank(2).itemId(3).name("Chicken Caesar Salad").station("Entrees")
+                                                .reviews(40).averageStars(4.25).build());
+                when(menuItemLeaderboardService.top("ortega", 2)).thenReturn(top);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitems/top?diningCommonsCode=ortega&limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemLeaderboardService, times(1)).top("ortega", 2);
+                assertEquals(mapper.writeValueAsString(top), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void top_returns_the_whole_leaderboard_when_no_limit_is_given() throws Exception {
+                // arrange
+                when(menuItemLeaderboardService.top("ortega", Integer.MAX_VALUE)).thenReturn(List.of());
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitems/top?diningCommonsCode=ortega"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemLeaderboardService, times(1)).top("ortega", Integer.MAX_VALUE);
+                assertEquals("[]", response.getResponse().getContentAsString());
+        }
+
         // Authorization tests for /api/ucsbdates/post
         // (Perhaps should also have these for put and delete)
 
@@ -211,4 +264,123 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                 mockMvc.perform(delete("/api/ucsbdiningcommonsmenuitems?id=63").with(csrf()))
                                 .andExpect(status().isNotFound()).andReturn();
         }
+
+        // Tests for GET /api/ucsbdiningcommonsmenuitems/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommonsmenuitems/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_first_page_of_menu_items() throws Exception {
+
+                // arrange
+
+                UCSBDiningCommonsMenuItem row1 = UCSBDiningCommonsMenuItem.builder().id(1L).build();
+                UCSBDiningCommonsMenuItem row2 = UCSBDiningCommonsMenuItem.builder().id(2L).build();
+                UCSBDiningCommonsMenuItem row3 = UCSBDiningCommonsMenuItem.builder().id(3L).build();
+
+                when(ucsbDiningCommonsMenuItemRepository.findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row1, row2, row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitems/page?limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), eq(PageRequest.ofSize(3)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode(2L)));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_last_page_of_menu_items() throws Exception {
+
+                // arrange
+
+                UCSBDiningCommonsMenuItem row3 = UCSBDiningCommonsMenuItem.builder().id(3L).build();
+
+                when(ucsbDiningCommonsMenuItemRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitems/page?after=" + CursorPage.encode(2L)))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(2L), eq(PageRequest.ofSize(101)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for POST /api/ucsbdiningcommonsmenuitems/bulk
+
+        @Test
+        public void logged_out_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/ucsbdiningcommonsmenuitems/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/ucsbdiningcommonsmenuitems/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_create_menu_items() throws Exception {
+                // arrange
+
+                UCSBDiningCommonsMenuItem row1 = UCSBDiningCommonsMenuItem.builder()
+                                .id(7L)
+                                .diningCommonsCode("ortega")
+                                .name("Baked Pesto Pasta with Chicken")
+                                .station("Entree Specials")
+                                .build();
+                UCSBDiningCommonsMenuItem row2 = UCSBDiningCommonsMenuItem.builder()
+                                .diningCommonsCode("portola")
+                                .name("Cream of Broccoli Soup")
+                                .station("Greens & Grains")
+                                .build();
+                UCSBDiningCommonsMenuItem invalid = UCSBDiningCommonsMenuItem.builder()
+                                .name("Baked Pesto Pasta with Chicken")
+                                .station("Entree Specials")
+                                .build();
+
+                when(ucsbDiningCommonsMenuItemRepository.saveAll(any())).thenAnswer(invocation -> {
+                        List<UCSBDiningCommonsMenuItem> saved = invocation.getArgument(0);
+                        assertEquals(0L, saved.get(0).getId());
+                        saved.get(0).setId(101L);
+                        saved.get(1).setId(102L);
+                        return saved;
+                });
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/ucsbdiningcommonsmenuitems/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(row1, invalid, row2))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).saveAll(any());
+                BulkResult expected = BulkResult.of(List.of(
+                                BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id(101L).build(),
+                                BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("diningCommonsCode is required")).build(),
+                                BulkRowResult.builder().index(2).status(BulkRowResult.CREATED).id(102L).build()));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(mapper.writeValueAsString(expected), responseString);
+        }
 }
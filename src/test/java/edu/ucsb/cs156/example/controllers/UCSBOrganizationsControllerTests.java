@@ -5,9 +5,14 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBOrganizations;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationsRepository;
+import edu.ucsb.cs156.example.services.UCSBOrganizationsCache;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -16,6 +21,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,6 +45,9 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
         @MockBean
         UCSBOrganizationsRepository ucsbOrganizationsRepository;
 
+        @MockBean
+        UCSBOrganizationsCache ucsbOrganizationsCache;
+
         @MockBean
         UserRepository userRepository;
 
@@ -71,6 +80,45 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                                 .andExpect(status().is(403)); // only admins can post
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_not_modified_for_all_organizations_when_etag_matches() throws Exception {
+                // arrange
+                when(ucsbOrganizationsCache.findAll()).thenReturn(new ArrayList<>());
+                String etag = mockMvc.perform(get("/api/ucsborganizations/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Cache-Control", "no-cache"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act
+                mockMvc.perform(get("/api/ucsborganizations/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string("ETag", etag));
+
+                // assert
+                verify(ucsbOrganizationsCache, times(1)).findAll();
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void etag_of_all_organizations_changes_when_an_admin_posts_an_organization() throws Exception {
+                // arrange
+                when(ucsbOrganizationsCache.findAll()).thenReturn(new ArrayList<>());
+                when(ucsbOrganizationsRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+                String etag = mockMvc.perform(get("/api/ucsborganizations/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act
+                mockMvc.perform(post("/api/ucsborganizations/post?orgCode=ZPR&orgTranslationShort=ZETA PHI RHO&orgTranslation=ZETA PHI RHO&inactive=false")
+                                .with(csrf()))
+                                .andExpect(status().isOk());
+
+                // assert
+                mockMvc.perform(get("/api/ucsborganizations/all").header("If-None-Match", etag))
+                                .andExpect(status().isOk());
+                verify(ucsbOrganizationsCache, times(2)).findAll();
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_organizations() throws Exception {
@@ -93,6 +141,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
 
                 // assert
                 verify(ucsbOrganizationsRepository, times(1)).save(zpr);
+                verify(ucsbOrganizationsCache, times(1)).refresh("ZPR");
                 String expectedJson = mapper.writeValueAsString(zpr);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -124,6 +173,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
 
                 // Assert
                 verify(ucsbOrganizationsRepository, times(1)).save(org);
+                verify(ucsbOrganizationsCache, times(1)).refresh("XYZ");
                 String expectedJson = mapper.writeValueAsString(org);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -152,7 +202,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                 ArrayList<UCSBOrganizations> expectedOrganizations = new ArrayList<>();
                 expectedOrganizations.addAll(Arrays.asList(zpr, dlg));
 
-                when(ucsbOrganizationsRepository.findAll()).thenReturn(expectedOrganizations);
+                when(ucsbOrganizationsCache.findAll()).thenReturn(expectedOrganizations);
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsborganizations/all"))
@@ -160,7 +210,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbOrganizationsRepository, times(1)).findAll();
+                verify(ucsbOrganizationsCache, times(1)).findAll();
                 String expectedJson = mapper.writeValueAsString(expectedOrganizations);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -176,7 +226,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                                 .orgTranslation("Test Organization")
                                 .build();
 
-                when(ucsbOrganizationsRepository.findById(orgCode)).thenReturn(Optional.of(org));
+                when(ucsbOrganizationsCache.findById(orgCode)).thenReturn(Optional.of(org));
 
                 // Act
                 MvcResult response = mockMvc.perform(get("/api/ucsborganizations")
@@ -185,7 +235,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                                 .andReturn();
 
                 // Assert
-                verify(ucsbOrganizationsRepository, times(1)).findById(orgCode);
+                verify(ucsbOrganizationsCache, times(1)).findById(orgCode);
                 String expectedJson = mapper.writeValueAsString(org);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -197,7 +247,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                 // Arrange
                 String orgCode = "NON_EXISTENT_ORG";
 
-                when(ucsbOrganizationsRepository.findById(orgCode)).thenReturn(Optional.empty());
+                when(ucsbOrganizationsCache.findById(orgCode)).thenReturn(Optional.empty());
 
                 // Act
                 MvcResult response = mockMvc.perform(get("/api/ucsborganizations")
@@ -206,7 +256,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                                 .andReturn();
 
                 // Assert
-                verify(ucsbOrganizationsRepository, times(1)).findById(orgCode);
+                verify(ucsbOrganizationsCache, times(1)).findById(orgCode);
                 Map<String, Object> jsonResponse = responseToJson(response);
                 assertEquals("UCSBOrganizations with id NON_EXISTENT_ORG not found", jsonResponse.get("message"));
         }
@@ -248,6 +298,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbOrganizationsRepository, times(1)).findById("ZPR");
                 verify(ucsbOrganizationsRepository, times(1)).save(zprEdited); // should be saved with updated info
+                verify(ucsbOrganizationsCache, times(1)).refresh("ZPR");
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -287,6 +338,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbOrganizationsRepository, times(1)).findById("ZPR");
                 verify(ucsbOrganizationsRepository, times(1)).save(zprEdited); // should be saved with updated info
+                verify(ucsbOrganizationsCache, times(1)).refresh("ZPR");
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
 
@@ -347,6 +399,7 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbOrganizationsRepository, times(1)).findById("ZPR");
                 verify(ucsbOrganizationsRepository, times(1)).delete(any());
+                verify(ucsbOrganizationsCache, times(1)).refresh("ZPR");
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBOrganizations with id ZPR deleted", json.get("message"));
@@ -371,4 +424,122 @@ public class UCSBOrganizationsControllerTests extends ControllerTestCase {
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBOrganizations with id ZPR not found", json.get("message"));
         }
+
+        // Tests for GET /api/ucsborganizations/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/ucsborganizations/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_first_page_of_organizations() throws Exception {
+
+                // arrange
+
+                UCSBOrganizations row1 = UCSBOrganizations.builder().orgCode("OSLI").build();
+                UCSBOrganizations row2 = UCSBOrganizations.builder().orgCode("SKY").build();
+                UCSBOrganizations row3 = UCSBOrganizations.builder().orgCode("ZPR").build();
+
+                when(ucsbOrganizationsRepository.findByOrgCodeGreaterThanOrderByOrgCodeAsc(eq(""), eq(PageRequest.ofSize(3))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row1, row2, row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsborganizations/page?limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbOrganizationsRepository, times(1)).findByOrgCodeGreaterThanOrderByOrgCodeAsc(eq(""), eq(PageRequest.ofSize(3)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row1, row2), CursorPage.encode("SKY")));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_last_page_of_organizations() throws Exception {
+
+                // arrange
+
+                UCSBOrganizations row3 = UCSBOrganizations.builder().orgCode("ZPR").build();
+
+                when(ucsbOrganizationsRepository.findByOrgCodeGreaterThanOrderByOrgCodeAsc(eq("SKY"), eq(PageRequest.ofSize(101))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(row3)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsborganizations/page?after=" + CursorPage.encode("SKY")))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbOrganizationsRepository, times(1)).findByOrgCodeGreaterThanOrderByOrgCodeAsc(eq("SKY"), eq(PageRequest.ofSize(101)));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(row3), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for POST /api/ucsborganizations/bulk
+
+        @Test
+        public void logged_out_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/ucsborganizations/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_bulk_create() throws Exception {
+                mockMvc.perform(post("/api/ucsborganizations/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_create_organizations() throws Exception {
+                // arrange
+
+                UCSBOrganizations row1 = UCSBOrganizations.builder()
+                                .orgCode("ZPR")
+                                .orgTranslationShort("ZETA PHI RHO")
+                                .orgTranslation("ZETA PHI RHO")
+                                .inactive(false)
+                                .build();
+                UCSBOrganizations row2 = UCSBOrganizations.builder()
+                                .orgCode("SKY")
+                                .orgTranslationShort("SKYDIVING CLUB")
+                                .orgTranslation("SKYDIVING CLUB AT UCSB")
+                                .inactive(false)
+                                .build();
+                UCSBOrganizations invalid = UCSBOrganizations.builder()
+                                .orgTranslationShort("ZETA PHI RHO")
+                                .orgTranslation("ZETA PHI RHO")
+                                .inactive(false)
+                                .build();
+
+                when(ucsbOrganizationsRepository.saveAll(any())).thenAnswer(invocation -> {
+                        return invocation.getArgument(0);
+                });
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/ucsborganizations/bulk").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(row1, invalid, row2))))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbOrganizationsRepository, times(1)).saveAll(any());
+                verify(ucsbOrganizationsCache, times(1)).reload();
+                BulkResult expected = BulkResult.of(List.of(
+                                BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id("ZPR").build(),
+                                BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("orgCode is required")).build(),
+                                BulkRowResult.builder().index(2).status(BulkRowResult.CREATED).id("SKY").build()));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(mapper.writeValueAsString(expected), responseString);
+        }
 }
@@ -3,16 +3,22 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.User;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdminStatusService;
+import edu.ucsb.cs156.example.services.UserCacheService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
 
+import jakarta.persistence.EntityManager;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -21,6 +27,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @WebMvcTest(controllers = UsersController.class)
 @Import(TestConfig.class)
@@ -29,6 +38,15 @@ public class UsersControllerTests extends ControllerTestCase {
   @MockBean
   UserRepository userRepository;
 
+  @MockBean
+  EntityManager entityManager;
+
+  @Autowired
+  UserCacheService userCacheService;
+
+  @Autowired
+  AdminStatusService adminStatusService;
+
   @Test
   public void users__logged_out() throws Exception {
     mockMvc.perform(get("/api/admin/users"))
@@ -70,4 +88,232 @@ public class UsersControllerTests extends ControllerTestCase {
     assertEquals(expectedJson, responseString);
 
   }
+
+  @Test
+  public void users_stream__logged_out() throws Exception {
+    mockMvc.perform(get("/api/admin/users/stream"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void users_stream__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/users/stream"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users_stream__admin_logged_in() throws Exception {
+
+    // arrange
+
+    User u1 = User.builder().id(1L).email("u1@example.org").build();
+    User u2 = User.builder().id(2L).email("u2@example.org").build();
+
+    when(userRepository.streamAll()).thenReturn(Stream.of(u1, u2));
+    String expectedJson = mapper.writeValueAsString(Arrays.asList(u1, u2));
+
+    // act
+
+    MvcResult response = mockMvc.perform(get("/api/admin/users/stream"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    verify(userRepository, times(1)).streamAll();
+    verify(entityManager, times(1)).detach(u1);
+    verify(entityManager, times(1)).detach(u2);
+    assertEquals("application/json", response.getResponse().getContentType());
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users_stream__admin_logged_in_no_users() throws Exception {
+
+    // arrange
+
+    when(userRepository.streamAll()).thenReturn(Stream.empty());
+
+    // act
+
+    MvcResult response = mockMvc.perform(get("/api/admin/users/stream"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    assertEquals("[]", response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void user_cache__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/users/cache"))
+        .andExpect(status().is(403));
+    mockMvc.perform(delete("/api/admin/users/cache").with(csrf()))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void user_cache__admin_can_get_statistics() throws Exception {
+
+    // arrange
+
+    userCacheService.invalidateAll();
+    User u1 = User.builder().id(1L).email("u1@example.org").build();
+    userCacheService.get("u1@example.org", email -> u1);
+    userCacheService.get("u1@example.org", email -> u1);
+    String expectedJson = mapper.writeValueAsString(userCacheService.getStatistics());
+
+    // act
+
+    MvcResult response = mockMvc.perform(get("/api/admin/users/cache"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(1, json.get("size"));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void user_cache__admin_can_clear_cache() throws Exception {
+
+    // arrange
+
+    User u1 = User.builder().id(1L).email("u1@example.org").build();
+    userCacheService.get("u1@example.org", email -> u1);
+
+    // act
+
+    MvcResult response = mockMvc.perform(delete("/api/admin/users/cache").with(csrf()))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    Map<String, Object> json = responseToJson(response);
+    assertEquals("User cache cleared", json.get("message"));
+    assertEquals(0L, userCacheService.getStatistics().getSize());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void user_cache__admin_can_clear_one_email() throws Exception {
+
+    // arrange
+
+    userCacheService.invalidateAll();
+    User u1 = User.builder().id(1L).email("u1@example.org").build();
+    User u2 = User.builder().id(2L).email("u2@example.org").build();
+    userCacheService.get("u1@example.org", email -> u1);
+    userCacheService.get("u2@example.org", email -> u2);
+
+    // act
+
+    MvcResult response = mockMvc.perform(delete("/api/admin/users/cache?email=u1@example.org").with(csrf()))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    Map<String, Object> json = responseToJson(response);
+    assertEquals("Cached user u1@example.org cleared", json.get("message"));
+    assertEquals(1L, userCacheService.getStatistics().getSize());
+    assertEquals(u2, userCacheService.get("u2@example.org", email -> null));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void admin_cache__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/users/adminCache"))
+        .andExpect(status().is(403));
+    mockMvc.perform(delete("/api/admin/users/adminCache").with(csrf()))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void admin_cache__admin_can_get_statistics() throws Exception {
+
+    // arrange
+
+    adminStatusService.invalidateAll();
+    User u1 = User.builder().id(1L).email("u1@example.org").admin(true).build();
+    when(userRepository.findByEmail("u1@example.org")).thenReturn(Optional.of(u1));
+    adminStatusService.getAdmin("u1@example.org");
+    adminStatusService.getAdmin("u1@example.org");
+    String expectedJson = mapper.writeValueAsString(adminStatusService.getStatistics());
+
+    // act
+
+    MvcResult response = mockMvc.perform(get("/api/admin/users/adminCache"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(1, json.get("size"));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void admin_cache__admin_can_clear_cache() throws Exception {
+
+    // arrange
+
+    User u1 = User.builder().id(1L).email("u1@example.org").admin(true).build();
+    when(userRepository.findByEmail("u1@example.org")).thenReturn(Optional.of(u1));
+    adminStatusService.getAdmin("u1@example.org");
+    userCacheService.get("u1@example.org", email -> u1);
+
+    // act
+
+    MvcResult response = mockMvc.perform(delete("/api/admin/users/adminCache").with(csrf()))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    Map<String, Object> json = responseToJson(response);
+    assertEquals("Admin status cache cleared", json.get("message"));
+    assertEquals(0L, adminStatusService.getStatistics().getSize());
+    assertEquals(0L, userCacheService.getStatistics().getSize());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void admin_cache__admin_can_clear_one_email() throws Exception {
+
+    // arrange
+
+    adminStatusService.invalidateAll();
+    User u1 = User.builder().id(1L).email("u1@example.org").admin(true).build();
+    User u2 = User.builder().id(2L).email("u2@example.org").admin(false).build();
+    when(userRepository.findByEmail("u1@example.org")).thenReturn(Optional.of(u1));
+    when(userRepository.findByEmail("u2@example.org")).thenReturn(Optional.of(u2));
+    adminStatusService.getAdmin("u1@example.org");
+    adminStatusService.getAdmin("u2@example.org");
+    userCacheService.invalidateAll();
+    userCacheService.get("u1@example.org", email -> u1);
+    userCacheService.get("u2@example.org", email -> u2);
+
+    // act
+
+    MvcResult response = mockMvc.perform(delete("/api/admin/users/adminCache?email=u1@example.org").with(csrf()))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    Map<String, Object> json = responseToJson(response);
+    assertEquals("Admin status for u1@example.org cleared", json.get("message"));
+    assertEquals(1L, adminStatusService.getStatistics().getSize());
+    assertEquals(1L, userCacheService.getStatistics().getSize());
+    assertEquals(u2, userCacheService.get("u2@example.org", email -> null));
+  }
 }
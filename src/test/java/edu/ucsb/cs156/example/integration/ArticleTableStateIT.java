@@ -0,0 +1,56 @@
+package edu.ucsb.cs156.example.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.models.ArticleTableState;
+import edu.ucsb.cs156.example.repositories.ArticleRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+/**
+ * Checks that every insert, update and delete of an article changes the table state
+ * that ArticleSearchIndex compares its snapshot against.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+public class ArticleTableStateIT {
+
+        @Autowired
+        ArticleRepository articleRepository;
+
+        @Test
+        public void inserts_updates_and_deletes_change_the_table_state() {
+
+                ArticleTableState before = articleRepository.tableState();
+
+                Article article = articleRepository.save(Article.builder()
+                                .title("Spring Boot").url("https://spring.io").explanation("A guide")
+                                .email("cgaucho@ucsb.edu").dateAdded(LocalDateTime.parse("2024-01-03T00:00:00")).build());
+                ArticleTableState inserted = articleRepository.tableState();
+                assertEquals(before.getCount() + 1, inserted.getCount());
+                assertEquals(articleRepository.findById(Long.toString(article.getId())).get().getUpdatedAt(),
+                                inserted.getLastUpdated());
+
+                article.setTitle("Spring Boot 3");
+                articleRepository.save(article);
+                ArticleTableState updated = articleRepository.tableState();
+                assertEquals(inserted.getCount(), updated.getCount());
+                assertTrue(updated.getLastUpdated().isAfter(inserted.getLastUpdated()));
+
+                articleRepository.delete(article);
+                assertEquals(before.getCount(), articleRepository.tableState().getCount());
+        }
+}
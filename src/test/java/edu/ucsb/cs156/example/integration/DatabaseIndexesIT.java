@@ -0,0 +1,94 @@
+package edu.ucsb.cs156.example.integration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+/**
+ * Checks that the lookups on hot columns are planned against the secondary indexes
+ * created by the Liquibase changesets rather than a table scan.
+ *
+ * The queries are plain EXPLAIN statements, which H2 and Postgres both accept; the
+ * plan text is compared case-insensitively because Postgres lowercases index names.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+public class DatabaseIndexesIT {
+
+        @Autowired
+        JdbcTemplate jdbcTemplate;
+
+        private void assertUsesIndex(String indexName, String query, Object... args) {
+                String plan = String.join("\n",
+                                jdbcTemplate.queryForList("EXPLAIN " + query, String.class, args));
+                assertTrue(plan.toUpperCase().contains(indexName),
+                                "expected plan to use %s but was:%n%s".formatted(indexName, plan));
+        }
+
+        @Test
+        public void users_are_looked_up_by_email_using_an_index() {
+                assertUsesIndex("IDX_USERS_EMAIL",
+                                "SELECT * FROM USERS WHERE EMAIL = ?", "cgaucho@ucsb.edu");
+        }
+
+        @Test
+        public void ucsb_dates_are_looked_up_by_quarter_using_an_index() {
+                assertUsesIndex("IDX_UCSBDATES_QUARTERYYYYQ",
+                                "SELECT * FROM UCSBDATES WHERE QUARTERYYYYQ = ?", "20241");
+        }
+
+        @Test
+        public void ucsb_dates_are_looked_up_by_time_window_using_an_index() {
+                assertUsesIndex("IDX_UCSBDATES_LOCAL_DATE_TIME",
+                                "SELECT * FROM UCSBDATES WHERE LOCAL_DATE_TIME >= ? AND LOCAL_DATE_TIME < ? ORDER BY LOCAL_DATE_TIME",
+                                java.sql.Timestamp.valueOf("2024-01-01 00:00:00"), java.sql.Timestamp.valueOf("2024-02-01 00:00:00"));
+        }
+
+        @Test
+        public void menu_item_reviews_are_looked_up_by_item_using_an_index() {
+                assertUsesIndex("IDX_MENUITEMREVIEWS_ITEM_ID",
+                                "SELECT * FROM MENUITEMREVIEWS WHERE ITEM_ID = ?", 7L);
+        }
+
+        @Test
+        public void menu_items_are_looked_up_by_dining_commons_using_an_index() {
+                assertUsesIndex("IDX_UCSBDININGCOMMONSMENUITEM_DINING_COMMONS_CODE",
+                                "SELECT * FROM UCSBDININGCOMMONSMENUITEM WHERE DINING_COMMONS_CODE = ?", "ortega");
+        }
+
+        @Test
+        public void unsolved_help_requests_are_looked_up_using_an_index() {
+                assertUsesIndex("IDX_HELPREQUEST_SOLVED_REQUEST_TIME",
+                                "SELECT * FROM HELPREQUEST WHERE SOLVED = ? ORDER BY REQUEST_TIME", false);
+        }
+
+        @Test
+        public void help_requests_are_queried_by_team_a_page_at_a_time_using_an_index() {
+                assertUsesIndex("IDX_HELPREQUEST_TEAM_ID_SOLVED_ID",
+                                "SELECT * FROM HELPREQUEST WHERE TEAM_ID = ? AND SOLVED = ? AND ID > ? ORDER BY ID LIMIT 11",
+                                "s22-5pm-3", false, 0L);
+        }
+
+        @Test
+        public void the_last_article_update_time_is_read_using_an_index() {
+                assertUsesIndex("IDX_ARTICLE_UPDATED_AT",
+                                "SELECT MAX(UPDATED_AT) FROM ARTICLE");
+        }
+
+        @Test
+        public void open_recommendation_requests_are_looked_up_using_an_index() {
+                assertUsesIndex("IDX_RECOMMENDATIONREQUEST_DONE_DATE_NEEDED",
+                                "SELECT * FROM RECOMMENDATIONREQUEST WHERE DONE = ? ORDER BY DATE_NEEDED", false);
+        }
+}
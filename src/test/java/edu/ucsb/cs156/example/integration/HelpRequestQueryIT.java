@@ -0,0 +1,109 @@
+package edu.ucsb.cs156.example.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+/**
+ * Runs /api/helprequest/query against the database, to check that the filters and
+ * the keyset limit are applied by the query rather than in memory.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+public class HelpRequestQueryIT {
+
+        @Autowired
+        HelpRequestRepository helpRequestRepository;
+
+        @Autowired
+        public MockMvc mockMvc;
+
+        @Autowired
+        public ObjectMapper mapper;
+
+        @MockBean
+        UserRepository userRepository;
+
+        private HelpRequest save(String teamId, String requestTime, boolean solved) {
+                return helpRequestRepository.save(HelpRequest.builder()
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .teamId(teamId)
+                                .tableOrBreakoutRoom("7")
+                                .requestTime(LocalDateTime.parse(requestTime))
+                                .explanation("Need help with Swagger-ui")
+                                .solved(solved)
+                                .build());
+        }
+
+        private JsonNode query(String parameters) throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/helprequest/query?" + parameters))
+                                .andExpect(status().isOk()).andReturn();
+                return mapper.readTree(response.getResponse().getContentAsString());
+        }
+
+        private static List<Long> ids(JsonNode page) {
+                List<Long> ids = new ArrayList<>();
+                page.get("content").forEach(row -> ids.add(row.get("id").asLong()));
+                return ids;
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void query_returns_only_matching_help_requests_a_page_at_a_time() throws Exception {
+                // arrange
+
+                long first = save("s22-5pm-3", "2024-01-03T10:00:00", false).getId();
+                save("s22-5pm-3", "2024-01-03T10:30:00", true);
+                save("s22-6pm-4", "2024-01-03T10:45:00", false);
+                save("s22-5pm-3", "2024-01-03T09:00:00", false);
+                long second = save("s22-5pm-3", "2024-01-03T11:59:59", false).getId();
+                save("s22-5pm-3", "2024-01-03T12:00:00", false);
+                long third = save("s22-5pm-3", "2024-01-03T11:00:00", false).getId();
+
+                String filters = "solved=false&teamId=s22-5pm-3&from=2024-01-03T10:00:00&to=2024-01-03T12:00:00&limit=2";
+
+                // act
+
+                JsonNode page1 = query(filters);
+                JsonNode page2 = query(filters + "&after=" + page1.get("next").asText());
+
+                // assert
+
+                assertEquals(List.of(first, second), ids(page1));
+                assertEquals(List.of(third), ids(page2));
+                assertEquals(true, page2.get("next").isNull());
+                assertEquals(7, ids(query("limit=10")).size());
+        }
+}
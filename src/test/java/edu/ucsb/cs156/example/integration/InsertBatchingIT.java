@@ -0,0 +1,91 @@
+package edu.ucsb.cs156.example.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.hibernate.BaseSessionEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+/**
+ * Checks that sequence-generated ids let Hibernate send inserts as JDBC batches
+ * instead of one round trip per row.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+                "spring.jpa.properties.hibernate.session.events.auto=edu.ucsb.cs156.example.integration.InsertBatchingIT$JdbcCountingListener"
+})
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+public class InsertBatchingIT {
+
+        static final AtomicInteger batches = new AtomicInteger();
+        static final AtomicInteger statements = new AtomicInteger();
+
+        /**
+         * Registered with every Hibernate session; counts executeBatch calls and
+         * individually executed statements (e.g. the sequence calls).
+         */
+        public static class JdbcCountingListener extends BaseSessionEventListener {
+                @Override
+                public void jdbcExecuteBatchStart() {
+                        batches.incrementAndGet();
+                }
+
+                @Override
+                public void jdbcExecuteStatementStart() {
+                        statements.incrementAndGet();
+                }
+        }
+
+        @Autowired
+        RestaurantRepository restaurantRepository;
+
+        @Autowired
+        PlatformTransactionManager transactionManager;
+
+        @BeforeEach
+        public void resetCounters() {
+                batches.set(0);
+                statements.set(0);
+        }
+
+        @Test
+        public void one_thousand_inserts_are_sent_in_a_handful_of_batches() {
+
+                // arrange
+
+                List<Restaurant> restaurants = IntStream.range(0, 1000)
+                                .mapToObj(i -> Restaurant.builder().name("Restaurant " + i).description("Description " + i).build())
+                                .toList();
+
+                // act
+
+                new TransactionTemplate(transactionManager)
+                                .executeWithoutResult(status -> restaurantRepository.saveAll(restaurants));
+
+                // assert
+
+                assertEquals(1000, restaurantRepository.count());
+                assertEquals(1000, restaurants.stream().map(Restaurant::getId).distinct().count());
+                assertEquals(20, batches.get(), "1000 rows / batch_size 50");
+                assertTrue(statements.get() <= 25,
+                                "expected ~20 sequence calls but saw %d statements".formatted(statements.get()));
+        }
+}
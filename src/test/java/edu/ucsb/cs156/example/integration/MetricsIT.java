@@ -0,0 +1,81 @@
+package edu.ucsb.cs156.example.integration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+public class MetricsIT {
+        @Autowired
+        public MockMvc mockMvc;
+
+        @MockBean
+        UserRepository userRepository;
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void prometheus_endpoint_reports_request_repository_and_pool_metrics() throws Exception {
+                // arrange
+
+                mockMvc.perform(get("/api/restaurants/all"))
+                                .andExpect(status().isOk());
+
+                // act
+                String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+                // assert
+                String requests = metrics.lines()
+                                .filter(line -> line.startsWith("http_server_requests_seconds_bucket{"))
+                                .filter(line -> line.contains("uri=\"/api/restaurants/all\""))
+                                .findFirst().orElse("");
+                assertTrue(requests.contains("controller=\"RestaurantsController\""), requests);
+                assertTrue(requests.contains("handler=\"allRestaurants\""), requests);
+                assertTrue(requests.contains("status=\"200\""), requests);
+                assertTrue(metrics.contains("spring_data_repository_invocations_seconds_bucket{"), "repository timer missing");
+                assertTrue(metrics.contains("hikaricp_connections_active{"), "hikari gauges missing");
+        }
+
+        @Test
+        public void logged_out_users_cannot_read_metrics_but_can_read_health() throws Exception {
+                mockMvc.perform(get("/actuator/prometheus"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/actuator/metrics"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/actuator/mappings"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/actuator/health"))
+                                .andExpect(status().isOk());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void regular_users_cannot_read_metrics() throws Exception {
+                mockMvc.perform(get("/actuator/prometheus"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/actuator/metrics"))
+                                .andExpect(status().is(403));
+        }
+}
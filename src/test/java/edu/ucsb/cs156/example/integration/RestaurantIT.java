@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
@@ -19,11 +20,15 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 
 import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
 import edu.ucsb.cs156.example.repositories.RestaurantRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.services.CurrentUserService;
@@ -99,4 +104,33 @@ public class RestaurantIT {
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
         }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_create_restaurants() throws Exception {
+                // arrange
+
+                String body = """
+                                {"name": "Chipotle", "description": "Mexican"}
+                                {"name": "Panda Express"}
+                                {"name": "Woodstocks", "description": "Pizza"}
+                                """;
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                post("/api/restaurants/bulk").with(csrf())
+                                                .contentType(MediaType.APPLICATION_NDJSON)
+                                                .content(body))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                BulkResult result = mapper.readValue(response.getResponse().getContentAsString(), BulkResult.class);
+                assertEquals(2, result.getCreated());
+                assertEquals(1, result.getInvalid());
+                assertEquals(List.of("description is required"), result.getRows().get(1).getErrors());
+                assertEquals(2, restaurantRepository.count());
+                Restaurant saved = restaurantRepository.findById(((Number) result.getRows().get(2).getId()).longValue()).get();
+                assertEquals("Woodstocks", saved.getName());
+                assertEquals(BulkRowResult.CREATED, result.getRows().get(2).getStatus());
+        }
 }
@@ -0,0 +1,137 @@
+package edu.ucsb.cs156.example.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.time.LocalDateTime;
+import java.util.OptionalLong;
+
+import javax.cache.Cache;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBOrganizations;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationsRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+public class SecondLevelCacheIT {
+        @Autowired
+        EntityManagerFactory entityManagerFactory;
+
+        @Autowired
+        RestaurantRepository restaurantRepository;
+
+        @Autowired
+        UCSBOrganizationsRepository ucsbOrganizationsRepository;
+
+        @Autowired
+        UCSBDateRepository ucsbDateRepository;
+
+        Statistics statistics;
+
+        @BeforeEach
+        public void clearCacheAndStatistics() {
+                SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+                sessionFactory.getCache().evictAllRegions();
+                statistics = sessionFactory.getStatistics();
+                statistics.clear();
+        }
+
+        @Test
+        public void second_find_by_id_of_a_restaurant_issues_no_sql() {
+                // arrange
+                long id = restaurantRepository.save(Restaurant.builder().name("Freebirds").description("Burritos").build()).getId();
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+                statistics.clear();
+
+                // act
+                restaurantRepository.findById(id);
+                long statementsAfterFirst = statistics.getPrepareStatementCount();
+                Restaurant second = restaurantRepository.findById(id).get();
+
+                // assert
+                assertEquals(1, statementsAfterFirst);
+                assertEquals(statementsAfterFirst, statistics.getPrepareStatementCount());
+                assertEquals("Freebirds", second.getName());
+                assertEquals(1, statistics.getDomainDataRegionStatistics("restaurants").getHitCount());
+        }
+
+        @Test
+        public void second_find_by_id_of_an_organization_issues_no_sql() {
+                // arrange
+                ucsbOrganizationsRepository.save(UCSBOrganizations.builder()
+                                .orgCode("ZPR").orgTranslationShort("ZETA PHI RHO").orgTranslation("ZETA PHI RHO").inactive(false)
+                                .build());
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+                statistics.clear();
+
+                // act
+                ucsbOrganizationsRepository.findById("ZPR");
+                ucsbOrganizationsRepository.findById("ZPR");
+
+                // assert
+                assertEquals(1, statistics.getPrepareStatementCount());
+                assertEquals(1, statistics.getDomainDataRegionStatistics("ucsborganizations").getHitCount());
+        }
+
+        @Test
+        public void repeated_find_all_by_quarter_is_served_from_the_query_cache_until_the_table_changes() {
+                // arrange
+                ucsbDateRepository.save(UCSBDate.builder().quarterYYYYQ("20241").name("firstDayOfClasses")
+                                .localDateTime(LocalDateTime.parse("2024-01-08T00:00:00")).build());
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+                statistics.clear();
+
+                // act
+                ucsbDateRepository.findAllByQuarterYYYYQ("20241");
+                ucsbDateRepository.findAllByQuarterYYYYQ("20241");
+                long statementsBeforeChange = statistics.getPrepareStatementCount();
+                ucsbDateRepository.save(UCSBDate.builder().quarterYYYYQ("20241").name("lastDayOfClasses")
+                                .localDateTime(LocalDateTime.parse("2024-03-15T00:00:00")).build());
+                Iterable<UCSBDate> afterChange = ucsbDateRepository.findAllByQuarterYYYYQ("20241");
+
+                // assert
+                assertEquals(1, statementsBeforeChange);
+                assertEquals(1, statistics.getQueryCacheHitCount());
+                assertEquals(2, afterChange.spliterator().getExactSizeIfKnown());
+        }
+
+        @Test
+        public void regions_are_size_bounded() {
+                assertEquals(OptionalLong.of(10000), maximumSize("restaurants"));
+                assertEquals(OptionalLong.of(5000), maximumSize("ucsborganizations"));
+                assertEquals(OptionalLong.of(1000), maximumSize("ucsbdates"));
+                assertEquals(OptionalLong.of(1000), maximumSize("default-query-results-region"));
+        }
+
+        private OptionalLong maximumSize(String region) {
+                JCacheRegionFactory regionFactory = (JCacheRegionFactory) entityManagerFactory
+                                .unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+                Cache<?, ?> cache = regionFactory.getCacheManager().getCache(region);
+                @SuppressWarnings("unchecked")
+                CaffeineConfiguration<?, ?> configuration = cache.getConfiguration(CaffeineConfiguration.class);
+                return configuration.getMaximumSize();
+        }
+}
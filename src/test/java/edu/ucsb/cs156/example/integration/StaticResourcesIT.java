@@ -0,0 +1,104 @@
+package edu.ucsb.cs156.example.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.hamcrest.Matchers.containsString;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+/**
+ * Serves the fixture build in src/test/resources/frontend-fixture (in place of the real
+ * frontend build), which has a .gz and .br copy of its bundle like the output of
+ * frontend/scripts/compress.js.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+@TestPropertySource(properties = "spring.web.resources.static-locations=classpath:/frontend-fixture/")
+public class StaticResourcesIT {
+        private static final String BUNDLE = "/static/js/main.0123abcd.js";
+
+        @Autowired
+        public MockMvc mockMvc;
+
+        @Test
+        public void hashed_bundle_is_served_brotli_compressed_and_cached_as_immutable() throws Exception {
+                // act
+                MockHttpServletResponse response = mockMvc.perform(get(BUNDLE).header("Accept-Encoding", "gzip, deflate, br"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Encoding", "br"))
+                                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                                .andReturn().getResponse();
+
+                // assert
+                assertEquals(564, response.getContentAsByteArray().length);
+        }
+
+        @Test
+        public void hashed_bundle_is_served_gzipped_to_clients_without_brotli() throws Exception {
+                // act
+                MockHttpServletResponse response = mockMvc.perform(get(BUNDLE).header("Accept-Encoding", "gzip"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Encoding", "gzip"))
+                                .andReturn().getResponse();
+
+                // assert
+                assertEquals(1118, response.getContentAsByteArray().length);
+        }
+
+        @Test
+        public void hashed_bundle_is_served_uncompressed_to_clients_that_accept_no_encoding() throws Exception {
+                // act
+                MockHttpServletResponse response = mockMvc.perform(get(BUNDLE))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse();
+
+                // assert
+                assertNull(response.getHeader("Content-Encoding"));
+                assertEquals(11218, response.getContentAsByteArray().length);
+        }
+
+        @Test
+        public void index_html_must_be_revalidated_and_is_not_resent_while_its_etag_matches() throws Exception {
+                // arrange
+                String etag = mockMvc.perform(get("/index.html"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Cache-Control", "no-cache"))
+                                .andReturn().getResponse().getHeader("ETag");
+                assertNotNull(etag);
+
+                // act
+                MockHttpServletResponse response = mockMvc.perform(get("/index.html").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andReturn().getResponse();
+
+                // assert
+                assertEquals(0, response.getContentAsByteArray().length);
+        }
+
+        @Test
+        public void frontend_routes_are_forwarded_to_index_html() throws Exception {
+                mockMvc.perform(get("/restaurants"))
+                                .andExpect(status().isOk())
+                                .andExpect(forwardedUrl("/index.html"));
+        }
+}
@@ -0,0 +1,104 @@
+package edu.ucsb.cs156.example.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+/**
+ * Runs /api/ucsbdates/range against the database, to check that the window and the
+ * (time, id) cursor are applied by the query, including between dates at the same time.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+public class UCSBDatesRangeIT {
+
+        @Autowired
+        UCSBDateRepository ucsbDateRepository;
+
+        @Autowired
+        public MockMvc mockMvc;
+
+        @Autowired
+        public ObjectMapper mapper;
+
+        @MockBean
+        UserRepository userRepository;
+
+        private long save(String name, String localDateTime) {
+                return ucsbDateRepository.save(UCSBDate.builder()
+                                .quarterYYYYQ("20241")
+                                .name(name)
+                                .localDateTime(LocalDateTime.parse(localDateTime))
+                                .build()).getId();
+        }
+
+        private JsonNode range(String parameters) throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/range?" + parameters))
+                                .andExpect(status().isOk()).andReturn();
+                return mapper.readTree(response.getResponse().getContentAsString());
+        }
+
+        private static List<Long> ids(JsonNode page) {
+                List<Long> ids = new ArrayList<>();
+                page.get("content").forEach(row -> ids.add(row.get("id").asLong()));
+                return ids;
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void range_returns_the_dates_in_the_window_a_page_at_a_time() throws Exception {
+                // arrange
+
+                long lastDay = save("lastDayOfClasses", "2024-03-15T00:00:00");
+                save("before", "2023-12-31T23:59:59");
+                long firstDay = save("firstDayOfClasses", "2024-01-08T00:00:00");
+                long holiday = save("mlkDay", "2024-01-15T00:00:00");
+                long registration = save("registrationOpens", "2024-01-08T00:00:00");
+                save("springStarts", "2024-04-01T00:00:00");
+
+                String window = "from=2024-01-01T00:00:00&to=2024-04-01T00:00:00&limit=2";
+
+                // act
+
+                JsonNode page1 = range(window);
+                JsonNode page2 = range(window + "&after=" + page1.get("next").asText());
+
+                // assert
+
+                assertEquals(List.of(firstDay, registration), ids(page1));
+                assertEquals(List.of(holiday, lastDay), ids(page2));
+                assertEquals(true, page2.get("next").isNull());
+        }
+}
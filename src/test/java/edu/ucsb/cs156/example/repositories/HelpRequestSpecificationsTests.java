@@ -0,0 +1,75 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class HelpRequestSpecificationsTests {
+
+  @SuppressWarnings("unchecked")
+  private final Root<HelpRequest> root = mock(Root.class);
+
+  private final CriteriaQuery<?> query = mock(CriteriaQuery.class);
+
+  private final CriteriaBuilder cb = mock(CriteriaBuilder.class);
+
+  private final Predicate predicate = mock(Predicate.class);
+
+  @SuppressWarnings("unchecked")
+  private <Y> Path<Y> path(String attribute) {
+    Path<Y> path = mock(Path.class);
+    when(root.<Y>get(attribute)).thenReturn(path);
+    return path;
+  }
+
+  @Test
+  void null_arguments_give_no_condition() {
+    assertNull(HelpRequestSpecifications.solved(null));
+    assertNull(HelpRequestSpecifications.teamId(null));
+    assertNull(HelpRequestSpecifications.requestedFrom(null));
+    assertNull(HelpRequestSpecifications.requestedBefore(null));
+  }
+
+  @Test
+  void solved_and_team_id_are_matched_exactly() {
+    Path<Boolean> solved = path("solved");
+    Path<String> teamId = path("teamId");
+    when(cb.equal(solved, true)).thenReturn(predicate);
+    when(cb.equal(teamId, "s22-5pm-3")).thenReturn(predicate);
+
+    assertSame(predicate, HelpRequestSpecifications.solved(true).toPredicate(root, query, cb));
+    assertSame(predicate, HelpRequestSpecifications.teamId("s22-5pm-3").toPredicate(root, query, cb));
+  }
+
+  @Test
+  void the_time_window_includes_from_and_excludes_to() {
+    Path<LocalDateTime> requestTime = path("requestTime");
+    LocalDateTime from = LocalDateTime.parse("2024-01-03T10:00:00");
+    LocalDateTime to = LocalDateTime.parse("2024-01-03T12:00:00");
+    when(cb.greaterThanOrEqualTo(requestTime, from)).thenReturn(predicate);
+    when(cb.lessThan(requestTime, to)).thenReturn(predicate);
+
+    assertSame(predicate, HelpRequestSpecifications.requestedFrom(from).toPredicate(root, query, cb));
+    assertSame(predicate, HelpRequestSpecifications.requestedBefore(to).toPredicate(root, query, cb));
+  }
+
+  @Test
+  void pages_continue_after_the_cursor_id() {
+    Path<Long> id = path("id");
+    when(cb.greaterThan(id, 42L)).thenReturn(predicate);
+
+    assertSame(predicate, HelpRequestSpecifications.idGreaterThan(42L).toPredicate(root, query, cb));
+  }
+}
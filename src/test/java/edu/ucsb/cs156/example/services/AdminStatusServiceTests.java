@@ -0,0 +1,95 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+
+@ExtendWith(SpringExtension.class)
+@Import(AdminStatusService.class)
+@TestPropertySource(properties = {
+    "app.admin.emails=phtcon@ucsb.edu, ,admingaucho@ucsb.edu",
+    "app.adminCache.maximumSize=100",
+    "app.adminCache.expireAfterWriteSeconds=60"
+})
+class AdminStatusServiceTests {
+
+  @MockBean
+  private UserRepository userRepository;
+
+  @Autowired
+  private AdminStatusService adminStatusService;
+
+  private final User admin = User.builder().id(1L).email("cgaucho@ucsb.edu").admin(true).build();
+  private final User notAdmin = User.builder().id(2L).email("ldelplaya@ucsb.edu").admin(false).build();
+
+  @BeforeEach
+  void clearCache() {
+    adminStatusService.invalidateAll();
+    clearInvocations(userRepository);
+  }
+
+  @Test
+  void test_configured_emails_are_admins_without_a_query() {
+    assertTrue(adminStatusService.isAdminEmail("admingaucho@ucsb.edu"));
+    assertTrue(adminStatusService.getAdmin("phtcon@ucsb.edu"));
+    assertFalse(adminStatusService.isAdminEmail("cgaucho@ucsb.edu"));
+    assertFalse(adminStatusService.isAdminEmail(""));
+    verify(userRepository, never()).findByEmail("phtcon@ucsb.edu");
+  }
+
+  @Test
+  void test_database_flag_is_read_once_then_cached() {
+    when(userRepository.findByEmail("cgaucho@ucsb.edu")).thenReturn(Optional.of(admin));
+    when(userRepository.findByEmail("ldelplaya@ucsb.edu")).thenReturn(Optional.of(notAdmin));
+
+    assertTrue(adminStatusService.getAdmin("cgaucho@ucsb.edu"));
+    assertTrue(adminStatusService.getAdmin("cgaucho@ucsb.edu"));
+    assertFalse(adminStatusService.getAdmin("ldelplaya@ucsb.edu"));
+    assertFalse(adminStatusService.getAdmin("ldelplaya@ucsb.edu"));
+
+    verify(userRepository, times(1)).findByEmail("cgaucho@ucsb.edu");
+    verify(userRepository, times(1)).findByEmail("ldelplaya@ucsb.edu");
+    assertEquals(2L, adminStatusService.getStatistics().getHitCount());
+  }
+
+  @Test
+  void test_unknown_user_is_not_an_admin() {
+    when(userRepository.findByEmail("nobody@ucsb.edu")).thenReturn(Optional.empty());
+
+    assertFalse(adminStatusService.getAdmin("nobody@ucsb.edu"));
+  }
+
+  @Test
+  void test_invalidate_forces_a_fresh_read() {
+    when(userRepository.findByEmail("ldelplaya@ucsb.edu")).thenReturn(Optional.of(notAdmin));
+    assertFalse(adminStatusService.getAdmin("ldelplaya@ucsb.edu"));
+
+    User promoted = User.builder().id(2L).email("ldelplaya@ucsb.edu").admin(true).build();
+    when(userRepository.findByEmail("ldelplaya@ucsb.edu")).thenReturn(Optional.of(promoted));
+    assertFalse(adminStatusService.getAdmin("ldelplaya@ucsb.edu"));
+
+    adminStatusService.invalidate("ldelplaya@ucsb.edu");
+
+    assertTrue(adminStatusService.getAdmin("ldelplaya@ucsb.edu"));
+    verify(userRepository, times(2)).findByEmail("ldelplaya@ucsb.edu");
+  }
+}
@@ -0,0 +1,357 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.models.ArticleSearchResult;
+import edu.ucsb.cs156.example.models.ArticleTableState;
+import edu.ucsb.cs156.example.repositories.ArticleRepository;
+
+@ExtendWith(SpringExtension.class)
+@Import({ ArticleSearchIndex.class, JacksonAutoConfiguration.class })
+class ArticleSearchIndexTests {
+
+  @MockBean
+  private ArticleRepository articleRepository;
+
+  @Autowired
+  private ArticleSearchIndex articleSearchIndex;
+
+  @Autowired
+  private ObjectMapper mapper;
+
+  @TempDir
+  private Path tempDir;
+
+  private static Article article(long id, String title, String explanation) {
+    return Article.builder()
+        .id(id).title(title).explanation(explanation).url("https://example.org/" + id).email("cgaucho@ucsb.edu")
+        .dateAdded(LocalDateTime.parse("2024-01-03T00:00:00"))
+        .updatedAt(Instant.parse("2024-01-03T00:00:00Z").plusSeconds(id)).build();
+  }
+
+  private final Article springBoot = article(1, "Spring Boot", "A guide to writing web services with spring");
+  private final Article testing = article(2, "Testing", "How to test a spring controller with mock mvc");
+  private final Article hooks = article(3, "React hooks", "State and effects in function components");
+
+  private void reload(Article... articles) {
+    when(articleRepository.findAll()).thenReturn(List.of(articles));
+    articleSearchIndex.reload();
+  }
+
+  private static List<Long> ids(List<ArticleSearchResult> results) {
+    return results.stream().map(result -> result.getArticle().getId()).toList();
+  }
+
+  /** the controller wrote an article, and reports it */
+  private void written(ArticleSearchIndex index, Article article) {
+    when(articleRepository.findById(Long.toString(article.getId()))).thenReturn(Optional.of(article));
+    index.refresh(article.getId());
+  }
+
+  /** the controller deleted an article, and reports it */
+  private void deleted(ArticleSearchIndex index, long id) {
+    when(articleRepository.findById(Long.toString(id))).thenReturn(Optional.empty());
+    index.refresh(id);
+  }
+
+  private ArticleSearchIndex indexWithSnapshot(Path snapshot) {
+    ArticleSearchIndex index = new ArticleSearchIndex(articleRepository, mapper);
+    index.snapshotFile = snapshot.toString();
+    return index;
+  }
+
+  @Test
+  void search_scores_matching_articles_by_bm25() {
+    reload(article(1, "Gauchos", null), article(2, null, "gauchos win games"));
+
+    List<ArticleSearchResult> results = articleSearchIndex.search("gauchos", 10);
+
+    // two articles, both contain the term; the average length is (2 + 3) / 2
+    double idf = Math.log(1 + 0.5 / 2.5);
+    assertEquals(List.of(1L, 2L), ids(results));
+    assertEquals(idf * 2 * 2.2 / (2 + 1.2 * (0.25 + 0.75 * 2 / 2.5)), results.get(0).getScore(), 1e-9);
+    assertEquals(idf * 1 * 2.2 / (1 + 1.2 * (0.25 + 0.75 * 3 / 2.5)), results.get(1).getScore(), 1e-9);
+  }
+
+  @Test
+  void search_matches_any_term_ignoring_case_and_punctuation() {
+    reload(springBoot, testing, hooks);
+
+    assertEquals(List.of(1L, 2L), ids(articleSearchIndex.search("SPRING,", 10)));
+    assertEquals(List.of(3L, 2L), ids(articleSearchIndex.search("hooks? mock!", 10)));
+  }
+
+  @Test
+  void title_matches_and_rare_terms_rank_higher() {
+    reload(springBoot, testing, hooks, article(4, "Components", "Writing spring components"));
+
+    // spring is in three articles, components in two: the rarer term decides
+    assertEquals(List.of(4L, 3L, 1L, 2L), ids(articleSearchIndex.search("spring components", 10)));
+
+    reload(article(6, "Explained simply", "mock objects"), article(5, "Mock objects", "explained simply"));
+    assertEquals(List.of(5L, 6L), ids(articleSearchIndex.search("mock", 10)));
+  }
+
+  @Test
+  void equal_scores_are_returned_in_id_order() {
+    reload(article(8, "Storke Tower", null), article(5, "Storke Tower", null), article(6, "Storke Tower", null));
+
+    assertEquals(List.of(5L, 6L, 8L), ids(articleSearchIndex.search("storke", 10)));
+    assertEquals(List.of(5L, 6L), ids(articleSearchIndex.search("storke", 2)));
+  }
+
+  @Test
+  void search_returns_nothing_for_a_limit_below_one_or_a_query_without_terms() {
+    reload(springBoot, testing, hooks);
+
+    assertEquals(List.of(1L), ids(articleSearchIndex.search("spring", 1)));
+    assertEquals(List.of(), articleSearchIndex.search("spring", 0));
+    assertEquals(List.of(), articleSearchIndex.search(" ,;- ", 10));
+    assertEquals(List.of(), articleSearchIndex.search(null, 10));
+    assertEquals(List.of(), articleSearchIndex.search("angular", 10));
+  }
+
+  @Test
+  void written_articles_replace_their_earlier_version_and_deleted_articles_are_removed() {
+    reload(springBoot, testing);
+
+    written(articleSearchIndex, article(2, "Testing", "How to test a controller with mock mvc"));
+    written(articleSearchIndex, hooks);
+    deleted(articleSearchIndex, 1);
+    deleted(articleSearchIndex, 99);
+
+    assertEquals(List.of(), articleSearchIndex.search("spring", 10));
+    assertEquals(List.of(2L), ids(articleSearchIndex.search("controller", 10)));
+    assertEquals(List.of(3L), ids(articleSearchIndex.search("react", 10)));
+    assertEquals("How to test a controller with mock mvc",
+        articleSearchIndex.search("mvc", 10).get(0).getArticle().getExplanation());
+  }
+
+  @Test
+  void a_written_article_is_indexed_as_it_is_in_the_table_whatever_order_writers_report_it_in() {
+    reload(springBoot, testing);
+    Article first = article(2, "Testing", "How to test a controller with mock mvc");
+    Article second = article(2, "Testing", "How to test a controller with a slice test");
+    when(articleRepository.findById("2")).thenReturn(Optional.of(second));
+
+    // both writes are committed before either is reported, the later one first
+    articleSearchIndex.refresh(second.getId());
+    articleSearchIndex.refresh(first.getId());
+
+    assertEquals(List.of(), articleSearchIndex.search("mvc", 10));
+    assertEquals(List.of(2L), ids(articleSearchIndex.search("slice", 10)));
+  }
+
+  @Test
+  void an_up_to_date_snapshot_is_loaded_without_reading_the_table() throws IOException {
+    Path snapshot = tempDir.resolve("snapshots/articles.json");
+    when(articleRepository.findAll()).thenReturn(List.of(springBoot, testing, hooks));
+    ArticleSearchIndex written = indexWithSnapshot(snapshot);
+    written.load();
+    written.writeSnapshot();
+    assertTrue(Files.exists(snapshot));
+
+    clearInvocations(articleRepository);
+    when(articleRepository.tableState()).thenReturn(new ArticleTableState(3, hooks.getUpdatedAt()));
+    ArticleSearchIndex loaded = indexWithSnapshot(snapshot);
+    loaded.load();
+
+    verify(articleRepository, never()).findAll();
+    assertEquals(written.search("spring mock", 10), loaded.search("spring mock", 10));
+    // nothing changed, so there is nothing to write
+    Files.delete(snapshot);
+    loaded.writeSnapshot();
+    assertFalse(Files.exists(snapshot));
+  }
+
+  @Test
+  void an_out_of_date_snapshot_is_rebuilt_from_the_table_reusing_unchanged_articles() throws IOException {
+    Path snapshot = tempDir.resolve("articles.json");
+    when(articleRepository.findAll()).thenReturn(List.of(springBoot, testing, hooks));
+    ArticleSearchIndex written = indexWithSnapshot(snapshot);
+    written.load();
+    written.writeSnapshot();
+
+    // an edit through the controller, then a crash before the snapshot is written again
+    Article edited = article(2, "Testing", "How to test a controller with a slice test");
+    edited.setUpdatedAt(Instant.parse("2024-02-01T00:00:00Z"));
+    when(articleRepository.findAll()).thenReturn(List.of(springBoot, edited, hooks));
+    when(articleRepository.tableState()).thenReturn(new ArticleTableState(3, edited.getUpdatedAt()));
+    ArticleSearchIndex loaded = indexWithSnapshot(snapshot);
+    loaded.load();
+
+    assertEquals(List.of(), loaded.search("mvc", 10));
+    assertSame(edited, loaded.search("slice", 10).get(0).getArticle());
+    // the unchanged article came from the snapshot, not from the table
+    assertEquals(springBoot, loaded.search("boot", 10).get(0).getArticle());
+    assertNotSame(springBoot, loaded.search("boot", 10).get(0).getArticle());
+    // and the snapshot is rewritten to match
+    Files.delete(snapshot);
+    loaded.writeSnapshot();
+    assertTrue(Files.exists(snapshot));
+  }
+
+  @Test
+  void a_snapshot_is_out_of_date_when_an_article_was_deleted_after_it() {
+    Path snapshot = tempDir.resolve("articles.json");
+    when(articleRepository.findAll()).thenReturn(List.of(springBoot, testing, hooks));
+    ArticleSearchIndex written = indexWithSnapshot(snapshot);
+    written.load();
+    written.writeSnapshot();
+
+    when(articleRepository.findAll()).thenReturn(List.of(springBoot, testing));
+    when(articleRepository.tableState()).thenReturn(new ArticleTableState(2, hooks.getUpdatedAt()));
+    ArticleSearchIndex loaded = indexWithSnapshot(snapshot);
+    loaded.load();
+
+    assertEquals(List.of(), loaded.search("hooks", 10));
+    assertEquals(List.of(1L, 2L), ids(loaded.search("spring", 10)));
+  }
+
+  @Test
+  void the_index_is_built_from_the_table_when_the_snapshot_is_missing_or_unreadable() throws IOException {
+    Path snapshot = tempDir.resolve("articles.json");
+    Files.writeString(snapshot, "{ not json");
+    when(articleRepository.findAll()).thenReturn(List.of(springBoot, testing));
+
+    ArticleSearchIndex unreadable = indexWithSnapshot(snapshot);
+    unreadable.load();
+    ArticleSearchIndex missing = indexWithSnapshot(tempDir.resolve("missing.json"));
+    missing.load();
+
+    verify(articleRepository, never()).tableState();
+    assertSame(springBoot, unreadable.search("boot", 10).get(0).getArticle());
+    assertEquals(List.of(1L, 2L), ids(missing.search("spring", 10)));
+  }
+
+  @Test
+  void a_snapshot_of_articles_without_an_update_time_matches_only_a_table_without_one() {
+    Path snapshot = tempDir.resolve("articles.json");
+    Article untimed = article(1, "Spring Boot", "A guide to writing web services with spring");
+    untimed.setUpdatedAt(null);
+    when(articleRepository.findAll()).thenReturn(List.of(untimed));
+    ArticleSearchIndex written = indexWithSnapshot(snapshot);
+    written.load();
+    written.writeSnapshot();
+
+    clearInvocations(articleRepository);
+    when(articleRepository.tableState()).thenReturn(new ArticleTableState(1, null));
+    indexWithSnapshot(snapshot).load();
+    verify(articleRepository, never()).findAll();
+
+    when(articleRepository.tableState()).thenReturn(new ArticleTableState(1, springBoot.getUpdatedAt()));
+    indexWithSnapshot(snapshot).load();
+    verify(articleRepository).findAll();
+  }
+
+  @Test
+  void reload_reuses_the_terms_of_unchanged_articles() {
+    ArticleSearchIndex index = new ArticleSearchIndex(articleRepository, mapper);
+    when(articleRepository.findAll()).thenReturn(List.of(springBoot, testing));
+    index.reload();
+    Article springBootRow = article(1, "Spring Boot", "A guide to writing web services with spring");
+    Article editedRow = article(2, "Testing", "How to test a controller with a slice test");
+
+    when(articleRepository.findAll()).thenReturn(List.of(springBootRow, editedRow));
+    index.reload();
+
+    assertSame(springBoot, index.search("boot", 10).get(0).getArticle());
+    assertSame(editedRow, index.search("slice", 10).get(0).getArticle());
+    assertEquals(List.of(1L), ids(index.search("spring", 10)));
+  }
+
+  @Test
+  void a_change_reported_during_a_rebuild_is_applied_after_it() throws InterruptedException {
+    ArticleSearchIndex index = new ArticleSearchIndex(articleRepository, mapper);
+    when(articleRepository.findById("3")).thenReturn(Optional.empty());
+    Thread deleter = new Thread(() -> index.refresh(3));
+    // hooks is deleted, and reported, while the rebuild is reading the table from before the delete
+    when(articleRepository.findAll()).thenAnswer(invocation -> {
+      deleter.start();
+      while (deleter.getState() != Thread.State.WAITING) {
+        Thread.onSpinWait();
+      }
+      return List.of(springBoot, testing, hooks);
+    });
+
+    index.reload();
+    deleter.join();
+
+    assertEquals(List.of(), index.search("hooks", 10));
+    assertEquals(List.of(1L, 2L), ids(index.search("spring", 10)));
+  }
+
+  @Test
+  void the_snapshot_is_written_only_after_a_change() throws IOException {
+    Path snapshot = tempDir.resolve("articles.json");
+    ArticleSearchIndex index = indexWithSnapshot(snapshot);
+    index.load();
+
+    // there was no snapshot, so the index was built from the table
+    index.writeSnapshot();
+    assertTrue(Files.exists(snapshot));
+    Files.delete(snapshot);
+
+    index.writeSnapshot();
+    assertFalse(Files.exists(snapshot));
+
+    written(index, springBoot);
+    index.writeSnapshot();
+    assertTrue(Files.exists(snapshot));
+    Files.delete(snapshot);
+
+    deleted(index, 1);
+    index.writeSnapshot();
+    assertTrue(Files.exists(snapshot));
+  }
+
+  @Test
+  void a_snapshot_that_cannot_be_written_is_tried_again() throws IOException {
+    Path blocked = Files.createFile(tempDir.resolve("blocked"));
+    ArticleSearchIndex index = indexWithSnapshot(blocked.resolve("articles.json"));
+    written(index, springBoot);
+
+    index.writeSnapshot();
+
+    index.snapshotFile = tempDir.resolve("articles.json").toString();
+    index.writeSnapshot();
+    assertTrue(Files.exists(tempDir.resolve("articles.json")));
+  }
+
+  @Test
+  void no_snapshot_is_written_when_none_is_configured() {
+    written(articleSearchIndex, springBoot);
+
+    articleSearchIndex.writeSnapshot();
+
+    assertEquals("", articleSearchIndex.snapshotFile);
+  }
+}
@@ -0,0 +1,195 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.errors.InvalidBulkRequestException;
+import edu.ucsb.cs156.example.models.BulkResult;
+import edu.ucsb.cs156.example.models.BulkRowResult;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+
+@ExtendWith(SpringExtension.class)
+@Import({ BulkImportService.class, JacksonAutoConfiguration.class })
+@TestPropertySource(properties = {
+    "app.bulk.chunkSize=2",
+    "app.bulk.maxRows=5"
+})
+class BulkImportServiceTests {
+
+  @MockBean
+  private RestaurantRepository restaurantRepository;
+
+  @MockBean
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private BulkImportService bulkImportService;
+
+  @BeforeEach
+  void resetMocks() {
+    clearInvocations(restaurantRepository, transactionManager);
+    when(restaurantRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  private static InputStream body(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static List<Restaurant> restaurants(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> Restaurant.builder().id(i + 1).name("Restaurant " + i).description("Description " + i).build())
+        .toList();
+  }
+
+  private BulkResult save(List<Restaurant> rows) {
+    return bulkImportService.saveRows(rows, restaurantRepository,
+        restaurant -> BulkImportService.missing("name", restaurant.getName()), Restaurant::getId);
+  }
+
+  @Test
+  void test_readRows_reads_a_json_array() throws Exception {
+    List<Restaurant> rows = bulkImportService.readRows(
+        body("[{\"name\": \"Freebirds\", \"description\": \"Burritos\"}, {\"name\": \"Woodstocks\"}]"), Restaurant.class);
+
+    assertEquals(2, rows.size());
+    assertEquals("Freebirds", rows.get(0).getName());
+    assertEquals("Woodstocks", rows.get(1).getName());
+  }
+
+  @Test
+  void test_readRows_reads_ndjson() throws Exception {
+    List<Restaurant> rows = bulkImportService.readRows(
+        body("{\"name\": \"Freebirds\"}\n{\"name\": \"Woodstocks\"}\n\n{\"name\": \"IV Deli\"}\n"), Restaurant.class);
+
+    assertEquals(List.of("Freebirds", "Woodstocks", "IV Deli"), rows.stream().map(Restaurant::getName).toList());
+  }
+
+  @Test
+  void test_readRows_of_an_empty_body_is_empty() throws Exception {
+    assertEquals(List.of(), bulkImportService.readRows(body(""), Restaurant.class));
+  }
+
+  @Test
+  void test_readRows_rejects_more_than_maxRows() {
+    InvalidBulkRequestException e = assertThrows(InvalidBulkRequestException.class,
+        () -> bulkImportService.readRows(body("[{},{},{},{},{},{}]"), Restaurant.class));
+
+    assertEquals("At most 5 rows may be sent in one request", e.getMessage());
+  }
+
+  @Test
+  void test_readRows_reports_the_row_that_could_not_be_read() {
+    InvalidBulkRequestException e = assertThrows(InvalidBulkRequestException.class,
+        () -> bulkImportService.readRows(body("{\"name\": \"Freebirds\"}\n{\"name\": \"Woodstocks\"}\n{\"name\": }"), Restaurant.class));
+
+    assertEquals(true, e.getMessage().startsWith("Row 2 could not be read: "));
+  }
+
+  @Test
+  void test_saveRows_saves_valid_rows_in_chunks_of_one_transaction_each() {
+    BulkResult result = save(restaurants(5));
+
+    verify(restaurantRepository, times(3)).saveAll(any());
+    verify(transactionManager, times(3)).commit(any());
+    assertEquals(5, result.getReceived());
+    assertEquals(5, result.getCreated());
+    assertEquals(List.of(1L, 2L, 3L, 4L, 5L), result.getRows().stream().map(BulkRowResult::getId).toList());
+  }
+
+  @Test
+  void test_saveRows_does_not_save_invalid_rows() {
+    List<Restaurant> rows = List.of(
+        Restaurant.builder().id(1).name("Freebirds").build(),
+        Restaurant.builder().id(2).build(),
+        Restaurant.builder().id(3).name("Woodstocks").build());
+
+    BulkResult result = save(rows);
+
+    verify(restaurantRepository).saveAll(List.of(rows.get(0), rows.get(2)));
+    assertEquals(2, result.getCreated());
+    assertEquals(1, result.getInvalid());
+    assertEquals(BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("name is required")).build(),
+        result.getRows().get(1));
+  }
+
+  @Test
+  void test_saveRows_marks_a_rejected_chunk_as_failed_and_keeps_going() {
+    List<Restaurant> rows = restaurants(5);
+    when(restaurantRepository.saveAll(List.of(rows.get(2), rows.get(3))))
+        .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+    BulkResult result = save(rows);
+
+    assertEquals(3, result.getCreated());
+    assertEquals(2, result.getFailed());
+    assertEquals(List.of(BulkRowResult.CREATED, BulkRowResult.CREATED, BulkRowResult.FAILED, BulkRowResult.FAILED, BulkRowResult.CREATED),
+        result.getRows().stream().map(BulkRowResult::getStatus).toList());
+    assertEquals(List.of("duplicate key"), result.getRows().get(2).getErrors());
+  }
+
+  @Test
+  void test_saveRows_marks_a_chunk_that_fails_to_commit_as_failed() {
+    doThrow(new TransactionSystemException("could not commit")).when(transactionManager).commit(any());
+
+    BulkResult result = save(restaurants(1));
+
+    assertEquals(1, result.getFailed());
+    assertEquals(List.of("could not commit"), result.getRows().get(0).getErrors());
+  }
+
+  @Test
+  void test_saveNewRows_does_not_overwrite_existing_or_repeated_keys() {
+    List<Restaurant> rows = List.of(
+        Restaurant.builder().id(1).name("Freebirds").build(),
+        Restaurant.builder().id(2).name("Woodstocks").build(),
+        Restaurant.builder().id(1).name("Freebirds again").build(),
+        Restaurant.builder().id(3).name("IV Deli").build());
+    when(restaurantRepository.findAllById(List.of(1L, 2L)))
+        .thenReturn(List.of(Restaurant.builder().id(2).name("Woodstocks Pizza").build()));
+
+    BulkResult result = bulkImportService.saveNewRows(rows, restaurantRepository,
+        restaurant -> BulkImportService.missing("name", restaurant.getName()), Restaurant::getId);
+
+    verify(restaurantRepository).saveAll(List.of(rows.get(0)));
+    verify(restaurantRepository).saveAll(List.of(rows.get(3)));
+    assertEquals(List.of(
+        BulkRowResult.builder().index(0).status(BulkRowResult.CREATED).id(1L).build(),
+        BulkRowResult.builder().index(1).status(BulkRowResult.INVALID).errors(List.of("2 already exists")).build(),
+        BulkRowResult.builder().index(2).status(BulkRowResult.INVALID)
+            .errors(List.of("1 appears more than once in the request")).build(),
+        BulkRowResult.builder().index(3).status(BulkRowResult.CREATED).id(3L).build()),
+        result.getRows());
+  }
+
+  @Test
+  void test_missing_lists_null_fields() {
+    assertEquals(List.of("name is required", "dateAdded is required"),
+        BulkImportService.missing("name", null, "url", "https://example.org", "dateAdded", null));
+  }
+}
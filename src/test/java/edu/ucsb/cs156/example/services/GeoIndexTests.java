@@ -0,0 +1,126 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+class GeoIndexTests {
+
+  private record Place(String name, Double latitude, Double longitude) {
+  }
+
+  private static GeoIndex<Place> index(List<Place> places) {
+    return GeoIndex.of(places, Place::latitude, Place::longitude);
+  }
+
+  private static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a = Math.pow(Math.sin(dLat / 2), 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+    return 2 * GeoIndex.EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+  }
+
+  /** every place, with its distance from the point, nearest first: what the index must agree with */
+  private static List<GeoIndex.Neighbor<Place>> scan(List<Place> places, double latitude, double longitude,
+      Predicate<Place> filter) {
+    return places.stream()
+        .filter(filter)
+        .map(place -> new GeoIndex.Neighbor<>(place,
+            haversineMeters(latitude, longitude, place.latitude(), place.longitude())))
+        .sorted(Comparator.comparingDouble(GeoIndex.Neighbor::distanceMeters))
+        .toList();
+  }
+
+  private static List<String> names(List<GeoIndex.Neighbor<Place>> neighbors) {
+    return neighbors.stream().map(neighbor -> neighbor.item().name()).toList();
+  }
+
+  private static List<Place> randomPlaces(Random random, int count) {
+    List<Place> places = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      places.add(new Place("p" + i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+    }
+    return places;
+  }
+
+  private final Place carrillo = new Place("carrillo", 34.409953, -119.85277);
+  private final Place ortega = new Place("ortega", 34.410987, -119.84709);
+  private final Place portola = new Place("portola", 34.417723, -119.867427);
+  private final Place deLaGuerra = new Place("de-la-guerra", 34.409811, -119.845026);
+  private final Place nowhere = new Place("nowhere", null, -119.8);
+  private final Place nowhereElse = new Place("nowhere-else", 34.4, null);
+
+  @Test
+  void nearest_finds_the_closest_places_with_their_great_circle_distances() {
+    GeoIndex<Place> index = index(List.of(carrillo, ortega, portola, deLaGuerra, nowhere));
+
+    // Storke Tower
+    List<GeoIndex.Neighbor<Place>> nearest = index.nearest(34.412603, -119.848456, 2, place -> true);
+
+    assertEquals(List.of("ortega", "de-la-guerra"), names(nearest));
+    assertEquals(haversineMeters(34.412603, -119.848456, ortega.latitude(), ortega.longitude()),
+        nearest.get(0).distanceMeters(), 1e-6);
+  }
+
+  @Test
+  void nearest_skips_places_that_do_not_pass_the_filter() {
+    GeoIndex<Place> index = index(List.of(carrillo, ortega, portola, deLaGuerra));
+
+    List<GeoIndex.Neighbor<Place>> nearest = index.nearest(34.412603, -119.848456, 1,
+        place -> place.name().startsWith("p"));
+
+    assertEquals(List.of("portola"), names(nearest));
+  }
+
+  @Test
+  void nearest_returns_nothing_for_a_limit_below_one_or_an_empty_index() {
+    assertEquals(List.of(), index(List.of(carrillo)).nearest(34.4, -119.8, 0, place -> true));
+    assertEquals(List.of(), index(List.of(nowhere, nowhereElse)).nearest(34.4, -119.8, 1, place -> true));
+  }
+
+  @Test
+  void within_finds_the_places_inside_the_radius_nearest_first() {
+    GeoIndex<Place> index = index(List.of(carrillo, ortega, portola, deLaGuerra, nowhere));
+
+    assertEquals(List.of("ortega", "de-la-guerra", "carrillo"),
+        names(index.within(34.412603, -119.848456, 1000, place -> true)));
+    assertEquals(List.of("de-la-guerra"),
+        names(index.within(34.412603, -119.848456, 1000, place -> place.name().startsWith("d"))));
+    assertEquals(List.of(), index.within(34.412603, -119.848456, -5, place -> true));
+  }
+
+  @Test
+  void nearest_and_within_agree_with_a_full_scan() {
+    Random random = new Random(156);
+    List<Place> places = randomPlaces(random, 500);
+    GeoIndex<Place> index = index(places);
+    Predicate<Place> even = place -> Integer.parseInt(place.name().substring(1)) % 2 == 0;
+
+    for (int query = 0; query < 200; query++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+      Predicate<Place> filter = query % 2 == 0 ? place -> true : even;
+      List<GeoIndex.Neighbor<Place>> expected = scan(places, latitude, longitude, filter);
+
+      assertEquals(names(expected.subList(0, 5)), names(index.nearest(latitude, longitude, 5, filter)));
+
+      double radius = 1_000_000 + random.nextDouble() * 2_000_000;
+      List<String> inside = names(expected.stream().filter(neighbor -> neighbor.distanceMeters() <= radius).toList());
+      assertEquals(inside, names(index.within(latitude, longitude, radius, filter)));
+    }
+  }
+
+  @Test
+  void a_radius_beyond_the_antipode_covers_the_whole_earth() {
+    List<Place> places = randomPlaces(new Random(42), 50);
+
+    assertEquals(50, index(places).within(0, 0, 1e9, place -> true).size());
+  }
+}
@@ -0,0 +1,306 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+
+@ExtendWith(SpringExtension.class)
+@Import(HelpRequestQueueService.class)
+@TestPropertySource(properties = "app.helpRequestQueue.subscriberBacklog=3")
+class HelpRequestQueueServiceTests {
+
+  @MockBean
+  private HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  private HelpRequestQueueService helpRequestQueueService;
+
+  /**
+   * an emitter that records each event sent to it as "name:data" (or ":comment"), or fails when broken,
+   * and keeps its callbacks, which are only run by Spring MVC once a response is attached
+   */
+  private static class RecordingEmitter extends SseEmitter {
+    final List<String> events = new ArrayList<>();
+    boolean broken;
+    boolean completed;
+    Runnable completionCallback;
+    Runnable timeoutCallback;
+    Consumer<Throwable> errorCallback;
+
+    @Override
+    public void onCompletion(Runnable callback) {
+      completionCallback = callback;
+    }
+
+    @Override
+    public void onTimeout(Runnable callback) {
+      timeoutCallback = callback;
+    }
+
+    @Override
+    public void onError(Consumer<Throwable> callback) {
+      errorCallback = callback;
+    }
+
+    @Override
+    public void complete() {
+      completed = true;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      if (broken) {
+        throw new IOException("Broken pipe");
+      }
+      events.add(builder.build().stream()
+          .map(item -> item.getData() instanceof String text ? text : describe(item.getData()))
+          .collect(Collectors.joining())
+          .replaceAll("(?m)^event:(.*)\ndata:", "$1:")
+          .strip());
+    }
+
+    private static String describe(Object data) {
+      if (data instanceof List<?> requests) {
+        return requests.stream().map(HelpRequestQueueServiceTests::describe).toList().toString();
+      }
+      return data instanceof HelpRequest helpRequest ? HelpRequestQueueServiceTests.describe(helpRequest) : data.toString();
+    }
+  }
+
+  private static String describe(Object helpRequest) {
+    return "#" + ((HelpRequest) helpRequest).getId();
+  }
+
+  private static HelpRequest helpRequest(long id, String requestTime, boolean solved) {
+    return HelpRequest.builder()
+        .id(id)
+        .requesterEmail("cgaucho@ucsb.edu")
+        .teamId("s22-5pm-3")
+        .tableOrBreakoutRoom("7")
+        .requestTime(requestTime == null ? null : LocalDateTime.parse(requestTime))
+        .explanation("Need help with Swagger-ui")
+        .solved(solved)
+        .build();
+  }
+
+  /** the rows findById reads; written with save and delete */
+  private final Map<Long, HelpRequest> table = new HashMap<>();
+
+  private void save(HelpRequest helpRequest) {
+    table.put(helpRequest.getId(), helpRequest);
+    helpRequestQueueService.refresh(helpRequest.getId());
+  }
+
+  private void delete(long id) {
+    table.remove(id);
+    helpRequestQueueService.refresh(id);
+  }
+
+  /** sends queued by the service, run when the test chooses */
+  private final List<Runnable> pendingSends = new ArrayList<>();
+
+  @BeforeEach
+  void sendImmediately() {
+    helpRequestQueueService.senders = Runnable::run;
+  }
+
+  @BeforeEach
+  void readRowsFromTheTable() {
+    when(helpRequestRepository.findById(anyLong()))
+        .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<Long>getArgument(0))));
+  }
+
+  private void runPendingSends() {
+    List<Runnable> sends = new ArrayList<>(pendingSends);
+    pendingSends.clear();
+    sends.forEach(Runnable::run);
+  }
+
+  private List<Long> queueIds() {
+    return helpRequestQueueService.openRequests().stream().map(HelpRequest::getId).toList();
+  }
+
+  @Test
+  void reload_queues_the_unsolved_requests_oldest_first() {
+    when(helpRequestRepository.findBySolvedFalse()).thenReturn(List.of(
+        helpRequest(3, "2024-01-03T10:05:00", false),
+        helpRequest(1, null, false),
+        helpRequest(2, "2024-01-03T10:00:00", false),
+        helpRequest(4, "2024-01-03T10:00:00", false)));
+
+    helpRequestQueueService.reload();
+
+    assertEquals(List.of(2L, 4L, 3L, 1L), queueIds());
+    assertThrows(UnsupportedOperationException.class, () -> helpRequestQueueService.openRequests().clear());
+  }
+
+  @Test
+  void written_requests_join_move_and_leave_the_queue() {
+    when(helpRequestRepository.findBySolvedFalse()).thenReturn(List.of(
+        helpRequest(1, "2024-01-03T10:00:00", false),
+        helpRequest(2, "2024-01-03T10:10:00", false)));
+    helpRequestQueueService.reload();
+
+    save(helpRequest(3, "2024-01-03T10:05:00", false));
+    assertEquals(List.of(1L, 3L, 2L), queueIds());
+
+    save(helpRequest(1, "2024-01-03T10:20:00", false));
+    assertEquals(List.of(3L, 2L, 1L), queueIds());
+
+    save(helpRequest(3, "2024-01-03T10:05:00", true));
+    save(helpRequest(9, "2024-01-03T10:05:00", true));
+    assertEquals(List.of(2L, 1L), queueIds());
+
+    delete(2);
+    delete(9);
+    assertEquals(List.of(1L), queueIds());
+  }
+
+  @Test
+  void refresh_keeps_the_request_as_it_is_in_the_table_whatever_order_writers_report_it_in() {
+    when(helpRequestRepository.findBySolvedFalse()).thenReturn(List.of());
+    helpRequestQueueService.reload();
+
+    // one writer saves #4 unsolved, a second solves it, and then they report in the opposite order
+    table.put(4L, helpRequest(4, "2024-01-03T10:00:00", false));
+    table.put(4L, helpRequest(4, "2024-01-03T10:00:00", true));
+    helpRequestQueueService.refresh(4);
+    helpRequestQueueService.refresh(4);
+
+    assertEquals(List.of(), queueIds());
+  }
+
+  @Test
+  void subscribers_get_the_queue_then_each_change_in_order() {
+    when(helpRequestRepository.findBySolvedFalse()).thenReturn(List.of(helpRequest(1, "2024-01-03T10:00:00", false)));
+    helpRequestQueueService.reload();
+    RecordingEmitter emitter = new RecordingEmitter();
+
+    helpRequestQueueService.subscribe(emitter);
+    save(helpRequest(2, "2024-01-03T10:05:00", false));
+    save(helpRequest(1, "2024-01-03T10:00:00", true));
+    save(helpRequest(7, "2024-01-03T10:00:00", true));
+    delete(2);
+    delete(2);
+    helpRequestQueueService.heartbeat();
+    helpRequestQueueService.reload();
+
+    assertEquals(List.of("queue:[#1]", "saved:#2", "removed:1", "removed:2", ":heartbeat", "queue:[#1]"),
+        emitter.events);
+    emitter.completionCallback.run();
+  }
+
+  @Test
+  void subscribers_that_cannot_be_written_to_are_dropped() {
+    RecordingEmitter healthy = new RecordingEmitter();
+    RecordingEmitter broken = new RecordingEmitter();
+    helpRequestQueueService.subscribe(healthy);
+    helpRequestQueueService.subscribe(broken);
+    assertEquals(2, helpRequestQueueService.subscriberCount());
+
+    broken.broken = true;
+    helpRequestQueueService.heartbeat();
+    assertEquals(1, helpRequestQueueService.subscriberCount());
+
+    RecordingEmitter brokenFromTheStart = new RecordingEmitter();
+    brokenFromTheStart.broken = true;
+    helpRequestQueueService.subscribe(brokenFromTheStart);
+    assertEquals(1, helpRequestQueueService.subscriberCount());
+
+    healthy.completionCallback.run();
+  }
+
+  @Test
+  void subscribers_are_dropped_when_their_stream_ends() {
+    RecordingEmitter completed = new RecordingEmitter();
+    RecordingEmitter timedOut = new RecordingEmitter();
+    RecordingEmitter failed = new RecordingEmitter();
+    helpRequestQueueService.subscribe(completed);
+    helpRequestQueueService.subscribe(timedOut);
+    helpRequestQueueService.subscribe(failed);
+
+    completed.completionCallback.run();
+    timedOut.timeoutCallback.run();
+    failed.errorCallback.accept(new IOException("Connection reset"));
+
+    assertEquals(0, helpRequestQueueService.subscriberCount());
+  }
+
+  @Test
+  void changes_do_not_wait_for_a_slow_subscriber() {
+    when(helpRequestRepository.findBySolvedFalse()).thenReturn(List.of());
+    helpRequestQueueService.reload();
+    helpRequestQueueService.senders = pendingSends::add;
+    RecordingEmitter slow = new RecordingEmitter();
+
+    helpRequestQueueService.subscribe(slow);
+    save(helpRequest(1, "2024-01-03T10:00:00", false));
+    save(helpRequest(2, "2024-01-03T10:05:00", false));
+
+    assertEquals(List.of(1L, 2L), queueIds());
+    assertEquals(List.of(), slow.events);
+    assertEquals(1, pendingSends.size());
+
+    runPendingSends();
+    assertEquals(List.of("queue:[]", "saved:#1", "saved:#2"), slow.events);
+
+    delete(1);
+    runPendingSends();
+    assertEquals(List.of("queue:[]", "saved:#1", "saved:#2", "removed:1"), slow.events);
+    slow.completionCallback.run();
+  }
+
+  @Test
+  void subscribers_that_fall_too_far_behind_are_dropped() {
+    when(helpRequestRepository.findBySolvedFalse()).thenReturn(List.of());
+    helpRequestQueueService.reload();
+    helpRequestQueueService.senders = pendingSends::add;
+    RecordingEmitter stalled = new RecordingEmitter();
+    helpRequestQueueService.subscribe(stalled);
+
+    save(helpRequest(1, "2024-01-03T10:00:00", false));
+    save(helpRequest(2, "2024-01-03T10:05:00", false));
+    assertEquals(1, helpRequestQueueService.subscriberCount());
+    save(helpRequest(3, "2024-01-03T10:10:00", false));
+
+    assertTrue(stalled.completed);
+    assertEquals(0, helpRequestQueueService.subscriberCount());
+    assertEquals(List.of(1L, 2L, 3L), queueIds());
+  }
+
+  @Test
+  void sends_run_on_virtual_threads_by_default() throws Exception {
+    CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+
+    new HelpRequestQueueService(helpRequestRepository).senders.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+
+    assertTrue(virtual.get(10, TimeUnit.SECONDS));
+  }
+}
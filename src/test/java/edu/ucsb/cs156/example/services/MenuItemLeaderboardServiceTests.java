@@ -0,0 +1,104 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.MenuItemRanking;
+import edu.ucsb.cs156.example.models.RatingStatistics;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+
+@ExtendWith(SpringExtension.class)
+@Import(MenuItemLeaderboardService.class)
+@TestPropertySource(properties = { "app.menuItemLeaderboard.size=3", "app.menuItemLeaderboard.minReviews=2" })
+class MenuItemLeaderboardServiceTests {
+
+  @MockBean
+  private UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @MockBean
+  private MenuItemRatingsService menuItemRatingsService;
+
+  @Autowired
+  private MenuItemLeaderboardService menuItemLeaderboardService;
+
+  private UCSBDiningCommonsMenuItem item(long id, String diningCommonsCode, long... starCounts) {
+    when(menuItemRatingsService.get(id)).thenReturn(RatingStatistics.of(id, starCounts));
+    return UCSBDiningCommonsMenuItem.builder()
+        .id(id).diningCommonsCode(diningCommonsCode).name("Item " + id).station("Entrees").build();
+  }
+
+  private List<Long> itemIds(List<MenuItemRanking> rankings) {
+    return rankings.stream().map(MenuItemRanking::getItemId).toList();
+  }
+
+  @Test
+  void refresh_keeps_the_best_rated_items_of_each_dining_commons() {
+    List<UCSBDiningCommonsMenuItem> items = List.of(
+        item(1, "ortega", 0, 0, 0, 2, 0),
+        item(2, "ortega", 0, 0, 0, 0, 2),
+        item(3, "ortega", 0, 0, 2, 0, 0),
+        item(4, "ortega", 0, 0, 0, 1, 1),
+        item(5, "carrillo", 0, 0, 0, 0, 3));
+    when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(items);
+
+    menuItemLeaderboardService.refresh();
+
+    List<MenuItemRanking> ortega = menuItemLeaderboardService.top("ortega", 10);
+    assertEquals(List.of(2L, 4L, 1L), itemIds(ortega));
+    assertEquals(List.of(1, 2, 3), ortega.stream().map(MenuItemRanking::getRank).toList());
+    assertEquals(MenuItemRanking.builder()
+        .rank(1).itemId(2).name("Item 2").station("Entrees").reviews(2).averageStars(5.0).build(), ortega.get(0));
+    assertEquals(List.of(5L), itemIds(menuItemLeaderboardService.top("carrillo", 10)));
+  }
+
+  @Test
+  void ties_go_to_the_item_with_more_reviews_then_the_lower_id() {
+    List<UCSBDiningCommonsMenuItem> items = List.of(
+        item(9, "portola", 0, 0, 0, 3, 0),
+        item(8, "portola", 0, 0, 0, 2, 0),
+        item(7, "portola", 0, 0, 0, 3, 0));
+    when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(items);
+
+    menuItemLeaderboardService.refresh();
+
+    assertEquals(List.of(7L, 9L, 8L), itemIds(menuItemLeaderboardService.top("portola", 10)));
+  }
+
+  @Test
+  void items_with_too_few_reviews_or_no_dining_commons_are_left_out() {
+    List<UCSBDiningCommonsMenuItem> items = List.of(
+        item(1, "ortega", 0, 0, 0, 0, 1),
+        item(2, null, 0, 0, 0, 0, 5),
+        item(3, "ortega", 0, 0, 0, 0, 0));
+    when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(items);
+
+    menuItemLeaderboardService.refresh();
+
+    assertEquals(List.of(), menuItemLeaderboardService.top("ortega", 10));
+  }
+
+  @Test
+  void top_returns_at_most_limit_items_and_nothing_for_an_unknown_dining_commons() {
+    List<UCSBDiningCommonsMenuItem> items = List.of(
+        item(1, "ortega", 0, 0, 0, 2, 0),
+        item(2, "ortega", 0, 0, 0, 0, 2));
+    when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(items);
+
+    menuItemLeaderboardService.refresh();
+
+    assertEquals(List.of(2L), itemIds(menuItemLeaderboardService.top("ortega", 1)));
+    assertEquals(List.of(), menuItemLeaderboardService.top("ortega", -1));
+    assertEquals(List.of(), menuItemLeaderboardService.top("de-la-guerra", 10));
+  }
+}
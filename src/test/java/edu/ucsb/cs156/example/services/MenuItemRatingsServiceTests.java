@@ -0,0 +1,143 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.models.RatingStatistics;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewsRepository;
+
+@ExtendWith(SpringExtension.class)
+@Import(MenuItemRatingsService.class)
+class MenuItemRatingsServiceTests {
+
+  @MockBean
+  private MenuItemReviewsRepository menuItemReviewsRepository;
+
+  @Autowired
+  private MenuItemRatingsService menuItemRatingsService;
+
+  private static MenuItemReviewsRepository.StarCount starCount(long itemId, int stars, long reviews) {
+    return new MenuItemReviewsRepository.StarCount() {
+      public long getItemId() {
+        return itemId;
+      }
+
+      public int getStars() {
+        return stars;
+      }
+
+      public long getReviews() {
+        return reviews;
+      }
+    };
+  }
+
+  @Test
+  void rebuild_counts_each_items_reviews_by_stars() {
+    when(menuItemReviewsRepository.countReviewsByItemIdAndStars()).thenReturn(List.of(
+        starCount(3, 4, 2), starCount(3, 5, 1), starCount(8, 1, 1)));
+
+    menuItemRatingsService.rebuild();
+
+    RatingStatistics item3 = menuItemRatingsService.get(3);
+    assertEquals(3, item3.getItemId());
+    assertEquals(3, item3.getCount());
+    assertEquals(13, item3.getSum());
+    assertEquals(13.0 / 3, item3.getAverage());
+    assertEquals(List.of(0L, 0L, 0L, 2L, 1L), item3.getHistogram());
+    assertEquals(List.of(1L, 0L, 0L, 0L, 0L), menuItemRatingsService.get(8).getHistogram());
+  }
+
+  @Test
+  void an_item_without_reviews_has_no_average() {
+    RatingStatistics statistics = menuItemRatingsService.get(99);
+
+    assertEquals(0, statistics.getCount());
+    assertEquals(0, statistics.getSum());
+    assertNull(statistics.getAverage());
+    assertEquals(List.of(0L, 0L, 0L, 0L, 0L), statistics.getHistogram());
+  }
+
+  @Test
+  void added_and_removed_reviews_adjust_the_counts() {
+    menuItemRatingsService.reviewAdded(5, 4);
+    menuItemRatingsService.reviewAdded(5, 4);
+    menuItemRatingsService.reviewAdded(5, 2);
+    menuItemRatingsService.reviewRemoved(5, 4);
+
+    assertEquals(List.of(0L, 1L, 0L, 1L, 0L), menuItemRatingsService.get(5).getHistogram());
+    assertEquals(3.0, menuItemRatingsService.get(5).getAverage());
+  }
+
+  @Test
+  void removing_a_review_that_was_never_counted_does_not_go_negative() {
+    menuItemRatingsService.reviewRemoved(6, 3);
+    menuItemRatingsService.reviewAdded(6, 1);
+    menuItemRatingsService.reviewRemoved(6, 1);
+
+    assertEquals(0, menuItemRatingsService.get(6).getCount());
+  }
+
+  @Test
+  void reviews_with_stars_outside_1_to_5_are_not_counted() {
+    menuItemRatingsService.reviewAdded(7, 0);
+    menuItemRatingsService.reviewAdded(7, 6);
+    menuItemRatingsService.reviewRemoved(7, -1);
+
+    assertEquals(0, menuItemRatingsService.get(7).getCount());
+  }
+
+  @Test
+  void rebuild_corrects_counts_that_drifted_from_the_table() {
+    when(menuItemReviewsRepository.countReviewsByItemIdAndStars()).thenReturn(List.of(
+        starCount(3, 4, 2), starCount(4, 2, 1)));
+    menuItemRatingsService.rebuild();
+    menuItemRatingsService.reviewAdded(3, 4);
+    menuItemRatingsService.reviewAdded(9, 5);
+
+    menuItemRatingsService.rebuild();
+
+    assertEquals(List.of(0L, 0L, 0L, 2L, 0L), menuItemRatingsService.get(3).getHistogram());
+    assertEquals(1, menuItemRatingsService.get(4).getCount());
+    assertEquals(0, menuItemRatingsService.get(9).getCount());
+  }
+
+  @Test
+  void a_review_written_during_a_rebuild_is_counted_once() throws InterruptedException {
+    List<MenuItemReviewsRepository.StarCount> table = new ArrayList<>(List.of(starCount(10, 3, 1)));
+    Thread writer = new Thread(() -> menuItemRatingsService.write(() -> {
+      table.add(starCount(10, 5, 1));
+      menuItemRatingsService.reviewAdded(10, 5);
+      return null;
+    }));
+    // the write waits for the rebuild, so the rebuild reads the table from before it
+    when(menuItemReviewsRepository.countReviewsByItemIdAndStars()).thenAnswer(invocation -> {
+      writer.start();
+      while (writer.getState() != Thread.State.WAITING) {
+        Thread.onSpinWait();
+      }
+      return List.copyOf(table);
+    });
+
+    menuItemRatingsService.rebuild();
+    writer.join();
+
+    assertEquals(List.of(0L, 0L, 1L, 0L, 1L), menuItemRatingsService.get(10).getHistogram());
+  }
+
+  @Test
+  void write_returns_what_the_write_returns() {
+    assertEquals("done", menuItemRatingsService.write(() -> "done"));
+  }
+}
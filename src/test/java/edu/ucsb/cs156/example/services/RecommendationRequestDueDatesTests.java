@@ -0,0 +1,171 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+
+@ExtendWith(SpringExtension.class)
+@Import({ RecommendationRequestDueDates.class, RecommendationRequestDueDatesTests.DueEvents.class })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class RecommendationRequestDueDatesTests {
+
+  /** records the ids of the requests in the due events published to the application context */
+  @Component
+  static class DueEvents {
+    final List<Long> ids = new ArrayList<>();
+
+    @EventListener
+    void due(RecommendationRequestDueEvent event) {
+      ids.add(event.recommendationRequest().getId());
+    }
+  }
+
+  @MockBean
+  private RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  private RecommendationRequestDueDates recommendationRequestDueDates;
+
+  @Autowired
+  private DueEvents dueEvents;
+
+  private static RecommendationRequest request(long id, String dateNeeded, boolean done) {
+    return RecommendationRequest.builder()
+        .id(id)
+        .requesterEmail("cgaucho@ucsb.edu")
+        .professorEmail("phtcon@ucsb.edu")
+        .explanation("BS/MS program")
+        .dateRequested(LocalDateTime.parse("2024-10-01T00:00:00"))
+        .dateNeeded(dateNeeded == null ? null : LocalDateTime.parse(dateNeeded))
+        .done(done)
+        .build();
+  }
+
+  /** the rows findById reads; written with save and delete */
+  private final Map<Long, RecommendationRequest> table = new HashMap<>();
+
+  private void save(RecommendationRequest request) {
+    table.put(request.getId(), request);
+    recommendationRequestDueDates.refresh(request.getId());
+  }
+
+  private void delete(long id) {
+    table.remove(id);
+    recommendationRequestDueDates.refresh(id);
+  }
+
+  private void setNow(String localDateTime) {
+    recommendationRequestDueDates.clock = Clock.fixed(LocalDateTime.parse(localDateTime).toInstant(ZoneOffset.UTC),
+        ZoneOffset.UTC);
+  }
+
+  private static List<Long> ids(List<RecommendationRequest> requests) {
+    return requests.stream().map(RecommendationRequest::getId).toList();
+  }
+
+  @BeforeEach
+  void loadOpenRequests() {
+    when(recommendationRequestRepository.findById(anyLong()))
+        .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<Long>getArgument(0))));
+    setNow("2024-11-10T12:00:00");
+    when(recommendationRequestRepository.findByDoneFalse()).thenReturn(List.of(
+        request(3, "2024-11-12T00:00:00", false),
+        request(1, "2024-11-01T00:00:00", false),
+        request(2, "2024-11-10T12:00:00", false),
+        request(4, "2024-11-20T00:00:00", false),
+        request(5, null, false)));
+    recommendationRequestDueDates.reload();
+    recommendationRequestDueDates.tick();
+  }
+
+  @Test
+  void overdue_and_due_within_split_the_open_requests_at_now() {
+    assertEquals(List.of(1L), ids(recommendationRequestDueDates.overdue()));
+    assertEquals(List.of(2L, 3L), ids(recommendationRequestDueDates.dueWithin(Duration.ofDays(2))));
+    assertEquals(List.of(2L), ids(recommendationRequestDueDates.dueWithin(Duration.ZERO)));
+    assertEquals(List.of(2L, 3L, 4L), ids(recommendationRequestDueDates.dueWithin(Duration.ofDays(30))));
+  }
+
+  @Test
+  void written_and_deleted_requests_are_kept_current() {
+    save(request(6, "2024-11-11T00:00:00", false));
+    save(request(3, "2024-11-05T00:00:00", false));
+    save(request(1, "2024-11-01T00:00:00", true));
+    save(request(4, null, false));
+    delete(2);
+    delete(99);
+
+    assertEquals(List.of(3L), ids(recommendationRequestDueDates.overdue()));
+    assertEquals(List.of(6L), ids(recommendationRequestDueDates.dueWithin(Duration.ofDays(30))));
+  }
+
+  @Test
+  void refresh_keeps_the_request_as_it_is_in_the_table_whatever_order_writers_report_it_in() {
+    // one writer moves #3 to the 5th, a second marks it done, and then they report in the opposite order
+    table.put(3L, request(3, "2024-11-05T00:00:00", false));
+    table.put(3L, request(3, "2024-11-05T00:00:00", true));
+    recommendationRequestDueDates.refresh(3);
+    recommendationRequestDueDates.refresh(3);
+
+    assertEquals(List.of(1L), ids(recommendationRequestDueDates.overdue()));
+    assertEquals(List.of(2L, 4L), ids(recommendationRequestDueDates.dueWithin(Duration.ofDays(30))));
+  }
+
+  @Test
+  void the_first_tick_publishes_nothing() {
+    assertEquals(List.of(), dueEvents.ids);
+  }
+
+  @Test
+  void each_tick_publishes_the_requests_that_fell_due_since_the_previous_one() {
+    setNow("2024-11-10T12:01:00");
+    recommendationRequestDueDates.tick();
+    assertEquals(List.of(), dueEvents.ids);
+
+    save(request(6, "2024-11-11T00:00:00", false));
+    setNow("2024-11-12T00:00:00");
+    recommendationRequestDueDates.tick();
+    assertEquals(List.of(6L, 3L), dueEvents.ids);
+
+    recommendationRequestDueDates.tick();
+    assertEquals(List.of(6L, 3L), dueEvents.ids);
+  }
+
+  @Test
+  void a_clock_set_back_publishes_nothing_until_it_catches_up() {
+    setNow("2024-11-20T00:00:00");
+    recommendationRequestDueDates.tick();
+    assertEquals(List.of(3L, 4L), dueEvents.ids);
+
+    setNow("2024-11-11T00:00:00");
+    recommendationRequestDueDates.tick();
+    setNow("2024-11-20T00:00:00");
+    recommendationRequestDueDates.tick();
+
+    assertEquals(List.of(3L, 4L), dueEvents.ids);
+  }
+}
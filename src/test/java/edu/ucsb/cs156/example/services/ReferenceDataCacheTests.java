@@ -0,0 +1,146 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBOrganizations;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationsRepository;
+
+@ExtendWith(SpringExtension.class)
+@Import({ UCSBDiningCommonsCache.class, UCSBOrganizationsCache.class })
+class ReferenceDataCacheTests {
+
+  @MockBean
+  private UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @MockBean
+  private UCSBOrganizationsRepository ucsbOrganizationsRepository;
+
+  @Autowired
+  private UCSBDiningCommonsCache ucsbDiningCommonsCache;
+
+  @Autowired
+  private UCSBOrganizationsCache ucsbOrganizationsCache;
+
+  private final UCSBDiningCommons carrillo = UCSBDiningCommons.builder()
+      .code("carrillo").name("Carrillo").hasDiningCam(true).latitude(34.409953).longitude(-119.85277).build();
+
+  private final UCSBDiningCommons ortega = UCSBDiningCommons.builder()
+      .code("ortega").name("Ortega").hasTakeOutMeal(true).latitude(34.410987).longitude(-119.84709).build();
+
+  private final UCSBDiningCommons portola = UCSBDiningCommons.builder()
+      .code("portola").name("Portola").hasSackMeal(true).latitude(34.417723).longitude(-119.867427).build();
+
+  @Test
+  void reload_loads_the_table_in_order() {
+    when(ucsbDiningCommonsRepository.findAll()).thenReturn(List.of(portola, carrillo));
+
+    ucsbDiningCommonsCache.reload();
+
+    assertEquals(List.of(portola, carrillo), ucsbDiningCommonsCache.findAll());
+    assertEquals(Optional.of(carrillo), ucsbDiningCommonsCache.findById("carrillo"));
+    assertEquals(Optional.empty(), ucsbDiningCommonsCache.findById("munger-hall"));
+  }
+
+  @Test
+  void refresh_adds_a_new_row_and_replaces_an_existing_one() {
+    when(ucsbDiningCommonsRepository.findAll()).thenReturn(List.of(carrillo));
+    ucsbDiningCommonsCache.reload();
+    UCSBDiningCommons carrilloRenamed = UCSBDiningCommons.builder()
+        .code("carrillo").name("Carrillo Dining Commons").build();
+    when(ucsbDiningCommonsRepository.findById("ortega")).thenReturn(Optional.of(ortega));
+    when(ucsbDiningCommonsRepository.findById("carrillo")).thenReturn(Optional.of(carrilloRenamed));
+
+    ucsbDiningCommonsCache.refresh("ortega");
+    ucsbDiningCommonsCache.refresh("carrillo");
+
+    assertEquals(List.of(carrilloRenamed, ortega), ucsbDiningCommonsCache.findAll());
+    assertEquals(Optional.of(carrilloRenamed), ucsbDiningCommonsCache.findById("carrillo"));
+  }
+
+  @Test
+  void refresh_keeps_the_row_as_it_is_in_the_table_whatever_order_writers_report_it_in() {
+    when(ucsbDiningCommonsRepository.findAll()).thenReturn(List.of(carrillo));
+    ucsbDiningCommonsCache.reload();
+    // two updates committed in order A, B: both writers report after B is committed, B's first
+    UCSBDiningCommons carrilloB = UCSBDiningCommons.builder().code("carrillo").name("B").build();
+    when(ucsbDiningCommonsRepository.findById("carrillo")).thenReturn(Optional.of(carrilloB));
+
+    ucsbDiningCommonsCache.refresh("carrillo");
+    ucsbDiningCommonsCache.refresh("carrillo");
+
+    assertEquals(Optional.of(carrilloB), ucsbDiningCommonsCache.findById("carrillo"));
+  }
+
+  @Test
+  void refresh_removes_a_deleted_row_without_changing_earlier_snapshots() {
+    when(ucsbDiningCommonsRepository.findAll()).thenReturn(List.of(carrillo, ortega));
+    ucsbDiningCommonsCache.reload();
+    List<UCSBDiningCommons> before = ucsbDiningCommonsCache.findAll();
+    when(ucsbDiningCommonsRepository.findById("carrillo")).thenReturn(Optional.empty());
+
+    ucsbDiningCommonsCache.refresh("carrillo");
+
+    assertEquals(List.of(ortega), ucsbDiningCommonsCache.findAll());
+    assertEquals(Optional.empty(), ucsbDiningCommonsCache.findById("carrillo"));
+    assertEquals(List.of(carrillo, ortega), before);
+  }
+
+  @Test
+  void snapshots_cannot_be_modified() {
+    when(ucsbDiningCommonsRepository.findAll()).thenReturn(List.of(carrillo));
+    ucsbDiningCommonsCache.reload();
+
+    assertThrows(UnsupportedOperationException.class, () -> ucsbDiningCommonsCache.findAll().add(ortega));
+  }
+
+  @Test
+  void organizations_are_keyed_by_org_code() {
+    UCSBOrganizations zpr = UCSBOrganizations.builder()
+        .orgCode("ZPR").orgTranslationShort("ZETA PHI RHO").orgTranslation("ZETA PHI RHO").inactive(false).build();
+    when(ucsbOrganizationsRepository.findAll()).thenReturn(List.of(zpr));
+
+    ucsbOrganizationsCache.reload();
+
+    assertEquals(Optional.of(zpr), ucsbOrganizationsCache.findById("ZPR"));
+    assertTrue(ucsbOrganizationsCache.findById("SKY").isEmpty());
+  }
+
+  @Test
+  void the_dining_commons_spatial_index_follows_changes_to_the_table() {
+    when(ucsbDiningCommonsRepository.findAll()).thenReturn(List.of(carrillo, portola));
+    ucsbDiningCommonsCache.reload();
+
+    assertEquals(List.of("carrillo"), nearestCodes());
+
+    when(ucsbDiningCommonsRepository.findById("ortega")).thenReturn(Optional.of(ortega));
+    ucsbDiningCommonsCache.refresh("ortega");
+    assertEquals(List.of("ortega"), nearestCodes());
+
+    when(ucsbDiningCommonsRepository.findById("ortega")).thenReturn(Optional.empty());
+    ucsbDiningCommonsCache.refresh("ortega");
+    assertEquals(List.of("carrillo"), nearestCodes());
+    assertEquals(List.of("carrillo"), ucsbDiningCommonsCache.within(34.412603, -119.848456, 1000, commons -> true)
+        .stream().map(neighbor -> neighbor.item().getCode()).toList());
+  }
+
+  /** code of the commons nearest to Storke Tower */
+  private List<String> nearestCodes() {
+    return ucsbDiningCommonsCache.nearest(34.412603, -119.848456, 1, commons -> true)
+        .stream().map(neighbor -> neighbor.item().getCode()).toList();
+  }
+}
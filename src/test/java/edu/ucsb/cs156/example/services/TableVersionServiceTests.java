@@ -0,0 +1,43 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBOrganizations;
+
+@ExtendWith(SpringExtension.class)
+@Import(TableVersionService.class)
+class TableVersionServiceTests {
+
+  @Autowired
+  private TableVersionService tableVersionService;
+
+  @Test
+  void etag_is_stable_until_the_table_is_bumped() {
+    String etag = tableVersionService.etag(UCSBDate.class);
+
+    assertTrue(etag.startsWith("UCSBDate-"));
+    assertEquals(etag, tableVersionService.etag(UCSBDate.class));
+
+    tableVersionService.bump(UCSBDate.class);
+
+    assertNotEquals(etag, tableVersionService.etag(UCSBDate.class));
+  }
+
+  @Test
+  void bumping_one_table_does_not_change_another() {
+    String etag = tableVersionService.etag(UCSBOrganizations.class);
+
+    tableVersionService.bump(UCSBDate.class);
+
+    assertEquals(etag, tableVersionService.etag(UCSBOrganizations.class));
+  }
+}
@@ -0,0 +1,131 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+
+@ExtendWith(SpringExtension.class)
+@Import(UpcomingDatesCache.class)
+class UpcomingDatesCacheTests {
+
+  @MockBean
+  private UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  private UpcomingDatesCache upcomingDatesCache;
+
+  private static UCSBDate date(long id, String quarterYYYYQ, String name, String localDateTime) {
+    return UCSBDate.builder()
+        .id(id)
+        .quarterYYYYQ(quarterYYYYQ)
+        .name(name)
+        .localDateTime(localDateTime == null ? null : LocalDateTime.parse(localDateTime))
+        .build();
+  }
+
+  private void setNow(String localDateTime) {
+    upcomingDatesCache.clock = Clock.fixed(LocalDateTime.parse(localDateTime).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+  }
+
+  private static List<String> names(List<UCSBDate> dates) {
+    return dates.stream().map(UCSBDate::getName).toList();
+  }
+
+  @Test
+  void quarters_follow_the_calendar() {
+    assertEquals("20241", UpcomingDatesCache.quarterOf(LocalDate.parse("2024-01-01")));
+    assertEquals("20241", UpcomingDatesCache.quarterOf(LocalDate.parse("2024-03-31")));
+    assertEquals("20242", UpcomingDatesCache.quarterOf(LocalDate.parse("2024-04-01")));
+    assertEquals("20244", UpcomingDatesCache.quarterOf(LocalDate.parse("2024-12-31")));
+    assertEquals("20243", UpcomingDatesCache.nextQuarter("20242"));
+    assertEquals("20251", UpcomingDatesCache.nextQuarter("20244"));
+  }
+
+  @Test
+  void upcoming_lists_the_current_and_next_quarters_dates_from_now_on() {
+    setNow("2024-11-20T09:00:00");
+    when(ucsbDateRepository.findAllByQuarterYYYYQ("20244")).thenReturn(List.of(
+        date(3, "20244", "lastDayOfClasses", "2024-12-06T00:00:00"),
+        date(1, "20244", "firstDayOfClasses", "2024-09-26T00:00:00"),
+        date(4, "20244", "finalsStart", "2024-12-07T00:00:00"),
+        date(2, "20244", "thanksgiving", "2024-11-20T09:00:00"),
+        date(5, "20244", "unscheduled", null)));
+    when(ucsbDateRepository.findAllByQuarterYYYYQ("20251")).thenReturn(List.of(
+        date(7, "20251", "firstDayOfClasses", "2025-01-06T00:00:00"),
+        date(6, "20251", "registrationOpens", "2024-12-07T00:00:00")));
+
+    upcomingDatesCache.reload();
+
+    assertEquals(List.of("thanksgiving", "lastDayOfClasses", "finalsStart", "registrationOpens", "firstDayOfClasses"),
+        names(upcomingDatesCache.upcoming(10)));
+    assertEquals(List.of("thanksgiving", "lastDayOfClasses"), names(upcomingDatesCache.upcoming(2)));
+    assertEquals(List.of(), upcomingDatesCache.upcoming(-1));
+
+    setNow("2024-12-20T00:00:00");
+    assertEquals(List.of("firstDayOfClasses"), names(upcomingDatesCache.upcoming(10)));
+  }
+
+  @Test
+  void reload_moves_on_to_the_new_quarter() {
+    when(ucsbDateRepository.findAllByQuarterYYYYQ("20251")).thenReturn(List.of(
+        date(7, "20251", "firstDayOfClasses", "2025-01-06T00:00:00")));
+    when(ucsbDateRepository.findAllByQuarterYYYYQ("20252")).thenReturn(List.of(
+        date(8, "20252", "springFirstDayOfClasses", "2025-03-31T00:00:00")));
+    setNow("2025-01-01T00:00:00");
+
+    upcomingDatesCache.reload();
+
+    assertEquals(List.of("firstDayOfClasses", "springFirstDayOfClasses"), names(upcomingDatesCache.upcoming(10)));
+  }
+
+  @Test
+  void refresh_moves_only_the_written_date_without_reloading_the_quarters() {
+    setNow("2024-11-20T09:00:00");
+    when(ucsbDateRepository.findAllByQuarterYYYYQ("20244")).thenReturn(List.of(
+        date(3, "20244", "lastDayOfClasses", "2024-12-06T00:00:00"),
+        date(4, "20244", "finalsStart", "2024-12-07T00:00:00"),
+        date(2, "20244", "thanksgiving", "2024-11-28T00:00:00")));
+    when(ucsbDateRepository.findAllByQuarterYYYYQ("20251")).thenReturn(List.of(
+        date(7, "20251", "firstDayOfClasses", "2025-01-06T00:00:00")));
+    upcomingDatesCache.reload();
+    clearInvocations(ucsbDateRepository);
+
+    // moved to the same time as another date, which keeps the lower id first
+    when(ucsbDateRepository.findById(2L)).thenReturn(Optional.of(date(2, "20244", "thanksgiving", "2024-12-07T00:00:00")));
+    upcomingDatesCache.refresh(2);
+    // created
+    when(ucsbDateRepository.findById(8L)).thenReturn(Optional.of(date(8, "20251", "registrationOpens", "2024-12-01T00:00:00")));
+    upcomingDatesCache.refresh(8);
+    // deleted
+    when(ucsbDateRepository.findById(3L)).thenReturn(Optional.empty());
+    upcomingDatesCache.refresh(3);
+    // moved out of the two quarters, or given no time
+    when(ucsbDateRepository.findById(7L)).thenReturn(Optional.of(date(7, "20252", "firstDayOfClasses", "2025-03-31T00:00:00")));
+    upcomingDatesCache.refresh(7);
+    when(ucsbDateRepository.findById(4L)).thenReturn(Optional.of(date(4, "20244", "finalsStart", null)));
+    upcomingDatesCache.refresh(4);
+
+    verify(ucsbDateRepository, never()).findAllByQuarterYYYYQ(any());
+    assertEquals(List.of("registrationOpens", "thanksgiving"), names(upcomingDatesCache.upcoming(10)));
+  }
+}
@@ -0,0 +1,89 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.CacheStatistics;
+
+@ExtendWith(SpringExtension.class)
+@Import(UserCacheService.class)
+@TestPropertySource(properties = {
+    "app.userCache.maximumSize=100",
+    "app.userCache.expireAfterWriteSeconds=60"
+})
+class UserCacheServiceTests {
+
+  @Autowired
+  private UserCacheService userCacheService;
+
+  private final User user = User.builder().id(1L).email("cgaucho@ucsb.edu").build();
+
+  @BeforeEach
+  void clearCache() {
+    userCacheService.invalidateAll();
+  }
+
+  @Test
+  void test_get_calls_loader_only_on_a_miss() {
+    AtomicInteger loads = new AtomicInteger();
+
+    User first = userCacheService.get("cgaucho@ucsb.edu", email -> {
+      loads.incrementAndGet();
+      return user;
+    });
+    User second = userCacheService.get("cgaucho@ucsb.edu", email -> {
+      loads.incrementAndGet();
+      return user;
+    });
+
+    assertSame(user, first);
+    assertSame(user, second);
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void test_null_from_loader_is_not_cached() {
+    assertNull(userCacheService.get("nobody@ucsb.edu", email -> null));
+    assertSame(user, userCacheService.get("nobody@ucsb.edu", email -> user));
+  }
+
+  @Test
+  void test_invalidate_removes_one_user() {
+    User other = User.builder().id(2L).email("ldelplaya@ucsb.edu").build();
+    User updated = User.builder().id(1L).email("cgaucho@ucsb.edu").admin(true).build();
+    userCacheService.get("cgaucho@ucsb.edu", email -> user);
+    userCacheService.get("ldelplaya@ucsb.edu", email -> other);
+
+    userCacheService.invalidate("cgaucho@ucsb.edu");
+
+    assertEquals(1L, userCacheService.getStatistics().getSize());
+    assertSame(other, userCacheService.get("ldelplaya@ucsb.edu", email -> null));
+    assertSame(updated, userCacheService.get("cgaucho@ucsb.edu", email -> updated));
+  }
+
+  @Test
+  void test_statistics_count_hits_and_misses() {
+    CacheStatistics before = userCacheService.getStatistics();
+
+    userCacheService.get("cgaucho@ucsb.edu", email -> user);
+    userCacheService.get("cgaucho@ucsb.edu", email -> user);
+    userCacheService.get("cgaucho@ucsb.edu", email -> user);
+
+    CacheStatistics after = userCacheService.getStatistics();
+    assertEquals(2L, after.getHitCount() - before.getHitCount());
+    assertEquals(1L, after.getMissCount() - before.getMissCount());
+    assertEquals(1L, after.getSize());
+  }
+}
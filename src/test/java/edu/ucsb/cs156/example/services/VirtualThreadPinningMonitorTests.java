@@ -0,0 +1,67 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@Import({ VirtualThreadPinningMonitor.class, SimpleMeterRegistry.class })
+@TestPropertySource(properties = {
+    "app.virtualThreads.pinningMonitor.enabled=true",
+    "app.virtualThreads.pinningThresholdMillis=1"
+})
+@DirtiesContext
+class VirtualThreadPinningMonitorTests {
+
+  @Autowired
+  private VirtualThreadPinningMonitor monitor;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private final Object lock = new Object();
+
+  @Test
+  void sleeping_inside_synchronized_on_a_virtual_thread_is_reported() throws Exception {
+    pinFor(50);
+    pinFor(50);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+    while (monitor.getPinnedCount() < 2 && System.nanoTime() < deadline) {
+      Thread.sleep(100);
+    }
+
+    assertTrue(monitor.getPinnedCount() >= 2, "pinned events seen: " + monitor.getPinnedCount());
+    assertEquals(monitor.getPinnedCount(), (long) meterRegistry.get("jvm.threads.virtual.pinned").counter().count());
+    monitor.stop();
+  }
+
+  @Test
+  void describe_handles_a_missing_stack_trace() {
+    assertEquals(" (no stack trace)", VirtualThreadPinningMonitor.describe(null));
+  }
+
+  private void pinFor(long millis) throws InterruptedException {
+    Thread.ofVirtual().start(() -> {
+      synchronized (lock) {
+        try {
+          Thread.sleep(millis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }).join();
+  }
+}
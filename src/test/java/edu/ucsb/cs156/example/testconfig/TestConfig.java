@@ -5,8 +5,12 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 
 
+import edu.ucsb.cs156.example.services.AdminStatusService;
+import edu.ucsb.cs156.example.services.BulkImportService;
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+import edu.ucsb.cs156.example.services.UserCacheService;
 import org.springframework.context.annotation.Import;
 
 @TestConfiguration
@@ -23,4 +27,23 @@ public class TestConfig {
         return new GrantedAuthoritiesService();
     }
 
+    @Bean
+    public UserCacheService userCacheService() {
+        return new UserCacheService();
+    }
+
+    @Bean
+    public AdminStatusService adminStatusService() {
+        return new AdminStatusService();
+    }
+
+    @Bean
+    public BulkImportService bulkImportService() {
+        return new BulkImportService();
+    }
+
+    @Bean
+    public TableVersionService tableVersionService() {
+        return new TableVersionService();
+    }
 }
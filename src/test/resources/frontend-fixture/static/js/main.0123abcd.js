@@ -0,0 +1,201 @@
+// test fixture for StaticResourcesIT
+export const value0 = "precompressed bundle line 0";
+export const value1 = "precompressed bundle line 1";
+export const value2 = "precompressed bundle line 2";
+export const value3 = "precompressed bundle line 3";
+export const value4 = "precompressed bundle line 4";
+export const value5 = "precompressed bundle line 5";
+export const value6 = "precompressed bundle line 6";
+export const value7 = "precompressed bundle line 7";
+export const value8 = "precompressed bundle line 8";
+export const value9 = "precompressed bundle line 9";
+export const value10 = "precompressed bundle line 10";
+export const value11 = "precompressed bundle line 11";
+export const value12 = "precompressed bundle line 12";
+export const value13 = "precompressed bundle line 13";
+export const value14 = "precompressed bundle line 14";
+export const value15 = "precompressed bundle line 15";
+export const value16 = "precompressed bundle line 16";
+export const value17 = "precompressed bundle line 17";
+export const value18 = "precompressed bundle line 18";
+export const value19 = "precompressed bundle line 19";
+export const value20 = "precompressed bundle line 20";
+export const value21 = "precompressed bundle line 21";
+export const value22 = "precompressed bundle line 22";
+export const value23 = "precompressed bundle line 23";
+export const value24 = "precompressed bundle line 24";
+export const value25 = "precompressed bundle line 25";
+export const value26 = "precompressed bundle line 26";
+export const value27 = "precompressed bundle line 27";
+export const value28 = "precompressed bundle line 28";
+export const value29 = "precompressed bundle line 29";
+export const value30 = "precompressed bundle line 30";
+export const value31 = "precompressed bundle line 31";
+export const value32 = "precompressed bundle line 32";
+export const value33 = "precompressed bundle line 33";
+export const value34 = "precompressed bundle line 34";
+export const value35 = "precompressed bundle line 35";
+export const value36 = "precompressed bundle line 36";
+export const value37 = "precompressed bundle line 37";
+export const value38 = "precompressed bundle line 38";
+export const value39 = "precompressed bundle line 39";
+export const value40 = "precompressed bundle line 40";
+export const value41 = "precompressed bundle line 41";
+export const value42 = "precompressed bundle line 42";
+export const value43 = "precompressed bundle line 43";
+export const value44 = "precompressed bundle line 44";
+export const value45 = "precompressed bundle line 45";
+export const value46 = "precompressed bundle line 46";
+export const value47 = "precompressed bundle line 47";
+export const value48 = "precompressed bundle line 48";
+export const value49 = "precompressed bundle line 49";
+export const value50 = "precompressed bundle line 50";
+export const value51 = "precompressed bundle line 51";
+export const value52 = "precompressed bundle line 52";
+export const value53 = "precompressed bundle line 53";
+export const value54 = "precompressed bundle line 54";
+export const value55 = "precompressed bundle line 55";
+export const value56 = "precompressed bundle line 56";
+export const value57 = "precompressed bundle line 57";
+export const value58 = "precompressed bundle line 58";
+export const value59 = "precompressed bundle line 59";
+export const value60 = "precompressed bundle line 60";
+export const value61 = "precompressed bundle line 61";
+export const value62 = "precompressed bundle line 62";
+export const value63 = "precompressed bundle line 63";
+export const value64 = "precompressed bundle line 64";
+export const value65 = "precompressed bundle line 65";
+export const value66 = "precompressed bundle line 66";
+export const value67 = "precompressed bundle line 67";
+export const value68 = "precompressed bundle line 68";
+export const value69 = "precompressed bundle line 69";
+export const value70 = "precompressed bundle line 70";
+export const value71 = "precompressed bundle line 71";
+export const value72 = "precompressed bundle line 72";
+export const value73 = "precompressed bundle line 73";
+export const value74 = "precompressed bundle line 74";
+export const value75 = "precompressed bundle line 75";
+export const value76 = "precompressed bundle line 76";
+export const value77 = "precompressed bundle line 77";
+export const value78 = "precompressed bundle line 78";
+export const value79 = "precompressed bundle line 79";
+export const value80 = "precompressed bundle line 80";
+export const value81 = "precompressed bundle line 81";
+export const value82 = "precompressed bundle line 82";
+export const value83 = "precompressed bundle line 83";
+export const value84 = "precompressed bundle line 84";
+export const value85 = "precompressed bundle line 85";
+export const value86 = "precompressed bundle line 86";
+export const value87 = "precompressed bundle line 87";
+export const value88 = "precompressed bundle line 88";
+export const value89 = "precompressed bundle line 89";
+export const value90 = "precompressed bundle line 90";
+export const value91 = "precompressed bundle line 91";
+export const value92 = "precompressed bundle line 92";
+export const value93 = "precompressed bundle line 93";
+export const value94 = "precompressed bundle line 94";
+export const value95 = "precompressed bundle line 95";
+export const value96 = "precompressed bundle line 96";
+export const value97 = "precompressed bundle line 97";
+export const value98 = "precompressed bundle line 98";
+export const value99 = "precompressed bundle line 99";
+export const value100 = "precompressed bundle line 100";
+export const value101 = "precompressed bundle line 101";
+export const value102 = "precompressed bundle line 102";
+export const value103 = "precompressed bundle line 103";
+export const value104 = "precompressed bundle line 104";
+export const value105 = "precompressed bundle line 105";
+export const value106 = "precompressed bundle line 106";
+export const value107 = "precompressed bundle line 107";
+export const value108 = "precompressed bundle line 108";
+export const value109 = "precompressed bundle line 109";
+export const value110 = "precompressed bundle line 110";
+export const value111 = "precompressed bundle line 111";
+export const value112 = "precompressed bundle line 112";
+export const value113 = "precompressed bundle line 113";
+export const value114 = "precompressed bundle line 114";
+export const value115 = "precompressed bundle line 115";
+export const value116 = "precompressed bundle line 116";
+export const value117 = "precompressed bundle line 117";
+export const value118 = "precompressed bundle line 118";
+export const value119 = "precompressed bundle line 119";
+export const value120 = "precompressed bundle line 120";
+export const value121 = "precompressed bundle line 121";
+export const value122 = "precompressed bundle line 122";
+export const value123 = "precompressed bundle line 123";
+export const value124 = "precompressed bundle line 124";
+export const value125 = "precompressed bundle line 125";
+export const value126 = "precompressed bundle line 126";
+export const value127 = "precompressed bundle line 127";
+export const value128 = "precompressed bundle line 128";
+export const value129 = "precompressed bundle line 129";
+export const value130 = "precompressed bundle line 130";
+export const value131 = "precompressed bundle line 131";
+export const value132 = "precompressed bundle line 132";
+export const value133 = "precompressed bundle line 133";
+export const value134 = "precompressed bundle line 134";
+export const value135 = "precompressed bundle line 135";
+export const value136 = "precompressed bundle line 136";
+export const value137 = "precompressed bundle line 137";
+export const value138 = "precompressed bundle line 138";
+export const value139 = "precompressed bundle line 139";
+export const value140 = "precompressed bundle line 140";
+export const value141 = "precompressed bundle line 141";
+export const value142 = "precompressed bundle line 142";
+export const value143 = "precompressed bundle line 143";
+export const value144 = "precompressed bundle line 144";
+export const value145 = "precompressed bundle line 145";
+export const value146 = "precompressed bundle line 146";
+export const value147 = "precompressed bundle line 147";
+export const value148 = "precompressed bundle line 148";
+export const value149 = "precompressed bundle line 149";
+export const value150 = "precompressed bundle line 150";
+export const value151 = "precompressed bundle line 151";
+export const value152 = "precompressed bundle line 152";
+export const value153 = "precompressed bundle line 153";
+export const value154 = "precompressed bundle line 154";
+export const value155 = "precompressed bundle line 155";
+export const value156 = "precompressed bundle line 156";
+export const value157 = "precompressed bundle line 157";
+export const value158 = "precompressed bundle line 158";
+export const value159 = "precompressed bundle line 159";
+export const value160 = "precompressed bundle line 160";
+export const value161 = "precompressed bundle line 161";
+export const value162 = "precompressed bundle line 162";
+export const value163 = "precompressed bundle line 163";
+export const value164 = "precompressed bundle line 164";
+export const value165 = "precompressed bundle line 165";
+export const value166 = "precompressed bundle line 166";
+export const value167 = "precompressed bundle line 167";
+export const value168 = "precompressed bundle line 168";
+export const value169 = "precompressed bundle line 169";
+export const value170 = "precompressed bundle line 170";
+export const value171 = "precompressed bundle line 171";
+export const value172 = "precompressed bundle line 172";
+export const value173 = "precompressed bundle line 173";
+export const value174 = "precompressed bundle line 174";
+export const value175 = "precompressed bundle line 175";
+export const value176 = "precompressed bundle line 176";
+export const value177 = "precompressed bundle line 177";
+export const value178 = "precompressed bundle line 178";
+export const value179 = "precompressed bundle line 179";
+export const value180 = "precompressed bundle line 180";
+export const value181 = "precompressed bundle line 181";
+export const value182 = "precompressed bundle line 182";
+export const value183 = "precompressed bundle line 183";
+export const value184 = "precompressed bundle line 184";
+export const value185 = "precompressed bundle line 185";
+export const value186 = "precompressed bundle line 186";
+export const value187 = "precompressed bundle line 187";
+export const value188 = "precompressed bundle line 188";
+export const value189 = "precompressed bundle line 189";
+export const value190 = "precompressed bundle line 190";
+export const value191 = "precompressed bundle line 191";
+export const value192 = "precompressed bundle line 192";
+export const value193 = "precompressed bundle line 193";
+export const value194 = "precompressed bundle line 194";
+export const value195 = "precompressed bundle line 195";
+export const value196 = "precompressed bundle line 196";
+export const value197 = "precompressed bundle line 197";
+export const value198 = "precompressed bundle line 198";
+export const value199 = "precompressed bundle line 199";